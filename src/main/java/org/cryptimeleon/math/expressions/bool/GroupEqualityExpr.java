@@ -68,20 +68,26 @@ public class GroupEqualityExpr implements BooleanExpression {
 
     private static class LazyGroupEqualityResult extends LazyBoolEvaluationResult {
         protected final GroupElement lhs, rhs;
+        /**
+         * lhs * rhs^(-1), computed instead of lhs and rhs if their values are not known yet (for lazy groups, this
+         * is a single multiexponentiation instead of two). Null if lhs and rhs are compared directly.
+         */
+        protected final GroupElement quotient;
 
         public LazyGroupEqualityResult(GroupElement lhs, GroupElement rhs) {
-            this.lhs = lhs.compute();
-            this.rhs = rhs.compute();
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.quotient = lhs.isComputed() && rhs.isComputed() ? null : lhs.op(rhs.inv()).compute();
         }
 
         @Override
         public boolean getResult() {
-            return lhs.equals(rhs);
+            return quotient == null ? lhs.equals(rhs) : quotient.isNeutralElement();
         }
 
         @Override
         public boolean isResultKnown() {
-            return lhs.isComputed() && rhs.isComputed(); //already done (e.g., values have been computed before)
+            return quotient == null || quotient.isComputed(); //already done (e.g., values have been computed before)
         }
     }
 }
@@ -4,6 +4,7 @@ import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A {@code ByteAccumulator} takes a (large) byte-string x as input and outputs a byte array
@@ -25,6 +26,16 @@ public abstract class ByteAccumulator implements Comparable<ByteAccumulator> {
      */
     public abstract void append(byte[] bytes);
 
+    /**
+     * Appends {@code bytes[offset], ..., bytes[offset+length-1]} to the input x of this accumulator.
+     * <p>
+     * Accumulators that can process parts of arrays directly should override this to avoid the copy made by
+     * the default implementation.
+     */
+    public void append(byte[] bytes, int offset, int length) {
+        append(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
     /**
      * Extracts f(x) from the accumulator, where x was input by {@code append()} calls.
      *
@@ -1,7 +1,10 @@
 package org.cryptimeleon.math.hash;
 
+import org.cryptimeleon.math.hash.impl.BufferingHashAccumulator;
+import org.cryptimeleon.math.hash.impl.HashAccumulator;
 import org.cryptimeleon.math.serialization.StandaloneRepresentable;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -34,6 +37,41 @@ public interface HashFunction extends StandaloneRepresentable {
      */
     byte[] hash(byte[] bytes);
 
+    /**
+     * Hashes the concatenation of the given buffers' remaining bytes.
+     * <p>
+     * This allows hashing a concatenation (e.g. of a prefix and some data, or of several
+     * {@link org.cryptimeleon.math.misc.ByteArrayImpl#asByteBuffer()} views) without building it.
+     * The buffers' positions are not changed.
+     * The default implementation copies the parts into a single array, implementations that process their input
+     * incrementally should override it.
+     *
+     * @param parts the buffers whose remaining bytes are hashed
+     * @return the hash of the concatenation
+     */
+    default byte[] hash(ByteBuffer... parts) {
+        int length = 0;
+        for (ByteBuffer part : parts)
+            length = Math.addExact(length, part.remaining());
+        ByteBuffer concatenation = ByteBuffer.allocate(length);
+        for (ByteBuffer part : parts)
+            concatenation.put(part.duplicate());
+        return hash(concatenation.array());
+    }
+
+    /**
+     * Returns an accumulator whose {@link HashAccumulator#extractBytes()} computes this hash function on the input
+     * appended to it (see also {@link HashTranscript}).
+     * <p>
+     * The default implementation buffers the input, hash functions that can process their input incrementally
+     * should override it.
+     *
+     * @return a new accumulator for this hash function
+     */
+    default HashAccumulator createAccumulator() {
+        return new BufferingHashAccumulator(this);
+    }
+
     /**
      * Hashes a {@code String} using the hash function.
      *
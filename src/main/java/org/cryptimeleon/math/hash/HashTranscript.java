@@ -0,0 +1,94 @@
+package org.cryptimeleon.math.hash;
+
+import org.cryptimeleon.math.hash.impl.HashAccumulator;
+
+/**
+ * The running hash of a sequence of inputs, e.g. a Fiat-Shamir transcript, from which hash values can be obtained
+ * at any point without restarting.
+ * <p>
+ * Inputs are appended via the usual {@link ByteAccumulator} methods.
+ * {@link #extractBytes()} returns the hash of the input so far, and the transcript can be continued afterwards.
+ * {@link #fork()} returns an independent copy of the transcript.
+ * <p>
+ * For hash functions with an incremental accumulator (e.g. the SHA hash functions), the copy resumes from the
+ * internal state of the hash function, so that an input prefix is only processed once.
+ * For example, to hash many challenges with the same (large) public parameters as prefix:
+ * <pre>
+ * HashTranscript prefix = new HashTranscript(hashFunction, publicParameters);
+ * for (...) {
+ *     HashTranscript transcript = prefix.fork();
+ *     transcript.escapeAndSeparate(commitment);
+ *     byte[] challenge = transcript.extractBytes();
+ * }
+ * </pre>
+ *
+ * @see HashFunction#createAccumulator()
+ */
+public class HashTranscript extends ByteAccumulator {
+    protected final HashAccumulator state;
+
+    /**
+     * Starts an empty transcript.
+     *
+     * @param hashFunction the hash function used to hash the transcript
+     * @throws UnsupportedOperationException if the accumulator of the hash function cannot be copied
+     */
+    public HashTranscript(HashFunction hashFunction) {
+        this(hashFunction.createAccumulator());
+    }
+
+    /**
+     * Starts a transcript with the unique byte representation of the given prefix.
+     *
+     * @param hashFunction the hash function used to hash the transcript
+     * @param prefix the first input of the transcript
+     * @throws UnsupportedOperationException if the accumulator of the hash function cannot be copied
+     */
+    public HashTranscript(HashFunction hashFunction, UniqueByteRepresentable prefix) {
+        this(hashFunction);
+        prefix.updateAccumulator(this);
+    }
+
+    /**
+     * Starts a transcript with the given accumulator state.
+     *
+     * @param state the accumulator of the transcript's hash function
+     * @throws UnsupportedOperationException if the accumulator cannot be copied
+     */
+    protected HashTranscript(HashAccumulator state) {
+        if (!state.supportsCopy())
+            throw new UnsupportedOperationException(state.getClass().getName() + " cannot be copied");
+        this.state = state;
+    }
+
+    @Override
+    public void append(byte[] bytes) {
+        state.append(bytes);
+    }
+
+    @Override
+    public void append(byte[] bytes, int offset, int length) {
+        state.append(bytes, offset, length);
+    }
+
+    /**
+     * Returns the hash of the transcript so far, without ending the transcript.
+     *
+     * @return the hash value of all input appended so far
+     */
+    @Override
+    public byte[] extractBytes() {
+        return state.copy().extractBytes();
+    }
+
+    /**
+     * Returns an independent copy of this transcript.
+     * <p>
+     * Appending to either transcript afterwards does not affect the other one.
+     *
+     * @return a transcript whose input is the input of this transcript so far
+     */
+    public HashTranscript fork() {
+        return new HashTranscript(state.copy());
+    }
+}
@@ -5,6 +5,8 @@ import org.cryptimeleon.math.hash.UniqueByteRepresentable;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.StandaloneRepresentable;
 
+import java.nio.ByteBuffer;
+
 /**
  * The base class for SHA hash functions which implements some common methods.
  *
@@ -33,10 +35,18 @@ abstract class AbstractSHAHashFunction implements HashFunction, StandaloneRepres
     @Override
     public byte[] hash(final UniqueByteRepresentable ubr) {
         final SHAHashAccumulator accu = new SHAHashAccumulator(algorithm);
-        accu.append(ubr.getUniqueByteRepresentation());
+        ubr.updateAccumulator(accu);
         return accu.extractBytes();
     }
 
+    /**
+     * Returns an incremental accumulator for this hash function, which can be copied without hashing its input again.
+     */
+    @Override
+    public SHAHashAccumulator createAccumulator() {
+        return new SHAHashAccumulator(algorithm);
+    }
+
     @Override
     public Representation getRepresentation() {
         return null;
@@ -54,4 +64,18 @@ abstract class AbstractSHAHashFunction implements HashFunction, StandaloneRepres
         accu.append(bytes);
         return accu.extractBytes();
     }
+
+    /**
+     * Applies this hash function to the concatenation of the given buffers' remaining bytes, without copying them.
+     *
+     * @param parts the buffers whose remaining bytes are hashed (their positions are not changed)
+     * @return the output of the hash function in form of a {@code byte[]}
+     */
+    @Override
+    public byte[] hash(final ByteBuffer... parts) {
+        final SHAHashAccumulator accu = new SHAHashAccumulator(algorithm);
+        for (ByteBuffer part : parts)
+            accu.digest.update(part.duplicate());
+        return accu.extractBytes();
+    }
 }
@@ -0,0 +1,48 @@
+package org.cryptimeleon.math.hash.impl;
+
+import org.cryptimeleon.math.hash.HashFunction;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A {@link HashAccumulator} for arbitrary {@link HashFunction}s, which buffers its input and hashes it
+ * in {@link #extractBytes()}.
+ * <p>
+ * This is the default for {@link HashFunction#createAccumulator()}.
+ * Unlike for incremental accumulators, a copy of the state does not save hashing the prefix again.
+ */
+public class BufferingHashAccumulator extends HashAccumulator {
+    protected final HashFunction hashFunction;
+    protected final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    public BufferingHashAccumulator(HashFunction hashFunction) {
+        this.hashFunction = hashFunction;
+    }
+
+    @Override
+    public void append(byte[] bytes) {
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void append(byte[] bytes, int offset, int length) {
+        buffer.write(bytes, offset, length);
+    }
+
+    @Override
+    public byte[] extractBytes() {
+        return hashFunction.hash(buffer.toByteArray());
+    }
+
+    @Override
+    public BufferingHashAccumulator copy() {
+        BufferingHashAccumulator result = new BufferingHashAccumulator(hashFunction);
+        result.append(buffer.toByteArray());
+        return result;
+    }
+
+    @Override
+    public boolean supportsCopy() {
+        return true;
+    }
+}
@@ -16,6 +16,11 @@ public class ByteArrayAccumulator extends ByteAccumulator {
         buffer.write(escapedBytes, 0, escapedBytes.length);
     }
 
+    @Override
+    public void append(byte[] bytes, int offset, int length) {
+        buffer.write(bytes, offset, length);
+    }
+
     @Override
     public byte[] extractBytes() {
         return buffer.toByteArray();
@@ -2,13 +2,35 @@ package org.cryptimeleon.math.hash.impl;
 
 import org.cryptimeleon.math.hash.ByteAccumulator;
 import org.cryptimeleon.math.hash.HashFunction;
+import org.cryptimeleon.math.hash.HashTranscript;
 
 /**
  * Marker interface for accumulators that are used to implement {@link HashFunction}s.
  * <p>
  * Specifically, it's a {@link ByteAccumulator} that outputs the hash value of its input in {@link #extractBytes()}.
- *
+ * <p>
+ * Accumulators can be obtained via {@link HashFunction#createAccumulator()}.
+ * If they support {@link #copy()} (see {@link #supportsCopy()}), the state after absorbing some prefix can be reused
+ * for several inputs with that prefix (see {@link HashTranscript}).
  */
 public abstract class HashAccumulator extends ByteAccumulator {
 
+    /**
+     * Returns an independent accumulator whose input is the input of this accumulator so far.
+     * <p>
+     * Appending to either accumulator afterwards does not affect the other one.
+     *
+     * @return a copy of this accumulator's state
+     * @throws UnsupportedOperationException if the accumulator cannot be copied
+     */
+    public HashAccumulator copy() {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot be copied");
+    }
+
+    /**
+     * Returns whether this accumulator supports {@link #copy()}.
+     */
+    public boolean supportsCopy() {
+        return false;
+    }
 }
@@ -8,7 +8,8 @@ import java.security.NoSuchAlgorithmException;
 /**
  * A {@link HashAccumulator} that is used to implement the {@link HashFunction}s
  * {@link SHA256HashFunction} and {@link SHA512HashFunction}.
- *
+ * <p>
+ * Copies (see {@link #copy()}) clone the digest's internal state, so the absorbed input is not processed again.
  */
 public class SHAHashAccumulator extends HashAccumulator {
     protected final MessageDigest digest;
@@ -21,13 +22,39 @@ public class SHAHashAccumulator extends HashAccumulator {
         }
     }
 
+    protected SHAHashAccumulator(final MessageDigest digest) {
+        this.digest = digest;
+    }
+
     @Override
     public void append(final byte[] bytes) {
         digest.update(bytes);
     }
 
+    @Override
+    public void append(byte[] bytes, int offset, int length) {
+        digest.update(bytes, offset, length);
+    }
+
     @Override
     public byte[] extractBytes() {
         return digest.digest();
     }
+
+    @Override
+    public SHAHashAccumulator copy() {
+        try {
+            return new SHAHashAccumulator((MessageDigest) digest.clone());
+        } catch (CloneNotSupportedException e) {
+            throw new UnsupportedOperationException("Digest " + digest.getAlgorithm() + " cannot be cloned", e);
+        }
+    }
+
+    /**
+     * Returns true, as the SHA digests of the standard providers can be cloned.
+     */
+    @Override
+    public boolean supportsCopy() {
+        return true;
+    }
 }
@@ -7,6 +7,7 @@ import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
 
 import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
 
 /**
  * A hash function with variable output length.
@@ -18,6 +19,9 @@ import java.nio.ByteBuffer;
  * is also a random oracle.
  * If the inner hash function is collision resistant and the desired output length is larger than
  * the inner hash function's output length, then the resulting hash function is also collision resistant.
+ * <p>
+ * Long outputs are computed in parallel.
+ * To read the output incrementally without fixing its length in advance, see {@link #createReader(byte[])}.
  */
 public class VariableOutputLengthHashFunction implements HashFunction, StandaloneRepresentable {
 
@@ -76,6 +80,11 @@ public class VariableOutputLengthHashFunction implements HashFunction, Standalon
 
     @Override
     public byte[] hash(byte[] x) {
+        return hash(ByteBuffer.wrap(x));
+    }
+
+    @Override
+    public byte[] hash(ByteBuffer... x) {
         // Construction: Use y = innerFunction(0||x) as a starting value. Note that the length of y is constant.
         // The hash value of x is innerFunction(1 || y) || innerFunction(2 || y) || ...
         //  (the resulting byte sequence is truncated to fit the desired byte number)
@@ -86,29 +95,248 @@ public class VariableOutputLengthHashFunction implements HashFunction, Standalon
         //  or innerFunction(1 || innerFunction(0||x)) = innerFunction(1 || innerFunction(0||x')).
         //  We have found a collision in both cases.
 
+        return expand(computeY(x));
+    }
+
+    /**
+     * Computes y = innerFunction(0||x).
+     */
+    private byte[] computeY(ByteBuffer... x) {
+        // The prefixed inputs are passed to the inner function as parts, so x is not copied
+        ByteBuffer[] prefixedX = new ByteBuffer[x.length + 1];
+        prefixedX[0] = intToBuffer(0);
+        System.arraycopy(x, 0, prefixedX, 1, x.length);
+        return innerFunction.hash(prefixedX);
+    }
+
+    /**
+     * Computes the output innerFunction(1 || y) || innerFunction(2 || y) || ... from y = innerFunction(0||x).
+     */
+    private byte[] expand(byte[] y) {
         byte[] result = new byte[outputLength];
-        int bytesFilled = 0;
-        byte[] y = innerFunction.hash(prependInt(0, x));
-        int c = 1; //counter for the innerFunction(c || y) segments
-        while (bytesFilled < result.length) {
-            byte[] hash = innerFunction.hash(prependInt(c++, y)); //innerFunction(c || y)
-            for (int i = 0; i < hash.length && bytesFilled < result.length; i++) // copy hash into result array
-                result[bytesFilled++] = hash[i];
+        new Expander(innerFunction, y).writeBlocks(1, result, 0, outputLength);
+        return result;
+    }
+
+    /**
+     * Returns a reader for the (unbounded) output stream innerFunction(1 || y) || innerFunction(2 || y) || ...
+     * with y = innerFunction(0||x), i.e. the hash of x with an output length that does not need to be known
+     * in advance.
+     * <p>
+     * The first {@link #getOutputLength()} bytes read are equal to {@code hash(x)}.
+     *
+     * @param x the input to hash
+     * @return a reader for the output of the hash function
+     */
+    public OutputReader createReader(byte[] x) {
+        return createReader(ByteBuffer.wrap(x));
+    }
+
+    /**
+     * Returns a reader for the output when hashing the concatenation of the given buffers' remaining bytes.
+     *
+     * @param x the buffers whose remaining bytes are hashed (their positions are not changed)
+     * @return a reader for the output of the hash function
+     * @see #createReader(byte[])
+     */
+    public OutputReader createReader(ByteBuffer... x) {
+        return new OutputReader(new Expander(innerFunction, computeY(x)));
+    }
+
+    /**
+     * Returns an accumulator that absorbs x into innerFunction(0||x) incrementally (if the inner function's
+     * accumulator does), so that it can be copied after absorbing a prefix of x (see
+     * {@link org.cryptimeleon.math.hash.HashTranscript}).
+     */
+    @Override
+    public HashAccumulator createAccumulator() {
+        HashAccumulator inner = innerFunction.createAccumulator();
+        inner.append(0);
+        return new Accumulator(inner);
+    }
+
+    /**
+     * Accumulator computing y = innerFunction(0||x) with the inner function's accumulator, then expanding y.
+     */
+    private class Accumulator extends HashAccumulator {
+        private final HashAccumulator inner;
+
+        Accumulator(HashAccumulator inner) {
+            this.inner = inner;
         }
 
-        return result;
+        @Override
+        public void append(byte[] bytes) {
+            inner.append(bytes);
+        }
+
+        @Override
+        public void append(byte[] bytes, int offset, int length) {
+            inner.append(bytes, offset, length);
+        }
+
+        @Override
+        public byte[] extractBytes() {
+            return expand(inner.extractBytes());
+        }
+
+        @Override
+        public HashAccumulator copy() {
+            return new Accumulator(inner.copy());
+        }
+
+        @Override
+        public boolean supportsCopy() {
+            return inner.supportsCopy();
+        }
     }
 
     /**
-     * Given {@code c} and byte array {@code value}, prepends {@code c} to {@code value}.
+     * Computes the blocks innerFunction(c || y) of the output.
+     * <p>
+     * Blocks are independent of each other, so long outputs are computed in parallel.
+     * Each block is hashed with a copy of an initial accumulator of the inner function
+     * (if it can be copied, which is cheaper than setting up a new one) and written directly to the output.
      */
-    private byte[] prependInt(int c, byte[] value) {
-        byte[] result = new byte[Integer.BYTES + value.length];
-        ByteBuffer b = ByteBuffer.wrap(result);
-        b.putInt(c);
-        b.put(value);
+    private static class Expander {
+        /**
+         * Minimum number of blocks for which the blocks are computed in parallel.
+         */
+        private static final int PARALLEL_THRESHOLD = 64;
+        /**
+         * Number of consecutive blocks computed by a single parallel task.
+         */
+        private static final int BLOCKS_PER_TASK = 32;
 
-        return result;
+        private final HashFunction innerFunction;
+        private final byte[] y;
+        private final int blockLength;
+        private final HashAccumulator initialAccumulator;
+
+        Expander(HashFunction innerFunction, byte[] y) {
+            this.innerFunction = innerFunction;
+            this.y = y;
+            this.blockLength = innerFunction.getOutputLength();
+            HashAccumulator accumulator = innerFunction.createAccumulator();
+            this.initialAccumulator = accumulator.supportsCopy() ? accumulator : null;
+        }
+
+        /**
+         * Writes the first {@code length} bytes of the blocks {@code firstBlock, firstBlock + 1, ...}
+         * to {@code output[offset], ...}.
+         */
+        void writeBlocks(int firstBlock, byte[] output, int offset, int length) {
+            int numberOfBlocks = (length + blockLength - 1) / blockLength;
+            if (firstBlock - 1 > Integer.MAX_VALUE - numberOfBlocks)
+                throw new IllegalStateException("Output is limited to " + Integer.MAX_VALUE + " blocks");
+
+            if (numberOfBlocks < PARALLEL_THRESHOLD) {
+                for (int i = 0; i < numberOfBlocks; i++)
+                    writeBlock(firstBlock + i, output, offset, length, i);
+            } else {
+                int numberOfTasks = (numberOfBlocks + BLOCKS_PER_TASK - 1) / BLOCKS_PER_TASK;
+                IntStream.range(0, numberOfTasks).parallel().forEach(task -> {
+                    int end = Math.min(numberOfBlocks, (task + 1) * BLOCKS_PER_TASK);
+                    for (int i = task * BLOCKS_PER_TASK; i < end; i++)
+                        writeBlock(firstBlock + i, output, offset, length, i);
+                });
+            }
+        }
+
+        /**
+         * Writes {@code block}, the {@code i}-th block of {@code output[offset], ..., output[offset+length-1]},
+         * to its part of the output.
+         */
+        private void writeBlock(int block, byte[] output, int offset, int length, int i) {
+            HashAccumulator accumulator = initialAccumulator != null ? initialAccumulator.copy()
+                    : innerFunction.createAccumulator();
+            accumulator.append(block);
+            accumulator.append(y);
+            byte[] hash = accumulator.extractBytes(); //innerFunction(c || y)
+            if (hash.length != blockLength)
+                throw new IllegalStateException("Inner hash function output has length " + hash.length
+                        + " instead of " + blockLength);
+            int position = i * blockLength;
+            System.arraycopy(hash, 0, output, offset + position, Math.min(blockLength, length - position));
+        }
+    }
+
+    /**
+     * Reads the output of the hash function incrementally (see {@link #createReader(byte[])}).
+     * <p>
+     * Not thread-safe.
+     */
+    public static class OutputReader {
+        private final Expander expander;
+        /**
+         * Counter of the next block that has not been computed yet.
+         */
+        private int nextBlock = 1;
+        /**
+         * Last computed block, of which the bytes from {@code bufferPosition} have not been read yet.
+         */
+        private final byte[] buffer;
+        private int bufferPosition;
+
+        private OutputReader(Expander expander) {
+            this.expander = expander;
+            this.buffer = new byte[expander.blockLength];
+            this.bufferPosition = buffer.length;
+        }
+
+        /**
+         * Reads the next {@code length} bytes of the output to {@code output[offset], ...}.
+         *
+         * @param output the array to write to
+         * @param offset start of the written part of {@code output}
+         * @param length number of bytes to read
+         */
+        public void read(byte[] output, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > output.length || offset + length < 0)
+                throw new IndexOutOfBoundsException();
+
+            // Rest of the last block
+            int fromBuffer = Math.min(length, buffer.length - bufferPosition);
+            System.arraycopy(buffer, bufferPosition, output, offset, fromBuffer);
+            bufferPosition += fromBuffer;
+            offset += fromBuffer;
+            length -= fromBuffer;
+
+            // Complete blocks (in parallel for long outputs)
+            int completeBlocks = length / buffer.length;
+            if (completeBlocks > 0) {
+                expander.writeBlocks(nextBlock, output, offset, completeBlocks * buffer.length);
+                nextBlock += completeBlocks;
+                offset += completeBlocks * buffer.length;
+                length -= completeBlocks * buffer.length;
+            }
+
+            // Start of the next block
+            if (length > 0) {
+                expander.writeBlocks(nextBlock++, buffer, 0, buffer.length);
+                System.arraycopy(buffer, 0, output, offset, length);
+                bufferPosition = length;
+            }
+        }
+
+        /**
+         * Reads the next {@code length} bytes of the output.
+         *
+         * @param length number of bytes to read
+         * @return the read bytes
+         */
+        public byte[] read(int length) {
+            byte[] result = new byte[length];
+            read(result, 0, length);
+            return result;
+        }
+    }
+
+    /**
+     * Returns a buffer containing the four bytes of {@code c}, to be prepended to some value.
+     */
+    private static ByteBuffer intToBuffer(int c) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(0, c);
     }
 
     /**
@@ -20,4 +20,42 @@ public abstract class BigIntegerTools {
             throw new ArithmeticException("Integer value of BigInteger " + num + " is out of integer range");
         return num.intValue();
     }
+
+    /**
+     * Computes the Jacobi symbol \((a/n)\) using quadratic reciprocity.
+     * <p>
+     * For prime {@code n}, this is the Legendre symbol, i.e. 1 if {@code a} is a nonzero square modulo {@code n},
+     * -1 if it is a non-square, and 0 if {@code n} divides {@code a}.
+     * This is much cheaper than deciding quadratic residuosity via Euler's criterion.
+     *
+     * @param a the "numerator"
+     * @param n the modulus, must be odd and positive
+     * @return the Jacobi symbol, one of -1, 0 and 1
+     *
+     * @throws IllegalArgumentException if {@code n} is not odd and positive
+     */
+    public static int jacobiSymbol(BigInteger a, BigInteger n) {
+        if (n.signum() <= 0 || !n.testBit(0))
+            throw new IllegalArgumentException("Jacobi symbol is only defined for odd positive n, got " + n);
+
+        a = a.mod(n);
+        int result = 1;
+        while (a.signum() != 0) {
+            //pull out factors of two: (2/n) = -1 iff n = 3,5 mod 8
+            int twos = a.getLowestSetBit();
+            a = a.shiftRight(twos);
+            int nMod8 = n.intValue() & 7;
+            if ((twos & 1) == 1 && (nMod8 == 3 || nMod8 == 5))
+                result = -result;
+
+            //reciprocity: (a/n) = -(n/a) iff a = n = 3 mod 4
+            if ((a.intValue() & 3) == 3 && (nMod8 & 3) == 3)
+                result = -result;
+            BigInteger tmp = a;
+            a = n.mod(tmp);
+            n = tmp;
+        }
+
+        return n.equals(BigInteger.ONE) ? result : 0;
+    }
 }
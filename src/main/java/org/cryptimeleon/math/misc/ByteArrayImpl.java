@@ -5,23 +5,67 @@ import org.cryptimeleon.math.prf.PrfImage;
 import org.cryptimeleon.math.prf.PrfKey;
 import org.cryptimeleon.math.prf.PrfPreimage;
 import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.serialization.ByteArrayRepresentation;
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+/**
+ * An immutable byte string, used e.g. as key, preimage and image of byte-based PRFs.
+ * <p>
+ * Instances may be views of a part of a (shared) array (see {@link #slice(int, int)} and
+ * {@link #wrap(byte[], int, int)}), so that parts of byte strings can be processed without copying them.
+ * The backing arrays must not be modified after creating a {@code ByteArrayImpl}.
+ */
 public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
 
     @Represented
     protected byte[] data;
 
+    /**
+     * Start of this byte string in {@link #data}.
+     */
+    protected int offset;
+
+    /**
+     * Length of this byte string, i.e. it consists of {@code data[offset], ..., data[offset+length-1]}.
+     */
+    protected int length;
+
     public ByteArrayImpl(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    private ByteArrayImpl(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length || offset + length < 0)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") out of bounds for length " + bytes.length);
         this.data = bytes;
+        this.offset = offset;
+        this.length = length;
     }
 
     public ByteArrayImpl(Representation repr) {
         new ReprUtil(this).deserialize(repr);
+        this.offset = 0;
+        this.length = data.length;
+    }
+
+    /**
+     * Creates a view of {@code bytes[offset], ..., bytes[offset+length-1]} (without copying them).
+     *
+     * @param bytes the backing array (must not be modified afterwards)
+     * @param offset start of the view in {@code bytes}
+     * @param length length of the view
+     * @return a {@code ByteArrayImpl} of length {@code length} backed by {@code bytes}
+     * @throws IndexOutOfBoundsException if the range is not within {@code bytes}
+     */
+    public static ByteArrayImpl wrap(byte[] bytes, int offset, int length) {
+        return new ByteArrayImpl(bytes, offset, length);
     }
 
     /**
@@ -33,10 +77,44 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
         return new ByteArrayImpl(RandomGenerator.getRandomBytes(numberBytes));
     }
 
+    /**
+     * Returns the content of this byte array.
+     * <p>
+     * If this byte array spans its whole backing array, the backing array is returned (which must not be modified),
+     * otherwise a copy of the viewed part.
+     * Use {@link #getArray()}, {@link #getOffset()} and {@link #length()} or {@link #asByteBuffer()} to access
+     * the content without copying.
+     */
     public byte[] getData() {
+        if (offset == 0 && length == data.length)
+            return data;
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    /**
+     * Returns the backing array of this byte array, which contains its content starting at {@link #getOffset()}.
+     * <p>
+     * The returned array must not be modified.
+     */
+    public byte[] getArray() {
         return data;
     }
 
+    /**
+     * Returns the start of this byte array's content in {@link #getArray()}.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns a read-only buffer view of this byte array (without copying it).
+     * The buffer's position is 0 and its limit is {@link #length()}.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer();
+    }
+
     /**
      * Create new byte array as concatenation of {@code this} with {@code a}.
      *
@@ -44,9 +122,28 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
      * @return the result of concatenation
      */
     public ByteArrayImpl append(ByteArrayImpl a) {
-        byte[] result = new byte[data.length + a.getData().length];
-        System.arraycopy(data, 0, result, 0, data.length);
-        System.arraycopy(a.data, 0, result, data.length, a.getData().length);
+        return concat(this, a);
+    }
+
+    /**
+     * Creates a new byte array as concatenation of the given byte arrays, copying each of them once.
+     * <p>
+     * To process the concatenation without copying at all, e.g. for hashing, consider passing
+     * the parts' {@link #asByteBuffer()} views (see {@link org.cryptimeleon.math.hash.HashFunction#hash(ByteBuffer...)}).
+     *
+     * @param parts the byte arrays to concatenate
+     * @return the result of concatenation
+     */
+    public static ByteArrayImpl concat(ByteArrayImpl... parts) {
+        int totalLength = 0;
+        for (ByteArrayImpl part : parts)
+            totalLength = Math.addExact(totalLength, part.length);
+        byte[] result = new byte[totalLength];
+        int position = 0;
+        for (ByteArrayImpl part : parts) {
+            System.arraycopy(part.data, part.offset, result, position, part.length);
+            position += part.length;
+        }
         return new ByteArrayImpl(result);
     }
 
@@ -56,11 +153,37 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
      * @param firstIndex first (byte) index that will be copied to the result
      * @param length the number of bytes to be copied
      * @return a {@linkplain ByteArrayImpl} of length {@code length} that is a substring of this original.
+     * @see #slice(int, int)
      */
     public ByteArrayImpl substring(int firstIndex, int length) {
-        byte[] result = new byte[length];
-        System.arraycopy(data, firstIndex, result, 0, length);
-        return new ByteArrayImpl(result);
+        return new ByteArrayImpl(slice(firstIndex, length).getData());
+    }
+
+    /**
+     * Returns a view of the designated part of this byte array (without copying it), meaning that
+     * {@code returned[i] = this[firstIndex+i]}.
+     * @param firstIndex first (byte) index of the view
+     * @param length the length of the view
+     * @return a {@linkplain ByteArrayImpl} of length {@code length} that shares this byte array's backing array
+     * @throws IndexOutOfBoundsException if the range is not within this byte array
+     */
+    public ByteArrayImpl slice(int firstIndex, int length) {
+        if (firstIndex < 0 || length < 0 || firstIndex + length > this.length || firstIndex + length < 0)
+            throw new IndexOutOfBoundsException("Range [" + firstIndex + ", " + firstIndex + " + " + length
+                    + ") out of bounds for length " + this.length);
+        return new ByteArrayImpl(data, offset + firstIndex, length);
+    }
+
+    /**
+     * Returns the byte at the given index.
+     *
+     * @param index index within this byte array
+     * @return {@code this[index]}
+     */
+    public byte get(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        return data[offset + index];
     }
 
     /**
@@ -69,7 +192,7 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
      * @return the length of this byte array
      */
     public int length() {
-        return data.length;
+        return length;
     }
 
     /**
@@ -87,19 +210,25 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
 
         byte[] result = new byte[max];
         for (int i = 0; i < min; i++) {
-            result[i] = (byte) (this.getData()[i] ^ a.getData()[i]);
+            result[i] = (byte) (data[offset + i] ^ a.data[a.offset + i]);
         }
         return new ByteArrayImpl(result);
     }
 
     @Override
     public Representation getRepresentation() {
-        return ReprUtil.serialize(this);
+        if (offset == 0 && length == data.length)
+            return ReprUtil.serialize(this);
+        // Same format as ReprUtil's, but the copy of the viewed part does not need to be copied again
+        return new ObjectRepresentation("data", ByteArrayRepresentation.wrap(getData()));
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(data);
+        int result = 1;
+        for (int i = offset; i < offset + length; i++)
+            result = 31 * result + data[i];
+        return result;
     }
 
     @Override
@@ -111,15 +240,21 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
         if (getClass() != obj.getClass())
             return false;
         ByteArrayImpl other = (ByteArrayImpl) obj;
-        return Arrays.equals(data, other.data);
+        if (length != other.length)
+            return false;
+        for (int i = 0; i < length; i++) {
+            if (data[offset + i] != other.data[other.offset + i])
+                return false;
+        }
+        return true;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder("[");
-        for (int i = 0; i < this.getData().length; i++) {
-            result.append(String.format("%d", Byte.toUnsignedInt(this.getData()[i])));
-            if (i < this.getData().length - 1)
+        for (int i = 0; i < length; i++) {
+            result.append(String.format("%d", Byte.toUnsignedInt(data[offset + i])));
+            if (i < length - 1)
                 result.append(",");
         }
         result.append("]");
@@ -128,7 +263,7 @@ public class ByteArrayImpl implements PrfKey, PrfPreimage, PrfImage {
 
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
-        accumulator.append(data);
+        accumulator.append(data, offset, length);
         return accumulator;
     }
 }
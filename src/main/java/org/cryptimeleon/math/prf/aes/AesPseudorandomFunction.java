@@ -13,6 +13,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -58,12 +59,24 @@ public class AesPseudorandomFunction implements PseudorandomFunction {
         if (((ByteArrayImpl) x).length() != keylength / 8)
             throw new IllegalArgumentException("preimage x in the AES PRF has invalid length");
 
+        byte[] result = new byte[keylength / 8];
+        evaluate((ByteArrayImpl) k, (ByteArrayImpl) x, result, 0);
+        return new ByteArrayImpl(result);
+    }
+
+    /**
+     * Evaluates the PRF and writes the result to {@code output[outputOffset], ...}.
+     * <p>
+     * Key and preimage may be views (see {@link ByteArrayImpl#slice(int, int)}), they are not copied.
+     * Their lengths are not checked.
+     */
+    void evaluate(ByteArrayImpl k, ByteArrayImpl x, byte[] output, int outputOffset) {
         try {
             Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
-            SecretKeySpec keySpec = new SecretKeySpec(((ByteArrayImpl) k).getData(), "AES");
+            SecretKeySpec keySpec = new SecretKeySpec(k.getArray(), k.getOffset(), k.length(), "AES");
             cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-            return new ByteArrayImpl(cipher.doFinal(((ByteArrayImpl) x).getData()));
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException e) {
+            cipher.doFinal(x.getArray(), x.getOffset(), x.length(), output, outputOffset);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException | ShortBufferException e) {
             e.printStackTrace();
             throw new RuntimeException(e);
         } catch (InvalidKeyException e) {
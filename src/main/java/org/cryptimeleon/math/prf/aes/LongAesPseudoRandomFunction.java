@@ -59,13 +59,13 @@ public class LongAesPseudoRandomFunction implements PseudorandomFunction {
         if (((ByteArrayImpl) x).length() != preimageLengthBytes)
             throw new IllegalArgumentException("preimage x in the AES PRF has invalid length");
 
-        ByteArrayImpl result = new ByteArrayImpl(new byte[0]);
+        // AES_ki(x) is written directly to its position in the result, with ki being a view of k
+        byte[] result = new byte[preimageLengthBytes * factor];
         for (int i = 0; i < factor; i++) {
-            ByteArrayImpl ki = ((ByteArrayImpl) k).substring(i * preimageLengthBytes, preimageLengthBytes);
-            byte[] bytesToAppend = ((ByteArrayImpl) aesPseudorandomFunction.evaluate(ki, x)).getData();
-            result = result.append(new ByteArrayImpl(bytesToAppend));
+            ByteArrayImpl ki = ((ByteArrayImpl) k).slice(i * preimageLengthBytes, preimageLengthBytes);
+            aesPseudorandomFunction.evaluate(ki, (ByteArrayImpl) x, result, i * preimageLengthBytes);
         }
-        return result;
+        return new ByteArrayImpl(result);
     }
 
 
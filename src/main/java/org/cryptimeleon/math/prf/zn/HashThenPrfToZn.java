@@ -137,12 +137,11 @@ public class HashThenPrfToZn implements StandaloneRepresentable {
         // Compute hash value
         byte[] hashOutput = hashFunction.hash(hashInput);
 
-        // Truncate hash
-        byte[] prfInput = new byte[longAesPseudoRandomFunction.getPreimageLengthBytes()];
-        System.arraycopy(hashOutput, 0, prfInput, 0, longAesPseudoRandomFunction.getPreimageLengthBytes());
+        // Truncate hash (as a view of the hash output)
+        ByteArrayImpl prfInput = ByteArrayImpl.wrap(hashOutput, 0, longAesPseudoRandomFunction.getPreimageLengthBytes());
 
         // Compute prf(hash)
-        ByteArrayImpl prfOutput = longAesPseudoRandomFunction.evaluate(prfKey, new ByteArrayImpl(prfInput));
+        ByteArrayImpl prfOutput = longAesPseudoRandomFunction.evaluate(prfKey, prfInput);
 
         //Compute quotient and remainder of the prf output interpreted as a positive integer. Return remainder as
         // ZnElement if quotient is smaller than largest quotient to ensurer elements are drawn uniformly at random
@@ -0,0 +1,164 @@
+package org.cryptimeleon.math.random;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * A deterministic random bit generator based on AES-256 in counter mode.
+ * <p>
+ * Random bytes are taken from a buffer of AES-CTR keystream. Whenever the buffer is refilled, the first bytes of the
+ * new keystream become the next key and are erased afterwards ("fast key erasure"), so earlier outputs cannot be
+ * reconstructed from the generator's state.
+ * <p>
+ * By default, each thread uses its own generator, seeded from a {@link SecureRandom}, so threads do not contend on
+ * a shared instance. These generators are reseeded from the {@link SecureRandom} after every
+ * {@value #RESEED_INTERVAL} bytes of output.
+ * <p>
+ * If constructed with a seed, a single generator (shared by all threads) is derived from that seed and never
+ * reseeded, i.e. the output is fully determined by the seed and the order of requests.
+ * This is useful for reproducible benchmarks, but must not be used to generate secrets.
+ */
+public class AesCtrRandomGeneratorImpl implements RandomGeneratorImpl {
+    /**
+     * Number of output bytes after which the (unseeded) generators are reseeded.
+     */
+    public static final long RESEED_INTERVAL = 1 << 24;
+    private static final int KEY_LENGTH = 32;
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Source of seeds for the per-thread generators, null if seeded.
+     */
+    private final SecureRandom seedSource;
+    private final ThreadLocal<Generator> generators;
+    private final Generator seededGenerator;
+
+    /**
+     * Creates a generator that uses per-thread instances seeded from {@link SecureRandom}.
+     */
+    public AesCtrRandomGeneratorImpl() {
+        seedSource = new SecureRandom();
+        generators = ThreadLocal.withInitial(() -> {
+            byte[] key = new byte[KEY_LENGTH];
+            seedSource.nextBytes(key);
+            return new Generator(key);
+        });
+        seededGenerator = null;
+    }
+
+    /**
+     * Creates a deterministic generator derived from the given seed (see class documentation).
+     *
+     * @param seed the seed. Equal seeds result in equal outputs.
+     */
+    public AesCtrRandomGeneratorImpl(byte[] seed) {
+        seedSource = null;
+        generators = null;
+        try {
+            seededGenerator = new Generator(MessageDigest.getInstance("SHA-256").digest(seed));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public byte[] getRandomBytes(int l) {
+        byte[] result = new byte[l];
+        if (seededGenerator != null) {
+            synchronized (seededGenerator) {
+                seededGenerator.nextBytes(result);
+            }
+        } else {
+            Generator generator = generators.get();
+            if (generator.bytesSinceReseed >= RESEED_INTERVAL) {
+                byte[] seed = new byte[KEY_LENGTH];
+                seedSource.nextBytes(seed);
+                generator.reseed(seed);
+            }
+            generator.nextBytes(result);
+        }
+        return result;
+    }
+
+    /**
+     * A single AES-CTR keystream with fast key erasure.
+     */
+    private static class Generator {
+        private final Cipher cipher;
+        private final byte[] zeros = new byte[KEY_LENGTH + BUFFER_SIZE];
+        private final byte[] keystream = new byte[KEY_LENGTH + BUFFER_SIZE];
+        private final byte[] key = new byte[KEY_LENGTH];
+        /**
+         * Position of the next unused byte in the keystream (the first KEY_LENGTH bytes are the next key).
+         */
+        private int position = keystream.length;
+        long bytesSinceReseed = 0;
+
+        Generator(byte[] key) {
+            try {
+                cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+            rekey(key);
+        }
+
+        private void rekey(byte[] newKey) {
+            System.arraycopy(newKey, 0, key, 0, KEY_LENGTH);
+            Arrays.fill(newKey, (byte) 0);
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(new byte[16]));
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+            Arrays.fill(key, (byte) 0);
+        }
+
+        /**
+         * Mixes the given seed into the key and discards the buffered keystream.
+         */
+        void reseed(byte[] seed) {
+            refill();
+            for (int i = 0; i < KEY_LENGTH; i++)
+                seed[i] ^= keystream[KEY_LENGTH + i];
+            rekey(seed);
+            Arrays.fill(keystream, (byte) 0);
+            position = keystream.length;
+            bytesSinceReseed = 0;
+        }
+
+        /**
+         * Computes the next block of keystream, whose first KEY_LENGTH bytes are the next key.
+         */
+        private void refill() {
+            try {
+                cipher.update(zeros, 0, zeros.length, keystream, 0);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException(e);
+            }
+            rekey(Arrays.copyOf(keystream, KEY_LENGTH));
+            Arrays.fill(keystream, 0, KEY_LENGTH, (byte) 0);
+            position = KEY_LENGTH;
+        }
+
+        void nextBytes(byte[] result) {
+            int offset = 0;
+            while (offset < result.length) {
+                if (position == keystream.length)
+                    refill();
+                int length = Math.min(result.length - offset, keystream.length - position);
+                System.arraycopy(keystream, position, result, offset, length);
+                Arrays.fill(keystream, position, position + length, (byte) 0);
+                position += length;
+                offset += length;
+            }
+            bytesSinceReseed += result.length;
+        }
+    }
+}
@@ -6,6 +6,9 @@ public class RandomGenerator {
     /**
      * If you want to exchange the implementation used to generate randomness in this library,
      * change the value of this variable.
+     * <p>
+     * For example, {@link AesCtrRandomGeneratorImpl} avoids contention on a single shared {@link java.security.SecureRandom}
+     * when generating randomness from many threads, and can be seeded for reproducible benchmarks.
      */
     public static RandomGeneratorImpl impl = new SecureRandomGeneratorImpl();
 
@@ -20,6 +23,13 @@ public class RandomGenerator {
         return impl.getRandomNumber(exclusiveUpperBound);
     }
 
+    /**
+     * Generates {@code count} uniformly random integers k with {@code 0 <= k < exclusiveUpperBound}
+     */
+    public static BigInteger[] getRandomNumbers(BigInteger exclusiveUpperBound, int count) {
+        return impl.getRandomNumbers(exclusiveUpperBound, count);
+    }
+
     /**
      * Generates a uniformly random integer k with {@code 0 <= k < exclusiveUpperBound}
      */
@@ -1,6 +1,7 @@
 package org.cryptimeleon.math.random;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 
 public interface RandomGeneratorImpl {
     /**
@@ -44,6 +45,38 @@ public interface RandomGeneratorImpl {
         return result;
     }
 
+    /**
+     * Generates {@code count} uniformly random numbers between {@code 0} (inclusive) and {@code exclusiveUpperBound}
+     * (exclusive).
+     * <p>
+     * Like {@link #getRandomNumber(BigInteger)}, this uses rejection sampling, but draws the random bytes for all
+     * candidates at once.
+     */
+    default BigInteger[] getRandomNumbers(BigInteger exclusiveUpperBound, int count) {
+        /*number of bits including the sign bit, see getRandomNumber(BigInteger)*/
+        int n = exclusiveUpperBound.subtract(BigInteger.ONE).bitLength() + 1;
+        int byteLength = (n + 7) / 8;
+        byte mask = (byte) 0x7f;
+        if (0 != n % 8) {
+            mask = (byte) (mask >> (8 - (n % 8)));
+        }
+
+        BigInteger[] result = new BigInteger[count];
+        int numberOfResults = 0;
+        while (numberOfResults < count) {
+            /*each candidate is accepted with probability at least 1/2*/
+            byte[] randomBytes = getRandomBytes((count - numberOfResults) * byteLength);
+            for (int offset = 0; offset < randomBytes.length && numberOfResults < count; offset += byteLength) {
+                byte[] candidateBytes = Arrays.copyOfRange(randomBytes, offset, offset + byteLength);
+                candidateBytes[0] = (byte) (candidateBytes[0] & mask);
+                BigInteger candidate = new BigInteger(candidateBytes);
+                if (candidate.compareTo(exclusiveUpperBound) < 0)
+                    result[numberOfResults++] = candidate;
+            }
+        }
+        return result;
+    }
+
     /**
      * Generates a uniformly random number between {@code inclusiveLowerBound} (inclusive) and {@code exclusiveUpperBound} (exclusive).
      */
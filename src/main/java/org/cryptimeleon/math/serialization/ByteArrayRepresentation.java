@@ -21,6 +21,20 @@ public class ByteArrayRepresentation extends Representation {
         this.data = Arrays.copyOf(data, data.length);
     }
 
+    /**
+     * Creates a representation of the given array without copying it.
+     * <p>
+     * Meant for arrays that are not referenced anywhere else, e.g. freshly decoded ones.
+     *
+     * @param data the represented array (must not be modified afterwards)
+     * @return a representation backed by {@code data}
+     */
+    public static ByteArrayRepresentation wrap(byte[] data) {
+        ByteArrayRepresentation result = new ByteArrayRepresentation();
+        result.data = data;
+        return result;
+    }
+
     /**
      * Retrieves the stored {@code byte[]}.
      */
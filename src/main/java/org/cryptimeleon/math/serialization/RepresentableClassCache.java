@@ -0,0 +1,211 @@
+package org.cryptimeleon.math.serialization;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Caches the classes and constructors used to recreate objects from {@link RepresentableRepresentation}s.
+ * <p>
+ * Restoring an object requires looking up its class by name and finding its constructor with
+ * {@link Representation} parameter. This class caches the result of these lookups (with constructors as
+ * {@link MethodHandle}s), so that restoring many objects of the same type (e.g. the elements of a
+ * {@code GroupElementVector}) does not repeat them.
+ * <p>
+ * Optionally, an allow-list can be set via {@link #setAllowList(Predicate)} to restrict which classes may be
+ * recreated from representations (e.g. when restoring untrusted data).
+ * <p>
+ * Cache hits and misses are counted, see {@link #getHitCount()} and {@link #getMissCount()}.
+ */
+public final class RepresentableClassCache {
+    private static final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private static volatile Predicate<String> allowList = null;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private RepresentableClassCache() {
+
+    }
+
+    /**
+     * Restricts the classes that may be recreated from representations.
+     * <p>
+     * The allow-list is checked on every lookup, so it also applies to classes that are already cached.
+     *
+     * @param isAllowed decides for a fully qualified class name whether the class may be recreated,
+     *                  or null to allow all classes
+     */
+    public static void setAllowList(Predicate<String> isAllowed) {
+        allowList = isAllowed;
+    }
+
+    /**
+     * Returns the class with the given name.
+     *
+     * @param className fully qualified name of the class
+     * @return the class
+     * @throws ClassNotFoundException if the class cannot be found
+     * @throws IllegalArgumentException if the class is not allowed by the allow-list
+     */
+    public static Class<?> getClass(String className) throws ClassNotFoundException {
+        return getEntry(className).clazz;
+    }
+
+    /**
+     * Recreates an object of the given class from the given representation by calling the class' constructor
+     * with {@code Representation} parameter (or the default constructor if {@code repr} is null and the class has
+     * no such constructor).
+     * Enum values are recreated from their name.
+     * <p>
+     * If the {@link StructureRegistry} is enabled, structures are canonicalized through it.
+     *
+     * @param className fully qualified name of the class
+     * @param repr the representation of the object
+     * @return the recreated object
+     * @throws IllegalArgumentException if the class cannot be found, is not allowed, or cannot be instantiated
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Object recreate(String className, Representation repr) {
+        Entry entry;
+        try {
+            entry = getEntry(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Cannot find class " + className, e);
+        }
+
+        if (entry.clazz.isEnum())
+            return Enum.valueOf((Class<? extends Enum>) entry.clazz, repr.str().get());
+
+        if (entry.internable && StructureRegistry.isEnabled()) {
+            Entry finalEntry = entry;
+            return StructureRegistry.getOrRecreate(className, repr, () -> instantiate(finalEntry, className, repr));
+        }
+        return instantiate(entry, className, repr);
+    }
+
+    private static Object instantiate(Entry entry, String className, Representation repr) {
+        try {
+            if (entry.representationConstructor != null)
+                return entry.representationConstructor.invokeExact(repr);
+            if (repr == null && entry.defaultConstructor != null)
+                return entry.defaultConstructor.invokeExact();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        throw new IllegalArgumentException("Error instantiating '" + className + "' from representation",
+                entry.lookupException);
+    }
+
+    /**
+     * Returns the number of lookups that were answered from the cache.
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that required reflection.
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that were answered from the cache (or 0 if there were no lookups).
+     */
+    public static double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public static void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private static Entry getEntry(String className) throws ClassNotFoundException {
+        // checked for cached classes, too, since the allow-list may have changed after they were cached
+        Predicate<String> isAllowed = allowList;
+        if (isAllowed != null && !isAllowed.test(className))
+            throw new IllegalArgumentException("Class " + className + " is not allowed to be recreated from a "
+                    + "representation");
+
+        Entry entry = cache.get(className);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+
+        misses.increment();
+        entry = new Entry(Class.forName(className));
+        cache.putIfAbsent(className, entry);
+        return entry;
+    }
+
+    /**
+     * Cached information on a class.
+     */
+    private static class Entry {
+        final Class<?> clazz;
+        /**
+         * Whether instances are canonicalized via {@link StructureRegistry}.
+         */
+        final boolean internable;
+        /**
+         * Constructor with {@code Representation} parameter as {@code (Representation) -> Object}, or null.
+         */
+        final MethodHandle representationConstructor;
+        /**
+         * Constructor without parameters as {@code () -> Object}, or null.
+         */
+        final MethodHandle defaultConstructor;
+        /**
+         * Exception that occurred when looking up the constructors (if any).
+         */
+        final Exception lookupException;
+
+        Entry(Class<?> clazz) {
+            this.clazz = clazz;
+            this.internable = StructureRegistry.isInternable(clazz);
+            MethodHandle representationConstructor = null;
+            MethodHandle defaultConstructor = null;
+            Exception lookupException = null;
+            if (!clazz.isEnum()) {
+                try {
+                    representationConstructor = getConstructor(clazz, Representation.class);
+                } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
+                    lookupException = e;
+                    try {
+                        defaultConstructor = getConstructor(clazz);
+                    } catch (NoSuchMethodException | SecurityException | IllegalAccessException e2) {
+                        lookupException = e2;
+                    }
+                }
+            }
+            this.representationConstructor = representationConstructor;
+            this.defaultConstructor = defaultConstructor;
+            this.lookupException = lookupException;
+        }
+
+        private static MethodHandle getConstructor(Class<?> clazz, Class<?>... parameterTypes)
+                throws NoSuchMethodException, IllegalAccessException {
+            Constructor<?> constructor = clazz.getConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            return handle.asType(MethodType.methodType(Object.class, parameterTypes));
+        }
+    }
+}
@@ -2,9 +2,6 @@ package org.cryptimeleon.math.serialization;
 
 import org.cryptimeleon.math.serialization.converter.JSONConverter;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-
 /**
  * Representation that saves a {@code (getRepresentedTypeName(), getRepresentation())} tuple, useful
  * for storing {@link StandaloneRepresentable}s.
@@ -58,40 +55,12 @@ public class RepresentableRepresentation extends Representation {
 
     /**
      * Tries to recreate the represented object given by the representation.
+     * <p>
+     * Classes and constructors are looked up via {@link RepresentableClassCache}.
      */
     public Object recreateRepresentable() {
-        // try some reflection magic (i.e. try to interpret representedTypeName as fully qualified class name,
-        // call constructor with Representation argument)
-        try {
-            Class<?> c = Class.forName(representedTypeName);
-            try {
-                if (c.isEnum()) {
-                    return Enum.valueOf((Class<? extends Enum>) c, representation.str().get());
-                }
-                Constructor<?> constructor = c.getConstructor(Representation.class);
-                constructor.setAccessible(true);
-                return constructor.newInstance(representation);
-            } catch (NoSuchMethodException e) { //no constructor with single Representation parameter
-                if (representation == null)  {
-                    // no representation necessary. Try default constructor
-                    Constructor<?> constructor = c.getConstructor(new Class<?>[]{});
-                    constructor.setAccessible(true);
-                    return constructor.newInstance();
-                } else {
-                    throw e;
-                }
-            }
-        } catch (ClassNotFoundException e) {
-            throw new IllegalArgumentException("Cannot find class " + representedTypeName, e);
-        } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException
-                | IllegalArgumentException e) {
-            throw new IllegalArgumentException("Error instantiating '" + representedTypeName + "' from representation", e);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof RuntimeException)
-                throw (RuntimeException) e.getCause();
-            else
-                throw new IllegalArgumentException(e);
-        }
+        // interpret representedTypeName as fully qualified class name, call constructor with Representation argument
+        return RepresentableClassCache.recreate(representedTypeName, representation);
     }
 
     @Override
@@ -0,0 +1,156 @@
+package org.cryptimeleon.math.serialization;
+
+import org.cryptimeleon.math.structures.Structure;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Canonicalizes structures (e.g. groups, rings and bilinear groups) restored from representations, such that
+ * restoring equal representations yields the same live instance.
+ * <p>
+ * If enabled via {@link #setEnabled(boolean)}, {@link RepresentableRepresentation#recreateRepresentable()} (and
+ * hence {@link org.cryptimeleon.math.serialization.annotations.ReprUtil} and all restorers relying on it) returns
+ * the registered instance for a {@link Structure} or {@link BilinearGroup} if one exists, instead of
+ * reconstructing it. This avoids repeating expensive setup (e.g. for Barreto-Naehrig groups) and lets all
+ * restored objects share the structure's caches and precomputations.
+ * <p>
+ * Instances are only weakly referenced, i.e. the registry does not prevent them from being garbage collected.
+ * <p>
+ * Interned structures are shared, so they should not be modified afterwards
+ * (e.g. via {@code setCompressedRepresentation}).
+ */
+public final class StructureRegistry {
+    private static volatile boolean enabled = false;
+
+    private static final ConcurrentHashMap<Key, InstanceReference> instances = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Object> collectedInstances = new ReferenceQueue<>();
+
+    private StructureRegistry() {
+
+    }
+
+    /**
+     * Enables or disables canonicalization of restored structures (disabled by default).
+     */
+    public static void setEnabled(boolean enabled) {
+        StructureRegistry.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks whether instances of the given class are canonicalized when restored.
+     */
+    public static boolean isInternable(Class<?> clazz) {
+        return Structure.class.isAssignableFrom(clazz) || BilinearGroup.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Returns the registered instance with the same class and representation as the given structure, or registers
+     * the given structure if there is none.
+     * <p>
+     * Works independently of {@link #isEnabled()}.
+     *
+     * @param structure the structure to intern
+     * @param <T> the type of the structure
+     * @return the canonical instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends StandaloneRepresentable> T intern(T structure) {
+        return (T) getOrCreate(new Key(structure.getClass().getName(), structure.getRepresentation()),
+                () -> structure);
+    }
+
+    /**
+     * Returns the registered instance for the given class name and representation, or registers the object
+     * created by {@code recreate} if there is none.
+     */
+    static Object getOrRecreate(String className, Representation repr, Supplier<Object> recreate) {
+        return getOrCreate(new Key(className, repr), recreate);
+    }
+
+    /**
+     * Returns the number of registered instances (including instances that have been garbage collected recently).
+     */
+    public static int size() {
+        removeCollectedInstances();
+        return instances.size();
+    }
+
+    /**
+     * Removes all registered instances.
+     */
+    public static void clear() {
+        instances.clear();
+    }
+
+    private static Object getOrCreate(Key key, Supplier<Object> create) {
+        removeCollectedInstances();
+
+        InstanceReference existingReference = instances.get(key);
+        Object existing = existingReference == null ? null : existingReference.get();
+        if (existing != null)
+            return existing;
+
+        Object created = create.get();
+        InstanceReference createdReference = new InstanceReference(key, created);
+        while (true) {
+            existingReference = instances.putIfAbsent(key, createdReference);
+            if (existingReference == null)
+                return created;
+            existing = existingReference.get();
+            if (existing != null) // registered concurrently
+                return existing;
+            if (instances.replace(key, existingReference, createdReference))
+                return created;
+        }
+    }
+
+    private static void removeCollectedInstances() {
+        InstanceReference reference;
+        while ((reference = (InstanceReference) collectedInstances.poll()) != null)
+            instances.remove(reference.key, reference);
+    }
+
+    private static class Key {
+        final String className;
+        final Representation repr;
+        final int hashCode;
+
+        Key(String className, Representation repr) {
+            this.className = className;
+            this.repr = repr;
+            this.hashCode = Objects.hash(className, repr);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key other = (Key) o;
+            return hashCode == other.hashCode && className.equals(other.className)
+                    && Objects.equals(repr, other.repr);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class InstanceReference extends WeakReference<Object> {
+        final Key key;
+
+        InstanceReference(Key key, Object instance) {
+            super(instance, collectedInstances);
+            this.key = key;
+        }
+    }
+}
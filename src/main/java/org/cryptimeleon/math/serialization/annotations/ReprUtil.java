@@ -12,7 +12,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -145,50 +144,10 @@ public class ReprUtil {
     }
 
     /**
-     * Runs the given {@link Consumer<Field>} on each field of the target instance's class and superclasses.
-     * <p>
-     * To enable this, each field is made accessible (readable, writeable) via {@code setAccessible}.
+     * Returns the (cached) plan describing how to (de)serialize the target instance's class.
      */
-    private void forEachField(Consumer<Field> fieldConsumer) {
-        Class<?> clazz = instance.getClass();
-        while (!clazz.equals(Object.class)) {
-            try {
-                Field[] fields = clazz.getDeclaredFields();
-                for (Field field : fields) {
-                    if (hasRepresentedTypeAnnotation(field)) {
-                        field.setAccessible(true); //TODO need to reset this to false or it was before?!
-                        fieldConsumer.accept(field);
-                    }
-                }
-            } catch (SecurityException | IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } finally {
-                clazz = clazz.getSuperclass();
-            }
-        }
-    }
-
-    /**
-     * Retrieves corresponding field of the target instance's class given its name.
-     *
-     * @param name name of the field
-     * @return corresponding field
-     */
-    private Field getFieldByName(String name) {
-        Class<?> clazz = instance.getClass();
-        while (!clazz.equals(Object.class)) {
-            try {
-                Field field = clazz.getDeclaredField(name);
-                return field;
-            } catch (SecurityException | IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } catch (NoSuchFieldException e) {
-                //That's expected. Just use the superclass then
-            } finally {
-                clazz = clazz.getSuperclass();
-            }
-        }
-        return null;
+    private RepresentationPlan getPlan() {
+        return RepresentationPlan.of(instance.getClass());
     }
 
     /**
@@ -198,14 +157,8 @@ public class ReprUtil {
      */
     public Representation serialize() {
         ObjectRepresentation result = new ObjectRepresentation();
-        forEachField(field -> {
-            try {
-                field.setAccessible(true);
-                result.put(field.getName(), getHandler(field.getGenericType(), getRestorerStringOfField(field)).serializeToRepresentation(field.get(instance)));
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        });
+        for (RepresentationPlan.FieldPlan field : getPlan().getRepresentedFields())
+            result.put(field.getName(), field.getHandler().serializeToRepresentation(field.get(instance)));
         return result;
     }
 
@@ -239,7 +192,8 @@ public class ReprUtil {
      * @param repr the representation to deserialize
      */
     public void deserialize(Representation repr) {
-        forEachField(field -> restoreField(field, repr));
+        for (RepresentationPlan.FieldPlan field : getPlan().getRepresentedFields())
+            restoreField(field, repr);
     }
 
     /**
@@ -251,27 +205,21 @@ public class ReprUtil {
      * @param topLevelRepr the representation to restore the field from
      * @return the value assigned to the field
      */
-    Object restoreField(Field field, Representation topLevelRepr) {
-        try {
-            // Make sure we can access the field
-            field.setAccessible(true);
-            Object value = field.get(instance);
-            // If the field already has a value, do not overwrite it
-            if (value != null) {
-                return value;
-            }
-            // Retrieve the correct handler for the given field and restore the value from the representation entry
-            RepresentationHandler handlerForField = getHandlerForField(field);
-            try {
-                value = handlerForField.deserializeFromRepresentation(topLevelRepr.obj().get(field.getName()), name -> getOrRecreateRestorer(name, topLevelRepr));
-            } catch (RuntimeException e) {
-                throw new RuntimeException("An exception was thrown while restoring "+ field.getType().getSimpleName() + " " + field.getName()  +" in "+instance.getClass().getSimpleName(), e);
-            }
-            field.set(instance, value);
+    Object restoreField(RepresentationPlan.FieldPlan field, Representation topLevelRepr) {
+        Object value = field.get(instance);
+        // If the field already has a value, do not overwrite it
+        if (value != null) {
             return value;
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
         }
+        // Retrieve the correct handler for the given field and restore the value from the representation entry
+        RepresentationHandler handlerForField = field.getHandler();
+        try {
+            value = handlerForField.deserializeFromRepresentation(topLevelRepr.obj().get(field.getName()), name -> getOrRecreateRestorer(name, topLevelRepr));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("An exception was thrown while restoring "+ field.getField().getType().getSimpleName() + " " + field.getName()  +" in "+instance.getClass().getSimpleName(), e);
+        }
+        field.set(instance, value);
+        return value;
     }
 
     /**
@@ -290,7 +238,7 @@ public class ReprUtil {
      */
     RepresentationRestorer getOrRecreateRestorer(String restorerString, Representation topLevelRepr) {
         //Parse restorerString of form "baseName::methodToCall::methodToCall::..."
-        String[] parsed = methodCallSeparator.split(restorerString);
+        String[] parsed = getPlan().parseRestorerString(restorerString);
         String baseName = parsed[0];
 
         //Look for base name
@@ -298,7 +246,7 @@ public class ReprUtil {
             return restorers.get(baseName);
 
         //Base is some field
-        Field field = getFieldByName(baseName);
+        RepresentationPlan.FieldPlan field = getPlan().getField(baseName);
         if (field == null)
             throw new IllegalArgumentException("\""+baseName+"\" is neither the name of a restorer given through ReprUtil.register, nor is it a member of the class being recreated.");
 
@@ -348,7 +296,7 @@ public class ReprUtil {
     /**
      * Checks whether given field is annotated with {@code @Represented}.
      */
-    private static boolean hasRepresentedTypeAnnotation(Field field) {
+    static boolean hasRepresentedTypeAnnotation(Field field) {
         Annotation[] annotations = field.getDeclaredAnnotations();
         if (annotations == null || annotations.length == 0) {
             return false;
@@ -0,0 +1,186 @@
+package org.cryptimeleon.math.serialization.annotations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed information on how {@link ReprUtil} (de)serializes instances of a certain class.
+ * <p>
+ * Plans are computed once per class (see {@link #of(Class)}) and contain accessors for all fields
+ * (as {@link MethodHandle}s), the {@link RepresentationHandler} for each field and the parsed restorer strings.
+ * As handlers are stateless, they can be shared by all (de)serializations of the class.
+ * Hence repeated (de)serialization of the same class does not need any reflection.
+ */
+class RepresentationPlan {
+    private static final ClassValue<RepresentationPlan> plans = new ClassValue<RepresentationPlan>() {
+        @Override
+        protected RepresentationPlan computeValue(Class<?> type) {
+            return new RepresentationPlan(type);
+        }
+    };
+
+    /**
+     * Fields annotated with {@code @Represented}, in the order in which they are (de)serialized.
+     */
+    private final List<FieldPlan> representedFields;
+
+    /**
+     * All fields of the class (and its superclasses) by name.
+     * If a name is used multiple times, the field of the most specific class is contained.
+     */
+    private final Map<String, Field> fieldsByName;
+
+    /**
+     * Plans for fields looked up by name (which are made accessible on first use only).
+     */
+    private final ConcurrentHashMap<String, FieldPlan> fieldPlansByName = new ConcurrentHashMap<>();
+
+    /**
+     * Restorer strings split at "::".
+     */
+    private final ConcurrentHashMap<String, String[]> parsedRestorerStrings = new ConcurrentHashMap<>();
+
+    private RepresentationPlan(Class<?> clazz) {
+        List<FieldPlan> represented = new ArrayList<>();
+        Map<String, Field> byName = new HashMap<>();
+        while (clazz != null && !clazz.equals(Object.class)) {
+            for (Field field : clazz.getDeclaredFields()) {
+                byName.putIfAbsent(field.getName(), field);
+                if (ReprUtil.hasRepresentedTypeAnnotation(field)) {
+                    FieldPlan fieldPlan = new FieldPlan(field);
+                    represented.add(fieldPlan);
+                    if (byName.get(field.getName()) == field)
+                        fieldPlansByName.put(field.getName(), fieldPlan);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        this.representedFields = Collections.unmodifiableList(represented);
+        this.fieldsByName = byName;
+    }
+
+    /**
+     * Returns the (cached) plan for the given class.
+     */
+    static RepresentationPlan of(Class<?> clazz) {
+        return plans.get(clazz);
+    }
+
+    List<FieldPlan> getRepresentedFields() {
+        return representedFields;
+    }
+
+    /**
+     * Returns the field with the given name, or null if there is none.
+     */
+    FieldPlan getField(String name) {
+        Field field = fieldsByName.get(name);
+        if (field == null)
+            return null;
+        return fieldPlansByName.computeIfAbsent(name, n -> new FieldPlan(field));
+    }
+
+    /**
+     * Returns the restorer string split at "::".
+     */
+    String[] parseRestorerString(String restorerString) {
+        return parsedRestorerStrings.computeIfAbsent(restorerString, ReprUtil.methodCallSeparator::split);
+    }
+
+    /**
+     * Accessors and handler for a single field.
+     */
+    static class FieldPlan {
+        private final Field field;
+        private final MethodHandle getter;
+        /**
+         * Setter, or null if the field can only be set via reflection (e.g. static final fields).
+         */
+        private final MethodHandle setter;
+        /**
+         * Handler for the field, computed on first use (so that unsupported fields that are never
+         * (de)serialized do not cause errors).
+         */
+        private volatile RepresentationHandler handler;
+
+        FieldPlan(Field field) {
+            this.field = field;
+            try {
+                field.setAccessible(true);
+                boolean isStatic = Modifier.isStatic(field.getModifiers());
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+                MethodHandle get = lookup.unreflectGetter(field);
+                if (isStatic)
+                    get = MethodHandles.dropArguments(get, 0, Object.class);
+                this.getter = get.asType(MethodType.methodType(Object.class, Object.class));
+
+                this.setter = createSetter(lookup, field, isStatic);
+            } catch (SecurityException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private static MethodHandle createSetter(MethodHandles.Lookup lookup, Field field, boolean isStatic) {
+            if (isStatic && Modifier.isFinal(field.getModifiers()))
+                return null;
+            try {
+                MethodHandle set = lookup.unreflectSetter(field);
+                if (isStatic)
+                    set = MethodHandles.dropArguments(set, 0, Object.class);
+                return set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                return null; //fall back to reflection
+            }
+        }
+
+        String getName() {
+            return field.getName();
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        RepresentationHandler getHandler() {
+            RepresentationHandler result = handler;
+            if (result == null) {
+                result = ReprUtil.getHandlerForField(field);
+                handler = result;
+            }
+            return result;
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void set(Object instance, Object value) {
+            try {
+                if (setter == null)
+                    field.set(instance, value);
+                else
+                    setter.invokeExact(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
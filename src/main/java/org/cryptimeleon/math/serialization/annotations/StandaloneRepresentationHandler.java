@@ -51,7 +51,7 @@ class StandaloneRepresentationHandler implements RepresentationHandler {
 
         try {
             if (repr instanceof RepresentableRepresentation
-                    && type.isAssignableFrom(Class.forName(repr.repr().getRepresentedTypeName()) )) {
+                    && type.isAssignableFrom(RepresentableClassCache.getClass(repr.repr().getRepresentedTypeName()))) {
                 return repr.repr().recreateRepresentable();
             }
         } catch (ClassNotFoundException e) {
@@ -3,16 +3,28 @@ package org.cryptimeleon.math.serialization.converter;
 import org.cryptimeleon.math.misc.BigIntegerTools;
 import org.cryptimeleon.math.serialization.*;
 
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
 /**
  * A converter for serializing representations to a binary format in form of a {@code byte[]}.
+ * <p>
+ * Besides {@code byte[]}, the converter can also write to an {@link OutputStream} and read from a {@link ByteBuffer}
+ * or an {@link InputStream} (all using the same format).
+ * The representation tree is written directly into growable buffers, with lengths of substructures being
+ * back-patched once they are known.
+ * When reading, only the (deduplicated) constants are held in memory, the structure is parsed sequentially.
  */
 public class BinaryFormatConverter extends Converter<byte[]> {
     protected static final byte TYPE_OBJ = 0;
@@ -25,6 +37,10 @@ public class BinaryFormatConverter extends Converter<byte[]> {
     protected static final byte TYPE_MAP = 7;
     protected static final byte TYPE_NULL = 8;
 
+    /**
+     * End position of a structure whose length is not known, i.e. which extends to the end of the input.
+     */
+    private static final long UNBOUNDED = Long.MAX_VALUE;
 
     /**
      * Maps a well-known string to its index in {@code this.well_known_strings}.
@@ -65,128 +81,123 @@ public class BinaryFormatConverter extends Converter<byte[]> {
 
     @Override
     public byte[] serialize(Representation r) {
-        ByteString constants = new ByteString();
-        // Map to look up strings that have already been stored as constants (to avoid storing them twice)
-        HashMap<String, Integer> stringConstantPos = new HashMap<>();
-
-        // Run the serialization
-        ByteString structure = internalSerialize(r, constants, stringConstantPos);
+        ByteOutput constants = new ByteOutput();
+        ByteOutput structure = new ByteOutput();
+        internalSerialize(r, structure, constants, new HashMap<>());
 
         // Format: constantLen(4) || constants(len) || structure
-        int constantLen = constants.len();
-        ByteString overall = new ByteString();
-        overall.append(constantLen);
-        overall.append(constants);
-        overall.append(structure);
-
-        byte[] result = new byte[overall.len()];
-        overall.writeToByteArray(result, 0);
+        byte[] result = new byte[4 + constants.length() + structure.length()];
+        ByteBuffer.wrap(result).putInt(constants.length());
+        constants.copyTo(result, 4);
+        structure.copyTo(result, 4 + constants.length());
 
         //TODO maybe gzip it using GZIPOutputStream ?!
 
         return result;
     }
 
-    private ByteString internalSerialize(Representation repr, ByteString constants, HashMap<String, Integer> stringConstantPos) {
-        ByteString structure = new ByteString();
+    /**
+     * Serializes the given representation and writes the result to the given stream.
+     * <p>
+     * The result is the same as {@link #serialize(Representation)}, but is not copied into a single array first.
+     * As the format starts with the constants, which are only known after serializing the whole representation,
+     * the encoding is still built in memory before it is written, i.e. this does not reduce the peak memory usage
+     * compared to {@link #serialize(Representation)} (apart from the final copy).
+     *
+     * @param r the representation to serialize
+     * @param out the stream to write to (not closed by this method)
+     * @throws IOException if writing to the stream fails
+     */
+    public void serialize(Representation r, OutputStream out) throws IOException {
+        ByteOutput constants = new ByteOutput();
+        ByteOutput structure = new ByteOutput();
+        internalSerialize(r, structure, constants, new HashMap<>());
+
+        // Format: constantLen(4) || constants(len) || structure
+        out.write(ByteBuffer.allocate(4).putInt(constants.length()).array());
+        constants.writeTo(out);
+        structure.writeTo(out);
+    }
 
+    /**
+     * Writes the given representation to the structure output, writing strings, byte arrays and large integers
+     * to the constants output.
+     */
+    private void internalSerialize(Representation repr, ByteOutput structure, ByteOutput constants,
+                                   HashMap<String, Integer> stringConstantPos) {
         // Formats are denoted, for example "type(1) || ptr(4)", meaning that the first byte indicates a type,
         //  the next four bytes are a pointer.
         // Type is a byte indicating whether this is a String or a byte array or whatever,
         //  and ptr is an index on the constants stream (where the bulk of the serialization is written,
         //  for basic deduplication and to keep the structure format simpler).
+        // Lengths of substructures are reserved and patched after the substructure has been written.
         if (repr == null) {
             // Format: type(1)
-            structure.append(TYPE_NULL);
-        }
-        if (repr instanceof StringRepresentation) {
+            structure.putByte(TYPE_NULL);
+        } else if (repr instanceof StringRepresentation) {
             // Format: type(1) || ptr(4)
-            structure.append(TYPE_STR);
-            int ptr = addToConstants(repr.str().get(), constants, stringConstantPos);
-            structure.append(ptr);
-        }
-        if (repr instanceof ByteArrayRepresentation) {
+            structure.putByte(TYPE_STR);
+            structure.putInt(addToConstants(repr.str().get(), constants, stringConstantPos));
+        } else if (repr instanceof ByteArrayRepresentation) {
             // Format: type(1) || ptr(4)
-            structure.append(TYPE_BYTES);
-            int ptr = addToConstants(repr.bytes().get(), constants);
-            structure.append(ptr);
-        }
-        if (repr instanceof BigIntegerRepresentation) {
+            structure.putByte(TYPE_BYTES);
+            structure.putInt(addToConstants(repr.bytes().get(), constants));
+        } else if (repr instanceof BigIntegerRepresentation) {
             // Format: type(1) || int(4) for 32 bit integers, and type(1) || ptr(4) for long integers.
             BigInteger value = repr.bigInt().get();
             try {
                 int valueAsInlineInt = BigIntegerTools.getExactInt(value);
-                structure.append(TYPE_INT_INLINE);
-                structure.append(valueAsInlineInt);
+                structure.putByte(TYPE_INT_INLINE);
+                structure.putInt(valueAsInlineInt);
             } catch (ArithmeticException e) {
                 // Integer too large to fit into an int. Write to constants
-                structure.append(TYPE_INT);
-                int ptr = addToConstants(value.toByteArray(), constants);
-                structure.append(ptr);
+                structure.putByte(TYPE_INT);
+                structure.putInt(addToConstants(value.toByteArray(), constants));
             }
-        }
-
-        if (repr instanceof RepresentableRepresentation) {
+        } else if (repr instanceof RepresentableRepresentation) {
             // Format: type(1) || ptrClassname(4) || lenRepr(4) || repr(lenRepr)
-            structure.append(TYPE_REPR);
-            int ptrClassname = addToConstants(repr.repr().getRepresentedTypeName(), constants, stringConstantPos);
-            structure.append(ptrClassname);
-
-            ByteString reprBytes = internalSerialize(repr.repr().getRepresentation(), constants, stringConstantPos);
+            structure.putByte(TYPE_REPR);
+            structure.putInt(addToConstants(repr.repr().getRepresentedTypeName(), constants, stringConstantPos));
             // Serialized representation of contained object.
-            int lenRepr = reprBytes.len();
-            structure.append(lenRepr);
-            structure.append(reprBytes);
-        }
-
-        if (repr instanceof ListRepresentation) {
+            serializeWithLength(repr.repr().getRepresentation(), structure, constants, stringConstantPos);
+        } else if (repr instanceof ListRepresentation) {
             // Format: type(1) || (len(4) || repr(len))*
-            structure.append(TYPE_LIST);
-
-            for (Representation listItem : repr.list()) {
-                ByteString listItemSerialization = internalSerialize(listItem, constants, stringConstantPos);
-                structure.append(listItemSerialization.len());
-                structure.append(listItemSerialization);
-            }
-        }
-
-        if (repr instanceof ObjectRepresentation) {
+            structure.putByte(TYPE_LIST);
+            for (Representation listItem : repr.list())
+                serializeWithLength(listItem, structure, constants, stringConstantPos);
+        } else if (repr instanceof ObjectRepresentation) {
             // Format: type(1) || ( ptrToKey(4) || len(4) || repr(len) )*
-            structure.append(TYPE_OBJ);
-
+            structure.putByte(TYPE_OBJ);
             repr.obj().forEachOrderedByKeys((key, value) -> {
-                        int ptrToKey = addToConstants(key, constants, stringConstantPos);
-                        structure.append(ptrToKey);
-
-                        ByteString inner = internalSerialize(value, constants, stringConstantPos);
-                        structure.append(inner.len());
-                        structure.append(inner);
-                    });
-        }
-
-        if (repr instanceof MapRepresentation) {
+                structure.putInt(addToConstants(key, constants, stringConstantPos));
+                serializeWithLength(value, structure, constants, stringConstantPos);
+            });
+        } else if (repr instanceof MapRepresentation) {
             // Format: type(1) || ( keyLen(4) || key(keyLen) || valueLen(4) || value(valueLen) )*
-            structure.append(TYPE_MAP);
-
+            structure.putByte(TYPE_MAP);
             // Random order to ensure map order doesn't leak anything useful
             repr.map().forEachRandomlyOrdered((key, value) -> {
-                        ByteString keySerialized = internalSerialize(key, constants, stringConstantPos);
-                        structure.append(keySerialized.len());
-                        structure.append(keySerialized);
-
-                        ByteString valueSerialized = internalSerialize(value, constants, stringConstantPos);
-                        structure.append(valueSerialized.len());
-                        structure.append(valueSerialized);
-                    });
+                serializeWithLength(key, structure, constants, stringConstantPos);
+                serializeWithLength(value, structure, constants, stringConstantPos);
+            });
         }
+    }
 
-        return structure;
+    /**
+     * Writes len(4) || repr(len) to the structure output.
+     */
+    private void serializeWithLength(Representation repr, ByteOutput structure, ByteOutput constants,
+                                     HashMap<String, Integer> stringConstantPos) {
+        int lengthPos = structure.reserveInt();
+        int start = structure.length();
+        internalSerialize(repr, structure, constants, stringConstantPos);
+        structure.patchInt(lengthPos, structure.length() - start);
     }
 
     /**
      * Adds str to constants stream (if not already in there) and returns its position.
      */
-    private int addToConstants(String str, ByteString constants, HashMap<String, Integer> stringConstantPos) {
+    private int addToConstants(String str, ByteOutput constants, HashMap<String, Integer> stringConstantPos) {
         Integer well_known = well_known_string_indices.get(str);
         if (well_known != null)
             return -well_known-1;
@@ -197,35 +208,80 @@ public class BinaryFormatConverter extends Converter<byte[]> {
         });
     }
 
-    private int addToConstants(byte[] bytes, ByteString constants) {
+    private int addToConstants(byte[] bytes, ByteOutput constants) {
         // Constant format: len(4) || bytes(len)
-        int indexWhereConstantIsWrittenTo = constants.len();
-        constants.append(bytes.length);
-        constants.append(bytes);
+        int indexWhereConstantIsWrittenTo = constants.length();
+        constants.putInt(bytes.length);
+        constants.putBytes(bytes);
 
         return indexWhereConstantIsWrittenTo;
     }
 
-    private static int byteArrayToInt(byte[] array, int posOfInt) {
-        return ByteBuffer.wrap(array).getInt(posOfInt);
+    @Override
+    public Representation deserialize(byte[] data) {
+        return deserialize(ByteBuffer.wrap(data));
     }
 
-    private static byte[] intToByteArray(int val) {
-        return ByteBuffer.allocate(4).putInt(val).array();
+    /**
+     * Deserializes the data between the given buffer's position and its limit.
+     * <p>
+     * The data is read in place, i.e. it is not copied. The buffer's position is not changed.
+     *
+     * @param data the data to deserialize
+     * @return the result of deserialization
+     */
+    public Representation deserialize(ByteBuffer data) {
+        ByteBuffer input = data.slice().order(ByteOrder.BIG_ENDIAN);
+
+        // Format: constantLen(4) || constants(len) || structure
+        int constantsLen = input.getInt();
+        if (constantsLen < 0 || constantsLen > input.remaining())
+            throw new IllegalArgumentException("Illegal offset or length");
+        ByteBuffer constants = input.slice();
+        ((Buffer) constants).limit(constantsLen);
+        ((Buffer) input).position(4 + constantsLen);
+
+        try {
+            return internalDeserialize(new BufferReader(input), constants, input.remaining());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by BufferReader
+        }
     }
 
-    @Override
-    public Representation deserialize(byte[] data) {
-        return internalDeserialize(new Input(data));
+    /**
+     * Deserializes the data read from the given stream (until its end).
+     * <p>
+     * Only the constants part of the data (strings, byte arrays, large integers) is read into memory at once,
+     * the structure is parsed while reading.
+     *
+     * @param in the stream to read from (not closed by this method)
+     * @return the result of deserialization
+     * @throws IOException if reading from the stream fails or the stream ends prematurely
+     */
+    public Representation deserialize(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+
+        // Format: constantLen(4) || constants(len) || structure
+        int constantsLen = dataIn.readInt();
+        if (constantsLen < 0)
+            throw new IllegalArgumentException("Illegal offset or length");
+        byte[] constants = new byte[constantsLen];
+        dataIn.readFully(constants);
+
+        return internalDeserialize(new StreamReader(dataIn), ByteBuffer.wrap(constants), UNBOUNDED);
     }
 
     /**
-     * Interprets the given (structure-)data as a structure and recreates the corresponding Representation.
-     * @return the Representation corresponding to the given Input
+     * Reads a structure from the given reader and recreates the corresponding Representation.
+     *
+     * @param in the reader, positioned at the beginning of the structure
+     * @param constants the constants part of the input
+     * @param end the position where the structure ends, or {@link #UNBOUNDED} if it extends to the end of the input
+     * @return the Representation corresponding to the structure
      */
-    private Representation internalDeserialize(Input data) {
+    private Representation internalDeserialize(StructureReader in, ByteBuffer constants, long end) throws IOException {
         //Whatever the concrete type, it begins with type(1)
-        byte type = data.readByte(0);
+        byte type = in.readByte();
 
         if (type == TYPE_NULL) {
             // Format: type(1)
@@ -233,77 +289,53 @@ public class BinaryFormatConverter extends Converter<byte[]> {
         }
         if (type == TYPE_BYTES) {
             // Format: type(1) || ptr(4)
-            int ptr = data.readInt(1);
-            return new ByteArrayRepresentation(data.getByteArrayFromConstants(ptr));
+            return ByteArrayRepresentation.wrap(getByteArrayFromConstants(constants, in.readInt()));
         }
         if (type == TYPE_STR) {
             // Format: type(1) || ptr(4)
-            int ptr = data.readInt(1);
-            return new StringRepresentation(data.getStringFromConstants(ptr));
+            return new StringRepresentation(getStringFromConstants(constants, in.readInt()));
         }
         if (type == TYPE_INT_INLINE) {
             // Format: type(1) || int(4)
-            int value = data.readInt(1);
-            return new BigIntegerRepresentation(value);
+            return new BigIntegerRepresentation(in.readInt());
         }
         if (type == TYPE_INT) {
             // Format: type(1) || ptr(4)
-            int ptr = data.readInt(1);
-            return new BigIntegerRepresentation(new BigInteger(data.getByteArrayFromConstants(ptr)));
+            return new BigIntegerRepresentation(new BigInteger(getByteArrayFromConstants(constants, in.readInt())));
         }
         if (type == TYPE_REPR) {
             // Format: type(1) || ptrClassname(4) || lenRepr(4) || repr(lenRepr)
-            int ptrClassname = data.readInt(1);
-            int lenRepr = data.readInt(1+4);
-            return new RepresentableRepresentation(
-                    data.getStringFromConstants(ptrClassname),
-                    internalDeserialize(data.getSubstructureData(1+4+4, lenRepr))
-            );
+            String className = getStringFromConstants(constants, in.readInt());
+            return new RepresentableRepresentation(className, deserializeWithLength(in, constants, end));
         }
         if (type == TYPE_LIST) {
             // Format: type(1) || (len(4) || repr(len))*
-            int offset = 1;
             ListRepresentation result = new ListRepresentation();
 
-            // There's still a chance to find a list item between offset and the end of data.
-            while (offset<data.len()-4) {
-                int len = data.readInt(offset);
-                Representation listItem = internalDeserialize(data.getSubstructureData(offset+4, len));
-                result.put(listItem);
-                offset += 4+len;
-            }
+            // There's still a chance to find a list item between the current position and the end of data.
+            while (hasMore(in, end, 4))
+                result.put(deserializeWithLength(in, constants, end));
 
             return result;
         }
         if (type == TYPE_OBJ) {
             // Format: type(1) || ( ptrToKey(4) || len(4) || repr(len) )*
-            int offset = 1;
             ObjectRepresentation result = new ObjectRepresentation();
 
-            while (offset < data.len()-8) {
-                int ptrToKey = data.readInt(offset);
-                int len = data.readInt(offset + 4);
-                Representation value = internalDeserialize(data.getSubstructureData(offset+8, len));
-                result.put(data.getStringFromConstants(ptrToKey), value);
-                offset += 8 + len;
+            while (hasMore(in, end, 8)) {
+                String key = getStringFromConstants(constants, in.readInt());
+                result.put(key, deserializeWithLength(in, constants, end));
             }
 
             return result;
         }
         if (type == TYPE_MAP) {
             // Format: type(1) || ( keyLen(4) || key(keyLen) || valueLen(4) || value(valueLen) )*
-            int offset = 1;
             MapRepresentation result = new MapRepresentation();
 
-            while (offset < data.len()-4) {
-                int keyLen = data.readInt(offset);
-                Representation key = internalDeserialize(data.getSubstructureData(offset + 4, keyLen));
-                offset += 4 + keyLen;
-
-                int valueLen = data.readInt(offset);
-                Representation value = internalDeserialize(data.getSubstructureData(offset + 4, valueLen));
-                offset += 4 + valueLen;
-
+            while (hasMore(in, end, 4)) {
+                Representation key = deserializeWithLength(in, constants, end);
+                Representation value = deserializeWithLength(in, constants, end);
                 result.put(key, value);
             }
 
@@ -313,159 +345,163 @@ public class BinaryFormatConverter extends Converter<byte[]> {
     }
 
     /**
-     * Input used during deserialization. Logically contains a part of the structure and the full constants data.
+     * Reads len(4) || repr(len), where repr must end before the given end position.
      */
-    protected class Input {
-        private final byte[] data;
-        private final static int constantsOffset = 4;
-        private final int constantsLen;
-        /**
-         * Offset of the currently selected substructure in the input data.
-         */
-        private final int substructureOffset;
-        private final int substructureLength;
-
-        public Input(byte[] data) {
-            // Format of s: constantLen(4) || constants(len) || structure
-            this.data = data;
-            constantsLen = byteArrayToInt(data, 0);
-            substructureOffset = constantsOffset + constantsLen;
-            substructureLength = data.length-substructureOffset;
-        }
-
-        /**
-         * Select a structure at a given offset with a given length.
-         * @param input the existing input
-         * @param structureOffset the offset of the substructure to select
-         * @param structureLength the length of the substructure to select
-         */
-        private Input(Input input, int structureOffset, int structureLength) {
-            this.data = input.data;
-            this.constantsLen = input.constantsLen;
-            this.substructureOffset = input.substructureOffset + structureOffset;
-            this.substructureLength = structureLength;
-        }
-
-        public String getStringFromConstants(int ptr) {
-            if (ptr < 0)
-                return well_known_strings.get(-(ptr+1));
-
-            return new String(data, ptr+constantsOffset+4, byteArrayToInt(data, ptr+constantsOffset),
-                    StandardCharsets.UTF_8);
-        }
-
-        public byte[] getByteArrayFromConstants(int ptr) {
-            return Arrays.copyOfRange(data, ptr+constantsOffset+4,
-                    (ptr+constantsOffset+4)+byteArrayToInt(data, ptr+constantsOffset));
-        }
+    private Representation deserializeWithLength(StructureReader in, ByteBuffer constants, long end)
+            throws IOException {
+        int len = in.readInt();
+        long substructureEnd = in.position() + len;
+        if (len < 0 || substructureEnd > end)
+            throw new IllegalArgumentException("Illegal offset or length");
+
+        Representation result = internalDeserialize(in, constants, substructureEnd);
+        if (in.position() > substructureEnd)
+            throw new IllegalArgumentException("Illegal offset or length");
+        in.skip(substructureEnd - in.position());
+        return result;
+    }
 
-        /**
-         * Read an integer at offset {@code posInStructure} in the currently selected substructure.
-         * @param posInStructure offset to read integer from
-         * @return the resulting integer
-         * @throws IndexOutOfBoundsException if the position is out of bounds of this input's data
-         */
-        public int readInt(int posInStructure) {
-            return byteArrayToInt(data, substructureOffset + posInStructure);
-        }
+    /**
+     * Checks whether another entry (with a header of the given length) may follow before the end position.
+     */
+    private static boolean hasMore(StructureReader in, long end, int headerLength) throws IOException {
+        if (end == UNBOUNDED)
+            return !in.isAtEnd();
+        return in.position() < end - headerLength;
+    }
 
-        public byte readByte(int posInStructure) {
-            return data[substructureOffset + posInStructure];
-        }
+    private String getStringFromConstants(ByteBuffer constants, int ptr) {
+        if (ptr < 0)
+            return well_known_strings.get(-(ptr+1));
 
-        public Input getSubstructureData(int offset, int length) {
-            if (substructureLength-offset < length)
-                throw new RuntimeException("Illegal offset or length");
-            return new Input(this, offset, length);
-        }
+        return new String(getByteArrayFromConstants(constants, ptr), StandardCharsets.UTF_8);
+    }
 
-        /**
-         * Returns length of substructure
-         */
-        public int len() {
-            return substructureLength;
-        }
+    private static byte[] getByteArrayFromConstants(ByteBuffer constants, int ptr) {
+        // Constant format: len(4) || bytes(len)
+        int len = constants.getInt(ptr);
+        if (len < 0 || len > constants.limit() - ptr - 4)
+            throw new IllegalArgumentException("Illegal offset or length");
+        byte[] result = new byte[len];
+        ByteBuffer view = constants.duplicate();
+        ((Buffer) view).position(ptr + 4);
+        view.get(result);
+        return result;
     }
 
     /**
-     * A string of bytes used to implement serialization for {@code BinaryFormatConverter}.
+     * Sequential access to the structure part of serialized data.
      */
-    protected static class ByteString {
-        private int len = 0;
-        ByteStringListEntry firstPart;
-        ByteStringListEntry lastPart;
-        boolean valid = true;
-
-        public ByteString() {
-            firstPart = new ByteStringListEntry(new byte[0]);
-            lastPart = firstPart;
-        }
+    private interface StructureReader {
+        byte readByte() throws IOException;
+
+        int readInt() throws IOException;
+
+        void skip(long n) throws IOException;
 
         /**
-         * Appends the given ByteString to this one.
-         * Do not use other afterwards anymore.
+         * Returns the number of bytes read so far.
          */
-        public void append(ByteString other) {
-            if (!valid)
-                throw new RuntimeException("Do not re-use ByteStrings that you've already appended to something.");
+        long position();
 
-            lastPart.nextPart = other.firstPart;
-            lastPart = other.lastPart;
+        boolean isAtEnd() throws IOException;
+    }
+
+    private static class BufferReader implements StructureReader {
+        private final ByteBuffer data;
+        private final int start;
 
-            other.valid = false;
-            len = len + other.len;
+        BufferReader(ByteBuffer data) {
+            this.data = data;
+            this.start = data.position();
         }
 
-        public void append(byte[] bytes) {
-            if (!valid)
-                throw new RuntimeException("Do not re-use ByteStrings that you've already appended to something.");
+        @Override
+        public byte readByte() {
+            return data.get();
+        }
 
-            lastPart.nextPart = new ByteStringListEntry(bytes);
-            lastPart = lastPart.nextPart;
+        @Override
+        public int readInt() {
+            return data.getInt();
+        }
 
-            len = len + bytes.length;
+        @Override
+        public void skip(long n) {
+            if (n > data.remaining())
+                throw new IllegalArgumentException("Illegal offset or length");
+            ((Buffer) data).position(data.position() + (int) n);
         }
 
-        public void append(byte val) {
-            append(new byte[] {val});
+        @Override
+        public long position() {
+            return data.position() - start;
         }
 
-        public void append(int val) {
-            append(intToByteArray(val));
+        @Override
+        public boolean isAtEnd() {
+            return !data.hasRemaining();
         }
+    }
 
-        public int len() {
-            if (!valid)
-                throw new RuntimeException("Do not re-use ByteStrings that you've already appended to something.");
-            return len;
+    private static class StreamReader implements StructureReader {
+        private final DataInputStream in;
+        private long position = 0;
+        /**
+         * Byte read by {@link #isAtEnd()} but not consumed yet, or -1 if there is none.
+         */
+        private int lookahead = -1;
+
+        StreamReader(DataInputStream in) {
+            this.in = in;
         }
 
-        public void writeToByteArray(Object dest, int pos) {
-            firstPart.writeToByteArray(dest, pos);
+        @Override
+        public byte readByte() throws IOException {
+            position++;
+            if (lookahead != -1) {
+                byte result = (byte) lookahead;
+                lookahead = -1;
+                return result;
+            }
+            return in.readByte();
         }
 
-        protected static class ByteStringListEntry {
-            ByteStringListEntry nextPart;
-            final byte[] thisPart;
+        @Override
+        public int readInt() throws IOException {
+            if (lookahead != -1)
+                return ((readByte() & 0xff) << 24) | ((readByte() & 0xff) << 16) | ((readByte() & 0xff) << 8)
+                        | (readByte() & 0xff);
+            position += 4;
+            return in.readInt();
+        }
 
-            public ByteStringListEntry(byte[] bytes) {
-                thisPart = bytes;
-                nextPart = null;
+        @Override
+        public void skip(long n) throws IOException {
+            for (; n > 0 && lookahead != -1; n--)
+                readByte();
+            while (n > 0) {
+                int skipped = in.skipBytes((int) Math.min(n, Integer.MAX_VALUE));
+                if (skipped == 0) {
+                    readByte(); // either makes progress or throws EOFException
+                    skipped = 1;
+                } else {
+                    position += skipped;
+                }
+                n -= skipped;
             }
+        }
 
-            protected void writeToByteArray(Object dest, int pos) {
-                if (thisPart.length != 0)
-                    System.arraycopy(thisPart, 0, dest, pos, thisPart.length);
-                if (nextPart != null)
-                    nextPart.writeToByteArray(dest, pos+thisPart.length);
-            }
+        @Override
+        public long position() {
+            return position;
         }
 
         @Override
-        public String toString() {
-            byte[] result = new byte[len];
-            firstPart.writeToByteArray(result, 0);
-            return Arrays.toString(result);
+        public boolean isAtEnd() throws IOException {
+            if (lookahead == -1)
+                lookahead = in.read();
+            return lookahead == -1;
         }
     }
 }
@@ -0,0 +1,83 @@
+package org.cryptimeleon.math.serialization.converter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer the binary converters write their encodings to.
+ * <p>
+ * Multi-byte values are written big-endian.
+ */
+class ByteOutput {
+    private byte[] buffer = new byte[64];
+    private int length = 0;
+
+    private void ensureCapacity(int additionalBytes) {
+        if (buffer.length - length < additionalBytes)
+            buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, length + additionalBytes));
+    }
+
+    void putByte(int val) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) val;
+    }
+
+    void putInt(int val) {
+        putBigEndian(val, 4);
+    }
+
+    /**
+     * Writes the lowest {@code numBytes} bytes of the given value.
+     */
+    void putBigEndian(long val, int numBytes) {
+        ensureCapacity(numBytes);
+        for (int i = numBytes - 1; i >= 0; i--)
+            buffer[length++] = (byte) (val >>> (8 * i));
+    }
+
+    void putBytes(byte[] bytes) {
+        putBytes(bytes, 0, bytes.length);
+    }
+
+    void putBytes(byte[] bytes, int offset, int numBytes) {
+        ensureCapacity(numBytes);
+        System.arraycopy(bytes, offset, buffer, length, numBytes);
+        length += numBytes;
+    }
+
+    /**
+     * Reserves space for an int to be written later via {@link #patchInt(int, int)}.
+     * @return the position of the reserved space
+     */
+    int reserveInt() {
+        putInt(0);
+        return length - 4;
+    }
+
+    /**
+     * Writes the given int at the given position.
+     */
+    void patchInt(int pos, int val) {
+        buffer[pos] = (byte) (val >>> 24);
+        buffer[pos + 1] = (byte) (val >>> 16);
+        buffer[pos + 2] = (byte) (val >>> 8);
+        buffer[pos + 3] = (byte) val;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void copyTo(byte[] dest, int pos) {
+        System.arraycopy(buffer, 0, dest, pos, length);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+}
@@ -0,0 +1,347 @@
+package org.cryptimeleon.math.serialization.converter;
+
+import org.cryptimeleon.math.serialization.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allows converting between a {@code Representation} object and the Concise Binary Object Representation
+ * (CBOR, RFC 8949).
+ * <p>
+ * Compared to {@link JSONConverter}, integers and byte arrays are stored in binary (instead of hex/Base64 strings)
+ * and no intermediate object tree is built, so the result is smaller and faster to produce and parse.
+ * Like the JSON output, the result is self-describing, i.e. it can be parsed by generic CBOR tools.
+ * Representations are mapped as follows:
+ * <ul>
+ *     <li>{@link BigIntegerRepresentation}: unsigned/negative integer, or bignum (tags 2/3) beyond 64 bits</li>
+ *     <li>{@link ByteArrayRepresentation}: byte string</li>
+ *     <li>{@link StringRepresentation}: text string</li>
+ *     <li>{@link ListRepresentation}: array</li>
+ *     <li>{@link ObjectRepresentation}: map with text string keys</li>
+ *     <li>{@link MapRepresentation}: map with arbitrary keys, tagged with tag 259</li>
+ *     <li>{@link RepresentableRepresentation}: array {@code [class name, representation]},
+ *     tagged with tag 27 (object with type name)</li>
+ *     <li>{@code null}: null</li>
+ * </ul>
+ * The output uses the deterministic encoding of RFC 8949, Section 4.2 (shortest argument encodings,
+ * definite lengths, map keys sorted by their encoding).
+ * Hence, like {@link JSONConverter}, the {@code Representation -> byte[]} relation is left-unique, which allows
+ * using this converter for tasks that require a unique and consistent output.
+ * <p>
+ * Deserialization accepts (non-deterministic) encodings of the above, but no indefinite-length items.
+ */
+public class CBORConverter extends Converter<byte[]> {
+    protected static final int MAJOR_UNSIGNED = 0;
+    protected static final int MAJOR_NEGATIVE = 1;
+    protected static final int MAJOR_BYTES = 2;
+    protected static final int MAJOR_TEXT = 3;
+    protected static final int MAJOR_ARRAY = 4;
+    protected static final int MAJOR_MAP = 5;
+    protected static final int MAJOR_TAG = 6;
+    protected static final int MAJOR_SIMPLE = 7;
+
+    protected static final int TAG_POSITIVE_BIGNUM = 2;
+    protected static final int TAG_NEGATIVE_BIGNUM = 3;
+    protected static final int TAG_OBJECT_WITH_TYPE = 27;
+    protected static final int TAG_MAP = 259;
+
+    protected static final int SIMPLE_NULL = 22;
+
+    /**
+     * Maximum nesting depth of arrays, maps and tags accepted by {@link #deserialize(ByteBuffer)}.
+     */
+    private static final int MAX_DEPTH = 1000;
+
+    private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(64);
+
+    @Override
+    public byte[] serialize(Representation r) {
+        ByteOutput out = new ByteOutput();
+        internalSerialize(r, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Serializes the given representation and writes the result to the given stream.
+     *
+     * @param r the representation to serialize
+     * @param out the stream to write to (not closed by this method)
+     * @throws IOException if writing to the stream fails
+     */
+    public void serialize(Representation r, OutputStream out) throws IOException {
+        ByteOutput output = new ByteOutput();
+        internalSerialize(r, output);
+        output.writeTo(out);
+    }
+
+    private void internalSerialize(Representation r, ByteOutput out) {
+        if (r == null)
+            putHead(out, MAJOR_SIMPLE, SIMPLE_NULL);
+        else if (r instanceof BigIntegerRepresentation)
+            serializeBigInteger(r.bigInt().get(), out);
+        else if (r instanceof ByteArrayRepresentation)
+            putBytes(out, MAJOR_BYTES, r.bytes().get());
+        else if (r instanceof StringRepresentation)
+            putBytes(out, MAJOR_TEXT, r.str().get().getBytes(StandardCharsets.UTF_8));
+        else if (r instanceof ListRepresentation)
+            serializeList((ListRepresentation) r, out);
+        else if (r instanceof ObjectRepresentation)
+            serializeObject((ObjectRepresentation) r, out);
+        else if (r instanceof MapRepresentation)
+            serializeMap((MapRepresentation) r, out);
+        else if (r instanceof RepresentableRepresentation)
+            serializeRepresentable((RepresentableRepresentation) r, out);
+        else
+            throw new IllegalArgumentException("Unknown type when serializing: " + r.getClass().getName());
+    }
+
+    /**
+     * Writes the initial byte and the argument (as unsigned 64 bit value) in its shortest encoding.
+     */
+    private static void putHead(ByteOutput out, int major, long argument) {
+        int type = major << 5;
+        if (argument >= 0 && argument < 24) {
+            out.putByte(type | (int) argument);
+        } else if (argument >= 0 && argument <= 0xffL) {
+            out.putByte(type | 24);
+            out.putByte((int) argument);
+        } else if (argument >= 0 && argument <= 0xffffL) {
+            out.putByte(type | 25);
+            out.putBigEndian(argument, 2);
+        } else if (argument >= 0 && argument <= 0xffffffffL) {
+            out.putByte(type | 26);
+            out.putBigEndian(argument, 4);
+        } else {
+            out.putByte(type | 27);
+            out.putBigEndian(argument, 8);
+        }
+    }
+
+    private static void putBytes(ByteOutput out, int major, byte[] bytes) {
+        putBytes(out, major, bytes, 0);
+    }
+
+    /**
+     * Writes a byte or text string consisting of {@code bytes} without its first {@code offset} bytes.
+     */
+    private static void putBytes(ByteOutput out, int major, byte[] bytes, int offset) {
+        putHead(out, major, bytes.length - offset);
+        out.putBytes(bytes, offset, bytes.length - offset);
+    }
+
+    private void serializeBigInteger(BigInteger value, ByteOutput out) {
+        // Negative integers -1-n are encoded via n
+        int major = value.signum() < 0 ? MAJOR_NEGATIVE : MAJOR_UNSIGNED;
+        BigInteger argument = value.signum() < 0 ? value.not() : value;
+        if (argument.bitLength() <= 64) {
+            putHead(out, major, argument.longValue());
+        } else {
+            putHead(out, MAJOR_TAG, major == MAJOR_NEGATIVE ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+            byte[] magnitude = argument.toByteArray();
+            // Remove sign byte
+            putBytes(out, MAJOR_BYTES, magnitude, magnitude[0] == 0 ? 1 : 0);
+        }
+    }
+
+    private void serializeList(ListRepresentation r, ByteOutput out) {
+        putHead(out, MAJOR_ARRAY, r.size());
+        for (Representation x : r)
+            internalSerialize(x, out); //recursive call to serialize
+    }
+
+    private void serializeObject(ObjectRepresentation r, ByteOutput out) {
+        // For text strings, the order of the encodings is shorter strings first, then bytewise lexicographic order
+        List<Map.Entry<byte[], Representation>> entries = new ArrayList<>(r.size());
+        r.forEach((key, value) -> entries.add(new SimpleEntry<>(key.getBytes(StandardCharsets.UTF_8), value)));
+        entries.sort(Comparator.comparing((Map.Entry<byte[], Representation> e) -> e.getKey().length)
+                .thenComparing(Map.Entry::getKey, CBORConverter::compareBytewise));
+
+        putHead(out, MAJOR_MAP, entries.size());
+        for (Map.Entry<byte[], Representation> entry : entries) {
+            putBytes(out, MAJOR_TEXT, entry.getKey());
+            internalSerialize(entry.getValue(), out);
+        }
+    }
+
+    private void serializeMap(MapRepresentation r, ByteOutput out) {
+        // Keys may be arbitrary representations, so they are encoded first to sort them by their encoding
+        List<Map.Entry<byte[], Representation>> entries = new ArrayList<>(r.size());
+        r.forEach((key, value) -> entries.add(new SimpleEntry<>(serialize(key), value)));
+        entries.sort(Comparator.comparing(Map.Entry::getKey, CBORConverter::compareBytewise));
+
+        putHead(out, MAJOR_TAG, TAG_MAP);
+        putHead(out, MAJOR_MAP, entries.size());
+        for (Map.Entry<byte[], Representation> entry : entries) {
+            out.putBytes(entry.getKey());
+            internalSerialize(entry.getValue(), out);
+        }
+    }
+
+    private void serializeRepresentable(RepresentableRepresentation r, ByteOutput out) {
+        putHead(out, MAJOR_TAG, TAG_OBJECT_WITH_TYPE);
+        putHead(out, MAJOR_ARRAY, 2);
+        putBytes(out, MAJOR_TEXT, r.getRepresentedTypeName().getBytes(StandardCharsets.UTF_8));
+        internalSerialize(r.getRepresentation(), out);
+    }
+
+    /**
+     * Compares the given byte strings in bytewise lexicographic order (with unsigned bytes).
+     */
+    private static int compareBytewise(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i])
+                return Integer.compare(a[i] & 0xff, b[i] & 0xff);
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    @Override
+    public Representation deserialize(byte[] s) {
+        return deserialize(ByteBuffer.wrap(s));
+    }
+
+    /**
+     * Deserializes the data item between the buffer's position and limit.
+     * <p>
+     * The buffer's position is not changed.
+     *
+     * @param data the serialized representation
+     * @return the result of deserialization
+     * @throws IllegalArgumentException if the data is not a valid encoding of a representation
+     */
+    public Representation deserialize(ByteBuffer data) {
+        ByteBuffer in = data.duplicate();
+        try {
+            Representation result = internalDeserialize(in, 0);
+            if (in.hasRemaining())
+                throw new IllegalArgumentException("Unexpected data after the end of the encoding");
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Unexpected end of the encoding", e);
+        }
+    }
+
+    private Representation internalDeserialize(ByteBuffer in, int depth) {
+        if (depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Encoding is nested too deeply");
+        int initialByte = in.get() & 0xff;
+        int major = initialByte >>> 5;
+        long argument = readArgument(initialByte, in);
+
+        switch (major) {
+            case MAJOR_UNSIGNED:
+                return new BigIntegerRepresentation(toUnsignedBigInteger(argument));
+            case MAJOR_NEGATIVE:
+                return new BigIntegerRepresentation(toUnsignedBigInteger(argument).not());
+            case MAJOR_BYTES:
+                return ByteArrayRepresentation.wrap(readBytes(in, argument));
+            case MAJOR_TEXT:
+                return new StringRepresentation(new String(readBytes(in, argument), StandardCharsets.UTF_8));
+            case MAJOR_ARRAY: {
+                ListRepresentation result = new ListRepresentation();
+                for (long i = checkCount(in, argument); i > 0; i--)
+                    result.put(internalDeserialize(in, depth + 1));
+                return result;
+            }
+            case MAJOR_MAP: {
+                ObjectRepresentation result = new ObjectRepresentation();
+                for (long i = checkCount(in, argument); i > 0; i--) {
+                    Representation key = internalDeserialize(in, depth + 1);
+                    if (!(key instanceof StringRepresentation))
+                        throw new IllegalArgumentException("Untagged map with non-string key " + key);
+                    result.put(key.str().get(), internalDeserialize(in, depth + 1));
+                }
+                return result;
+            }
+            case MAJOR_TAG:
+                return deserializeTagged(argument, in, depth);
+            case MAJOR_SIMPLE:
+                if (argument == SIMPLE_NULL && initialByte == ((MAJOR_SIMPLE << 5) | SIMPLE_NULL))
+                    return null;
+                throw new IllegalArgumentException("Unsupported simple value or float " + initialByte);
+            default:
+                throw new AssertionError(); // major is 3 bits
+        }
+    }
+
+    private Representation deserializeTagged(long tag, ByteBuffer in, int depth) {
+        if (tag == TAG_POSITIVE_BIGNUM || tag == TAG_NEGATIVE_BIGNUM) {
+            Representation content = internalDeserialize(in, depth + 1);
+            if (!(content instanceof ByteArrayRepresentation))
+                throw new IllegalArgumentException("Bignum content is not a byte string");
+            BigInteger value = new BigInteger(1, content.bytes().get());
+            return new BigIntegerRepresentation(tag == TAG_POSITIVE_BIGNUM ? value : value.not());
+        }
+        if (tag == TAG_MAP) {
+            int initialByte = in.get() & 0xff;
+            if (initialByte >>> 5 != MAJOR_MAP)
+                throw new IllegalArgumentException("Content of map tag is not a map");
+            MapRepresentation result = new MapRepresentation();
+            for (long i = checkCount(in, readArgument(initialByte, in)); i > 0; i--)
+                result.put(internalDeserialize(in, depth + 1), internalDeserialize(in, depth + 1));
+            return result;
+        }
+        if (tag == TAG_OBJECT_WITH_TYPE) {
+            Representation content = internalDeserialize(in, depth + 1);
+            if (!(content instanceof ListRepresentation) || content.list().size() != 2
+                    || !(content.list().get(0) instanceof StringRepresentation))
+                throw new IllegalArgumentException("Content of object tag is not [type name, representation]");
+            return new RepresentableRepresentation(content.list().get(0).str().get(), content.list().get(1));
+        }
+        throw new IllegalArgumentException("Unsupported tag " + Long.toUnsignedString(tag));
+    }
+
+    /**
+     * Reads the argument following the initial byte (as unsigned 64 bit value).
+     */
+    private static long readArgument(int initialByte, ByteBuffer in) {
+        int additionalInfo = initialByte & 0x1f;
+        if (additionalInfo < 24)
+            return additionalInfo;
+        switch (additionalInfo) {
+            case 24:
+                return in.get() & 0xffL;
+            case 25:
+                return in.getShort() & 0xffffL;
+            case 26:
+                return in.getInt() & 0xffffffffL;
+            case 27:
+                return in.getLong();
+            case 31:
+                throw new IllegalArgumentException("Indefinite-length items are not supported");
+            default:
+                throw new IllegalArgumentException("Reserved additional information " + additionalInfo);
+        }
+    }
+
+    private static BigInteger toUnsignedBigInteger(long value) {
+        BigInteger result = BigInteger.valueOf(value);
+        return value < 0 ? result.add(TWO_TO_64) : result;
+    }
+
+    /**
+     * Checks that the given number of items (each at least one byte long) can be contained in the remaining input,
+     * which prevents allocating memory for bogus lengths.
+     */
+    private static long checkCount(ByteBuffer in, long count) {
+        if (count < 0 || count > in.remaining())
+            throw new IllegalArgumentException("Illegal number of items " + Long.toUnsignedString(count));
+        return count;
+    }
+
+    private static byte[] readBytes(ByteBuffer in, long length) {
+        byte[] result = new byte[(int) checkCount(in, length)];
+        in.get(result);
+        return result;
+    }
+}
@@ -191,7 +191,7 @@ public class JSONConverter extends Converter<String> {
     }
 
     private ByteArrayRepresentation deserializeByteArray(String o) {
-        return new ByteArrayRepresentation(Base64.getDecoder().decode(o.substring(BYTE_ARRAY_PREFIX.length())));
+        return ByteArrayRepresentation.wrap(Base64.getDecoder().decode(o.substring(BYTE_ARRAY_PREFIX.length())));
     }
 
     private ListRepresentation deserializeArray(JSONArray o) {
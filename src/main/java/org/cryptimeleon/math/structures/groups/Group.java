@@ -5,12 +5,16 @@ import org.cryptimeleon.math.expressions.group.GroupEmptyExpr;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.RepresentationRestorer;
 import org.cryptimeleon.math.structures.Structure;
+import org.cryptimeleon.math.structures.cartesian.Vector;
+import org.cryptimeleon.math.structures.groups.cartesian.FixedWidthGroupElementEncoding;
 import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
 import org.cryptimeleon.math.structures.rings.zn.Zn;
 
 import java.lang.reflect.Type;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 
 /**
  * An algebraic group.
@@ -64,6 +68,113 @@ public interface Group extends Structure, RepresentationRestorer {
         return GroupElementVector.fromStream(repr.list().stream().map(this::restoreElement));
     }
 
+    /**
+     * Checks whether the given element is a valid element of this group, e.g. after restoring it from an untrusted
+     * representation (for elliptic curves, whether it lies on the curve and in the correct subgroup).
+     *
+     * @param element the element to check
+     * @return true if the element is a member of this group
+     * @throws UnsupportedOperationException if this group does not support membership checks
+     */
+    default boolean isMember(GroupElement element) {
+        throw new UnsupportedOperationException("Membership checks are not supported for " + this);
+    }
+
+    /**
+     * Checks whether all given elements are valid elements of this group.
+     * <p>
+     * Depending on the group, this may be considerably faster than checking the elements individually.
+     *
+     * @param elements the elements to check
+     * @return true if all elements are members of this group
+     * @throws UnsupportedOperationException if this group does not support membership checks
+     */
+    default boolean areMembers(Vector<? extends GroupElement> elements) {
+        return elements.stream().parallel().allMatch(this::isMember);
+    }
+
+    /**
+     * Restores an element from an untrusted representation and checks that it is a valid element of this group
+     * (see {@link #isMember(GroupElement)}).
+     * <p>
+     * Implementations may defer restoring and checking the element until its value is first needed, in which case
+     * an invalid element causes an {@code IllegalArgumentException} at that point.
+     *
+     * @param repr a representation of an element of this group
+     * @return the restored element
+     * @throws IllegalArgumentException if the element is invalid (possibly only on first use)
+     */
+    default GroupElement restoreValidatedElement(Representation repr) {
+        GroupElement element = restoreElement(repr);
+        if (!isMember(element))
+            throw new IllegalArgumentException("Restored element is not a member of " + this);
+        return element;
+    }
+
+    /**
+     * Restores a vector of elements from an untrusted representation and checks that all of them are valid
+     * elements of this group (see {@link #areMembers(Vector)}).
+     * <p>
+     * Implementations may defer restoring and checking the elements until the value of any of them is first
+     * needed, in which case invalid elements cause an {@code IllegalArgumentException} at that point.
+     *
+     * @param repr a representation of a {@code GroupElementVector} of this group
+     * @return the restored elements
+     * @throws IllegalArgumentException if an element is invalid (possibly only on first use)
+     */
+    default GroupElementVector restoreValidatedVector(Representation repr) {
+        GroupElementVector elements = restoreVector(repr);
+        if (!areMembers(elements))
+            throw new IllegalArgumentException("Restored elements are not members of " + this);
+        return elements;
+    }
+
+    /**
+     * Restores a {@link GroupElementVector} containing group elements from this {@code Group} from its dense
+     * fixed-width encoding (obtained via {@link GroupElementVector#getFixedWidthEncoding()}).
+     * Elements are decoded in parallel.
+     *
+     * @param data the encoding, starting at the buffer's position (which is not changed)
+     * @see FixedWidthGroupElementEncoding
+     */
+    default GroupElementVector restoreVector(ByteBuffer data) {
+        return new FixedWidthGroupElementEncoding(this).decode(data);
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #encodeFixedLength(GroupElement, ByteBuffer)},
+     * or an empty {@code Optional} if this group does not support a fixed-length encoding.
+     *
+     * @see GroupImpl#getFixedEncodingLength()
+     */
+    default Optional<Integer> getFixedEncodingLength() {
+        return Optional.empty();
+    }
+
+    /**
+     * Writes exactly {@link #getFixedEncodingLength()} bytes encoding the given element to the given buffer.
+     *
+     * @param element an element of this group
+     * @param out the buffer to write to (at its position, which is advanced)
+     * @throws UnsupportedOperationException if this group does not support a fixed-length encoding
+     */
+    default void encodeFixedLength(GroupElement element, ByteBuffer out) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+
+    /**
+     * Reads an element encoded by {@link #encodeFixedLength(GroupElement, ByteBuffer)}.
+     * Does not check subgroup membership.
+     *
+     * @param in the buffer to read from (at its position, which is advanced)
+     * @return the decoded element
+     * @throws IllegalArgumentException if the bytes do not encode an element of this group
+     * @throws UnsupportedOperationException if this group does not support a fixed-length encoding
+     */
+    default GroupElement decodeFixedLength(ByteBuffer in) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+
     /**
      * Returns any generator of this group if the group is cyclic and it's feasible to compute a generator.
      * <p>
@@ -122,7 +233,7 @@ public interface Group extends Structure, RepresentationRestorer {
      * Returns n random integers between {@code 0} and {@code size()-1} (inclusive) using a cryptographically strong RNG.
      */
     default RingElementVector getUniformlyRandomExponents(int n) {
-        return RingElementVector.generate(this::getUniformlyRandomExponent, n);
+        return getZn().getUniformlyRandomElements(n);
     }
 
     /**
@@ -150,7 +261,7 @@ public interface Group extends Structure, RepresentationRestorer {
      * Returns n random integers between {@code 1} and {@code size()-1} (inclusive) using a cryptographically strong RNG.
      */
     default RingElementVector getUniformlyRandomNonzeroExponents(int n) {
-        return RingElementVector.generate(this::getUniformlyRandomNonzeroExponent, n);
+        return getZn().getUniformlyRandomNonzeroElements(n);
     }
 }
 
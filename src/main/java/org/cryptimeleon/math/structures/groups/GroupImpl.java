@@ -4,12 +4,16 @@ import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.StandaloneRepresentable;
 import org.cryptimeleon.math.serialization.annotations.RepresentationRestorer;
 import org.cryptimeleon.math.structures.Element;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
 import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
 import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.lang.reflect.Type;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -118,6 +122,67 @@ public interface GroupImpl extends StandaloneRepresentable, RepresentationRestor
         throw new UnsupportedOperationException("Multi-exponentiation is not implemented for group " + this);
     }
 
+    /**
+     * Indicates whether this group computes many independent group operations faster at once
+     * (see {@link #batchOp(List, List)}) than individually, e.g. by sharing a single field inversion.
+     * <p>
+     * Algorithms may then arrange their group operations in batches, even if this requires a few additional
+     * operations.
+     *
+     * @return true if {@link #batchOp(List, List)} is faster than individual group operations, else false
+     */
+    default boolean implementsOwnBatchOp() {
+        return false;
+    }
+
+    /**
+     * Computes {@code lhs.get(i).op(rhs.get(i))} for all {@code i}.
+     * <p>
+     * By default, the group operations are computed individually.
+     * Groups that can compute them faster at once should override this and {@link #implementsOwnBatchOp()}.
+     *
+     * @param lhs the left-hand sides of the group operations
+     * @param rhs the right-hand sides of the group operations (of the same length as {@code lhs})
+     * @return the results of the group operations (in order)
+     */
+    default List<GroupElementImpl> batchOp(List<? extends GroupElementImpl> lhs,
+                                           List<? extends GroupElementImpl> rhs) {
+        if (lhs.size() != rhs.size())
+            throw new IllegalArgumentException("Need the same number of left-hand and right-hand sides");
+        List<GroupElementImpl> result = new ArrayList<>(lhs.size());
+        for (int i = 0; i < lhs.size(); i++)
+            result.add(lhs.get(i).op(rhs.get(i)));
+        return result;
+    }
+
+    /**
+     * Checks whether the given element is a valid element of this group, e.g. after restoring it from an untrusted
+     * representation.
+     * <p>
+     * By default, this checks whether {@code element^size()} is the neutral element.
+     * Groups whose elements cannot be invalid or that offer faster checks should override this.
+     *
+     * @param element the element to check
+     * @return true if the element is a member of this group
+     * @throws UnsupportedOperationException if the size of this group is unknown
+     */
+    default boolean isMember(GroupElementImpl element) {
+        return ExponentiationAlgorithms.binSquareMultiplyExp(element, size()).isNeutralElement();
+    }
+
+    /**
+     * Checks whether all given elements are valid elements of this group.
+     * <p>
+     * By default, the elements are checked individually (in parallel) using {@link #isMember(GroupElementImpl)}.
+     * Groups may override this to check all elements at once.
+     *
+     * @param elements the elements to check
+     * @return true if all elements are members of this group
+     */
+    default boolean areMembers(List<? extends GroupElementImpl> elements) {
+        return elements.parallelStream().allMatch(this::isMember);
+    }
+
     /**
      * Estimates the number of inversions that can be done per group operation for the same cost.
      * For example, {@code 2} would mean that an inversion costs half as much as a group operation, on average.
@@ -147,5 +212,41 @@ public interface GroupImpl extends StandaloneRepresentable, RepresentationRestor
      *         or an empty {@code Optional}, if no guarantee
      */
     Optional<Integer> getUniqueByteLength();
-}
 
+    /**
+     * Returns the number of bytes written by {@link #encodeFixedLength(GroupElementImpl, ByteBuffer)},
+     * or an empty {@code Optional} if this group does not support a fixed-length encoding.
+     * <p>
+     * Unlike the unique byte representation, the fixed-length encoding can be decoded
+     * (see {@link #decodeFixedLength(ByteBuffer)}). It is meant for dense storage of many elements,
+     * e.g. as raw coordinates of elliptic curve points.
+     */
+    default Optional<Integer> getFixedEncodingLength() {
+        return Optional.empty();
+    }
+
+    /**
+     * Writes exactly {@link #getFixedEncodingLength()} bytes encoding the given element to the given buffer.
+     *
+     * @param element an element of this group
+     * @param out the buffer to write to (at its position, which is advanced)
+     * @throws UnsupportedOperationException if this group does not support a fixed-length encoding
+     */
+    default void encodeFixedLength(GroupElementImpl element, ByteBuffer out) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+
+    /**
+     * Reads an element encoded by {@link #encodeFixedLength(GroupElementImpl, ByteBuffer)}.
+     * <p>
+     * Does not check subgroup membership.
+     *
+     * @param in the buffer to read from (at its position, which is advanced)
+     * @return the decoded element
+     * @throws IllegalArgumentException if the bytes do not encode an element of this group
+     * @throws UnsupportedOperationException if this group does not support a fixed-length encoding
+     */
+    default GroupElementImpl decodeFixedLength(ByteBuffer in) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+}
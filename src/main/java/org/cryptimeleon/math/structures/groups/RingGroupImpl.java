@@ -5,6 +5,9 @@ import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.rings.Ring;
 import org.cryptimeleon.math.structures.rings.RingElement;
 
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
 /**
  * Common base class for ring subgroups (additive/unit groups).
  */
@@ -95,6 +98,24 @@ abstract class RingGroupImpl implements GroupImpl {
         }
     }
 
+    /**
+     * Elements are encoded by the fixed-length encoding of the ring (if supported).
+     */
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        return ring.getFixedEncodingLength();
+    }
+
+    @Override
+    public void encodeFixedLength(GroupElementImpl element, ByteBuffer out) {
+        ring.encodeFixedLength(((RingGroupElementImpl) element).element, out);
+    }
+
+    @Override
+    public GroupElementImpl decodeFixedLength(ByteBuffer in) {
+        return getElement(ring.decodeFixedLength(in));
+    }
+
     @Override
     public String toString() {
         return ring.toString();
@@ -2,6 +2,7 @@ package org.cryptimeleon.math.structures.groups.basic;
 
 import org.cryptimeleon.math.serialization.RepresentableRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.cartesian.Vector;
 import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.GroupElement;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
@@ -10,6 +11,7 @@ import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -75,6 +77,16 @@ public class BasicGroup implements Group {
         return wrap(impl.restoreElement(repr));
     }
 
+    @Override
+    public boolean isMember(GroupElement element) {
+        return impl.isMember(((BasicGroupElement) element).impl);
+    }
+
+    @Override
+    public boolean areMembers(Vector<? extends GroupElement> elements) {
+        return impl.areMembers(elements.map(element -> ((BasicGroupElement) element).impl).toList());
+    }
+
     @Override
     public GroupElement getGenerator() throws UnsupportedOperationException {
         return wrap(impl.getGenerator());
@@ -85,6 +97,21 @@ public class BasicGroup implements Group {
         return impl.getUniqueByteLength();
     }
 
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        return impl.getFixedEncodingLength();
+    }
+
+    @Override
+    public void encodeFixedLength(GroupElement element, ByteBuffer out) {
+        impl.encodeFixedLength(((BasicGroupElement) element).impl, out);
+    }
+
+    @Override
+    public GroupElement decodeFixedLength(ByteBuffer in) {
+        return wrap(impl.decodeFixedLength(in));
+    }
+
     @Override
     public boolean isCommutative() {
         return impl.isCommutative();
@@ -0,0 +1,214 @@
+package org.cryptimeleon.math.structures.groups.cartesian;
+
+import org.cryptimeleon.math.structures.cartesian.Vector;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Dense binary encoding for (large) vectors of elements of a single group, e.g. tables of public parameters.
+ * <p>
+ * Unlike {@link GroupElementVector#getRepresentation()} encoded with a {@code Converter}, all elements are
+ * stored in records of the same length following a single header:
+ * <pre>
+ * magic(4) || recordLength(4) || numberOfElements(4) || record_0 || ... || record_{n-1}
+ * </pre>
+ * where each record is the group's fixed-length encoding of the element (see {@link Group#getFixedEncodingLength()}),
+ * e.g. the raw coordinates \(x \| y\) of an elliptic curve point (or \(x\) and a flag byte, if the curve uses
+ * compressed representations). Records carry no per-element length, type information or padding.
+ * Hence element {@code i} can be decoded directly from offset {@code 12 + i * recordLength}, for example from a
+ * memory-mapped file (see {@link #map(Path)}).
+ * <p>
+ * The group is not part of the encoding, i.e. the decoding side must know it.
+ */
+public class FixedWidthGroupElementEncoding {
+    /**
+     * Marks data in this format ("GEV" followed by the format version).
+     */
+    private static final int MAGIC = 0x47455601;
+    private static final int HEADER_LENGTH = 12;
+
+    private final Group group;
+    private final int recordLength;
+
+    /**
+     * @param group the group whose elements are encoded/decoded (may be null for encoding an empty vector)
+     * @throws IllegalArgumentException if the group does not support a fixed-length encoding
+     */
+    public FixedWidthGroupElementEncoding(Group group) {
+        this.group = group;
+        this.recordLength = group == null ? 0 : group.getFixedEncodingLength().orElseThrow(
+                () -> new IllegalArgumentException(group + " does not support a fixed-length encoding"));
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    /**
+     * Returns the length of each record, i.e. the group's {@link Group#getFixedEncodingLength()}.
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Encodes the given elements.
+     * <p>
+     * Records are written in parallel.
+     *
+     * @param elements elements of {@link #getGroup()}
+     * @return the encoding
+     */
+    public byte[] encode(Vector<? extends GroupElement> elements) {
+        ByteBuffer result = ByteBuffer.allocate(Math.toIntExact(HEADER_LENGTH + (long) recordLength * elements.length()));
+        putHeader(result, elements.length());
+        IntStream.range(0, elements.length()).parallel().forEach(i -> {
+            ByteBuffer record = result.duplicate();
+            ((Buffer) record).position(HEADER_LENGTH + i * recordLength);
+            group.encodeFixedLength(elements.get(i), record);
+        });
+        return result.array();
+    }
+
+    /**
+     * Encodes the given elements and writes the result to the given stream.
+     * <p>
+     * The result is the same as {@link #encode(Vector)}, but records are written one by one.
+     *
+     * @param elements elements of {@link #getGroup()}
+     * @param out the stream to write to (not closed by this method)
+     * @throws IOException if writing to the stream fails
+     */
+    public void encode(Vector<? extends GroupElement> elements, OutputStream out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        putHeader(header, elements.length());
+        out.write(header.array());
+
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        for (int i = 0; i < elements.length(); i++) {
+            ((Buffer) record).clear();
+            group.encodeFixedLength(elements.get(i), record);
+            out.write(record.array());
+        }
+    }
+
+    private void putHeader(ByteBuffer buffer, int numberOfElements) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(recordLength);
+        buffer.putInt(numberOfElements);
+    }
+
+    /**
+     * Returns the number of elements in the given encoding.
+     *
+     * @param data the encoding, starting at the buffer's position (which is not changed)
+     */
+    public int size(ByteBuffer data) {
+        return new Header(data).numberOfElements;
+    }
+
+    /**
+     * Decodes a single element of the given encoding without decoding the others.
+     *
+     * @param data the encoding, starting at the buffer's position (which is not changed)
+     * @param index the index of the element to decode
+     * @return the element at position {@code index}
+     * @throws IndexOutOfBoundsException if there is no element with the given index
+     */
+    public GroupElement decodeElement(ByteBuffer data, int index) {
+        Header header = new Header(data);
+        if (index < 0 || index >= header.numberOfElements)
+            throw new IndexOutOfBoundsException("Index " + index + " for " + header.numberOfElements + " elements");
+        return readRecord(data, index);
+    }
+
+    /**
+     * Decodes all elements of the given encoding (in parallel).
+     *
+     * @param data the encoding, starting at the buffer's position (which is not changed)
+     * @return the decoded elements
+     */
+    public GroupElementVector decode(ByteBuffer data) {
+        return decode(data, false);
+    }
+
+    /**
+     * Decodes all elements of the given encoding (in parallel).
+     *
+     * @param data the encoding, starting at the buffer's position (which is not changed)
+     * @param validate whether to check that all elements are valid elements of the group
+     *                 (see {@link Group#areMembers(Vector)})
+     * @return the decoded elements
+     * @throws IllegalArgumentException if validation is requested and fails
+     */
+    public GroupElementVector decode(ByteBuffer data, boolean validate) {
+        Header header = new Header(data);
+        GroupElement[] result = new GroupElement[header.numberOfElements];
+        IntStream.range(0, header.numberOfElements).parallel()
+                .forEach(i -> result[i] = readRecord(data, i));
+        GroupElementVector elements = new GroupElementVector(result, true);
+        if (validate && !group.areMembers(elements))
+            throw new IllegalArgumentException("Decoded elements are not members of " + group);
+        return elements;
+    }
+
+    /**
+     * Decodes all elements of the given encoding.
+     *
+     * @see #decode(ByteBuffer)
+     */
+    public GroupElementVector decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    private GroupElement readRecord(ByteBuffer data, int index) {
+        ByteBuffer record = data.duplicate();
+        ((Buffer) record).position(data.position() + HEADER_LENGTH + index * recordLength);
+        return group.decodeFixedLength(record);
+    }
+
+    /**
+     * Maps the given file into memory (read-only), e.g. to decode single elements from it via
+     * {@link #decodeElement(ByteBuffer, int)} without reading the whole file.
+     *
+     * @param file the file to map (at most 2 GiB)
+     * @return the mapped file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Parsed and checked header of an encoding.
+     */
+    private class Header {
+        final int numberOfElements;
+
+        Header(ByteBuffer data) {
+            ByteBuffer buffer = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+            if (buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC)
+                throw new IllegalArgumentException("Data is not a fixed-width group element encoding");
+            int encodedRecordLength = buffer.getInt();
+            numberOfElements = buffer.getInt();
+            if (numberOfElements < 0 || (long) recordLength * numberOfElements > buffer.remaining())
+                throw new IllegalArgumentException("Illegal number of elements");
+            if (numberOfElements > 0 && encodedRecordLength != recordLength)
+                throw new IllegalArgumentException("Record length " + encodedRecordLength + " does not match "
+                        + "the fixed encoding length " + recordLength + " of " + group);
+        }
+    }
+}
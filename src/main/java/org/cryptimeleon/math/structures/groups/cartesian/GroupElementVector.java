@@ -10,6 +10,7 @@ import org.cryptimeleon.math.structures.groups.elliptic.BilinearMap;
 import org.cryptimeleon.math.structures.rings.RingElement;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -111,6 +112,16 @@ public class GroupElementVector extends Vector<GroupElement> implements Represen
         return new ListRepresentation(map(Representable::getRepresentation).toList());
     }
 
+    /**
+     * Encodes this vector in the dense format of {@link FixedWidthGroupElementEncoding}
+     * (all elements must belong to the same group).
+     * <p>
+     * The result can be decoded with {@link org.cryptimeleon.math.structures.groups.Group#restoreVector(ByteBuffer)}.
+     */
+    public byte[] getFixedWidthEncoding() {
+        return new FixedWidthGroupElementEncoding(length() == 0 ? null : get(0).getStructure()).encode(this);
+    }
+
     @Override
     public GroupElementVector pad(GroupElement valueToPadWith, int desiredLength) {
         return new GroupElementVector(super.pad(valueToPadWith, desiredLength));
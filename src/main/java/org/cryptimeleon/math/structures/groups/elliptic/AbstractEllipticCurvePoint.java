@@ -1,10 +1,13 @@
 package org.cryptimeleon.math.structures.groups.elliptic;
 
+import org.cryptimeleon.math.serialization.BigIntegerRepresentation;
 import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 
+import java.math.BigInteger;
+
 public abstract class AbstractEllipticCurvePoint implements EllipticCurvePoint {
     FieldElement x, y, z;
 
@@ -23,6 +26,26 @@ public abstract class AbstractEllipticCurvePoint implements EllipticCurvePoint {
                 curve.getFieldOfDefinition().restoreElement(repr.obj().get("z")));
     }
 
+    /**
+     * Returns true if the given point representation is compressed, i.e. only contains the x-coordinate
+     * and the sign of the y-coordinate.
+     *
+     * @see WeierstrassCurve#usesCompressedRepresentation()
+     */
+    public static boolean isCompressedRepresentation(Representation repr) {
+        return repr.obj().get("y") == null;
+    }
+
+    /**
+     * Restores a point from its compressed representation.
+     *
+     * @see #isCompressedRepresentation(Representation)
+     */
+    public static EllipticCurvePoint restoreCompressed(WeierstrassCurve curve, Representation repr) {
+        return curve.decompress(curve.getFieldOfDefinition().restoreElement(repr.obj().get("x")),
+                !repr.obj().get("ySign").bigInt().get().equals(BigInteger.ZERO));
+    }
+
     public Field getFieldOfDefinition() {
         return structure.getFieldOfDefinition();
     }
@@ -50,6 +73,11 @@ public abstract class AbstractEllipticCurvePoint implements EllipticCurvePoint {
          */
         AbstractEllipticCurvePoint normalized = (AbstractEllipticCurvePoint) this.normalize();
         ObjectRepresentation r = new ObjectRepresentation();
+        if (structure.usesCompressedRepresentation() && !normalized.isNeutralElement()) {
+            r.put("x", normalized.getX().getRepresentation());
+            r.put("ySign", new BigIntegerRepresentation(WeierstrassCurve.sign(normalized.getY()) ? 1 : 0));
+            return r;
+        }
         r.put("x", normalized.getX().getRepresentation());
         r.put("y", normalized.getY().getRepresentation());
         r.put("z", normalized.getZ().getRepresentation()); //basically in this to represent the neutral element
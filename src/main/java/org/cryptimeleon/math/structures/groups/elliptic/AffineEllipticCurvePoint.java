@@ -313,7 +313,15 @@ public class AffineEllipticCurvePoint extends AbstractEllipticCurvePoint {
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
         AffineEllipticCurvePoint normalized = normalize();
-        if (!getStructure().getFieldOfDefinition().getUniqueByteLength().isPresent()) {
+        if (getStructure().usesCompressedRepresentation()) {
+            //x-coordinate and a SEC 1 style flag: 0 for the neutral element, 2 or 3 for even or odd sign of y
+            byte flag = (byte) (normalized.isNeutralElement() ? 0 : WeierstrassCurve.sign(normalized.getY()) ? 3 : 2);
+            if (!getStructure().getFieldOfDefinition().getUniqueByteLength().isPresent())
+                accumulator.escapeAndSeparate(normalized.getX());
+            else
+                accumulator.append(normalized.getX());
+            accumulator.append(flag);
+        } else if (!getStructure().getFieldOfDefinition().getUniqueByteLength().isPresent()) {
             accumulator.escapeAndSeparate(normalized.getX());
             accumulator.escapeAndSeparate(normalized.getY());
             accumulator.escapeAndSeparate(normalized.getZ());
@@ -0,0 +1,215 @@
+package org.cryptimeleon.math.structures.groups.elliptic;
+
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
+import org.cryptimeleon.math.structures.groups.exp.GlvDecomposition;
+import org.cryptimeleon.math.structures.groups.exp.MultiExpAlgorithm;
+import org.cryptimeleon.math.structures.groups.exp.MultiExpTerm;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
+import org.cryptimeleon.math.structures.rings.Field;
+import org.cryptimeleon.math.structures.rings.FieldElement;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * An efficiently computable endomorphism \(\psi\) of a prime order elliptic curve group with
+ * \(\psi(P) = P^\lambda\), used to speed up (multi-)exponentiations via the GLV/GLS method.
+ * <p>
+ * Every exponent is split into \(d\) exponents of roughly \(1/d\) of the original length
+ * (see {@link GlvDecomposition}) and the result is computed as an interleaved wNAF multi-exponentiation with
+ * bases \(P, \psi(P), \dots, \psi^{d-1}(P)\).
+ * Precomputed powers of \(P\) are mapped through \(\psi\) instead of being recomputed.
+ */
+public class GlvEndomorphism {
+    /**
+     * Maximal window size for powers of bases that are not precomputed yet (see
+     * {@link ExponentiationAlgorithms#chooseWindowSize(MultiExpAlgorithm, int, int, int, double, int)}).
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 4;
+
+    private final UnaryOperator<GroupElementImpl> map;
+    private final GlvDecomposition decomposition;
+
+    /**
+     * Instantiates the endomorphism.
+     *
+     * @param map the endomorphism \(\psi\)
+     * @param lambda the eigenvalue of \(\psi\) on the group, i.e. \(\psi(P) = P^\lambda\)
+     * @param groupOrder the (prime) group order
+     * @param dimension the number of exponents to split each exponent into
+     */
+    public GlvEndomorphism(UnaryOperator<GroupElementImpl> map, BigInteger lambda, BigInteger groupOrder,
+                           int dimension) {
+        this.map = map;
+        this.decomposition = new GlvDecomposition(groupOrder, lambda, dimension);
+    }
+
+    /**
+     * Tries all combinations of the given maps and eigenvalues and returns an endomorphism for the first
+     * combination with \(\psi(g) = g^\lambda\).
+     *
+     * @param generator a generator of the group
+     * @param groupOrder the (prime) group order
+     * @param dimension the number of exponents to split each exponent into
+     * @param candidateMaps possible endomorphisms
+     * @param candidateEigenvalues possible eigenvalues
+     * @return the endomorphism, or null if no combination matches
+     */
+    public static GlvEndomorphism find(GroupElementImpl generator, BigInteger groupOrder, int dimension,
+                                       List<UnaryOperator<GroupElementImpl>> candidateMaps,
+                                       List<BigInteger> candidateEigenvalues) {
+        for (BigInteger lambda : candidateEigenvalues) {
+            GroupElementImpl expected = ExponentiationAlgorithms.binSquareMultiplyExp(generator, lambda);
+            for (UnaryOperator<GroupElementImpl> map : candidateMaps) {
+                if (map.apply(generator).equals(expected)) {
+                    try {
+                        return new GlvEndomorphism(map, lambda, groupOrder, dimension);
+                    } catch (IllegalArgumentException e) {
+                        return null; //powers of lambda do not span a lattice of full rank
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets up the endomorphism \((x,y) \mapsto (\beta x, y)\) for a short Weierstrass curve \(y^2 = x^3 + b\),
+     * where \(\beta\) is a primitive cube root of unity (2-dimensional GLV).
+     *
+     * @param curve the curve, must have \(A4 = 0\) and be in short form (the endomorphism can be applied to
+     *              points of any curve with the same equation)
+     * @param generator a generator of the (sub)group on the curve
+     * @param groupOrder the (prime) group order
+     * @return the endomorphism, or null if the curve or field do not support it
+     */
+    public static GlvEndomorphism forCubeRootOfUnity(WeierstrassCurve curve, GroupElementImpl generator,
+                                                     BigInteger groupOrder) {
+        if (!curve.isShortForm() || !curve.getA4().isZero()
+                || !groupOrder.mod(BigInteger.valueOf(3)).equals(BigInteger.ONE))
+            return null;
+
+        FieldElement beta = getPrimitiveCubeRootOfUnity(curve.getFieldOfDefinition());
+        if (beta == null)
+            return null;
+
+        //lambda is a root of lambda^2 + lambda + 1, i.e. lambda = (-1 +- sqrt(-3))/2
+        Zp zn = new Zp(groupOrder);
+        Zp.ZpElement sqrtMinusThree;
+        try {
+            sqrtMinusThree = zn.valueOf(-3).sqrt();
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        Zp.ZpElement twoInv = zn.valueOf(2).inv();
+        List<BigInteger> eigenvalues = Arrays.asList(
+                sqrtMinusThree.sub(zn.getOneElement()).mul(twoInv).getInteger(),
+                sqrtMinusThree.neg().sub(zn.getOneElement()).mul(twoInv).getInteger()
+        );
+
+        FieldElement betaSquared = beta.square();
+        List<UnaryOperator<GroupElementImpl>> maps = Arrays.asList(
+                p -> mapCoordinates(p, beta),
+                p -> mapCoordinates(p, betaSquared)
+        );
+
+        return find(generator, groupOrder, 2, maps, eigenvalues);
+    }
+
+    private static GroupElementImpl mapCoordinates(GroupElementImpl element, FieldElement beta) {
+        AbstractEllipticCurvePoint point = (AbstractEllipticCurvePoint) ((AbstractEllipticCurvePoint) element).normalize();
+        if (point.isNeutralElement())
+            return point;
+        return point.getStructure().getElement(point.getX().mul(beta), point.getY());
+    }
+
+    /**
+     * Returns a primitive cube root of unity in the given finite field, or null if there is none.
+     */
+    public static FieldElement getPrimitiveCubeRootOfUnity(Field field) {
+        BigInteger unitGroupSize = field.sizeUnitGroup();
+        if (!unitGroupSize.mod(BigInteger.valueOf(3)).equals(BigInteger.ZERO))
+            return null;
+        BigInteger exponent = unitGroupSize.divide(BigInteger.valueOf(3));
+        for (long c = 2; ; c++) {
+            FieldElement candidate = field.getElement(c).pow(exponent);
+            if (!candidate.isOne())
+                return candidate;
+        }
+    }
+
+    /**
+     * Applies the endomorphism.
+     */
+    public GroupElementImpl apply(GroupElementImpl element) {
+        return map.apply(element);
+    }
+
+    public GlvDecomposition getDecomposition() {
+        return decomposition;
+    }
+
+    /**
+     * Computes \(\text{base}^\text{exponent}\) using the endomorphism.
+     *
+     * @param base the base
+     * @param exponent the exponent
+     * @param precomputation precomputed powers of the base, may be null
+     * @return the result
+     */
+    public GroupElementImpl exp(GroupElementImpl base, BigInteger exponent, SmallExponentPrecomputation precomputation) {
+        Multiexponentiation multiexp = new Multiexponentiation();
+        multiexp.put(base, exponent, precomputation);
+        return multiexp(multiexp);
+    }
+
+    /**
+     * Computes the given multi-exponentiation using the endomorphism, i.e. replaces every term \(P^k\) by
+     * \(\prod_i \psi^i(P)^{k_i}\) and evaluates the result with an interleaved wNAF multi-exponentiation.
+     *
+     * @param multiexp the multi-exponentiation to compute
+     * @return the result
+     */
+    public GroupElementImpl multiexp(Multiexponentiation multiexp) {
+        Multiexponentiation expanded = new Multiexponentiation();
+        multiexp.getConstantFactor().ifPresent(expanded::put);
+        List<Integer> windowSizes = new ArrayList<>();
+        GroupElementImpl neutral = null;
+        for (MultiExpTerm term : multiexp.getTerms()) {
+            neutral = term.getBase().getStructure().getNeutralElement();
+            BigInteger[] exponents = decomposition.decompose(term.getExponent());
+
+            //precompute powers of the base once (for all parts of the exponent), then map them through the endomorphism
+            SmallExponentPrecomputation precomputation = term.getPrecomputation();
+            int windowSize = ExponentiationAlgorithms.chooseWindowSize(MultiExpAlgorithm.WNAF,
+                    Arrays.stream(exponents).mapToInt(BigInteger::bitLength).max().orElse(0), exponents.length,
+                    precomputation.getCurrentlySupportedWindowSize(),
+                    term.getBase().getStructure().estimateCostInvPerOp(), DEFAULT_WINDOW_SIZE);
+            if (precomputation.getCurrentlySupportedNegativeWindowSize()
+                    > precomputation.getCurrentlySupportedPositiveWindowSize())
+                precomputation.computeNegativePowers(windowSize, false);
+            else
+                precomputation.compute(windowSize, false);
+
+            for (int i = 0; i < exponents.length; i++) {
+                if (i > 0)
+                    precomputation = precomputation.map(map);
+                if (exponents[i].signum() != 0) {
+                    expanded.put(precomputation.getBase(), exponents[i], precomputation);
+                    windowSizes.add(windowSize);
+                }
+            }
+        }
+
+        if (expanded.getNumberOfTerms() == 0)
+            return expanded.getConstantFactor().orElse(neutral);
+        return ExponentiationAlgorithms.interleavingWnafMultiExp(expanded,
+                windowSizes.stream().mapToInt(Integer::intValue).toArray());
+    }
+}
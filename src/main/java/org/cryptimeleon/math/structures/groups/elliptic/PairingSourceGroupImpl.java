@@ -1,17 +1,25 @@
 package org.cryptimeleon.math.structures.groups.elliptic;
 
+import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.serialization.BigIntegerRepresentation;
 import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.RepresentableRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
 import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implements a subgroup over the Weierstrass Curve.
@@ -24,9 +32,23 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
     protected BigInteger cofactor;
     protected PairingSourceGroupElement generator;
     protected Field field;
+    protected boolean compressedRepresentation = false;
 
     private FieldElement a1, a2, a3, a4, a6;
 
+    /**
+     * Statistical security parameter of batch validation in {@link #areMembers(List)}.
+     */
+    public static final int BATCH_VALIDATION_SECURITY = 128;
+    private static final int BATCH_VALIDATION_WINDOW_SIZE = 3;
+    protected static final int SUBGROUP_TEST_WINDOW_SIZE = 4;
+
+    /**
+     * Parameters for {@link #areMembers(List)}, computed on first use (null if batch validation is not possible).
+     */
+    private volatile BatchValidation batchValidation;
+    private volatile boolean batchValidationInitialized = false;
+
     public BigInteger getSize() {
         return size;
     }
@@ -89,6 +111,8 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
         this.a4 = this.field.restoreElement(or.get("a4"));
         this.a6 = this.field.restoreElement(or.get("a6"));
 
+        if (or.get("compressed") != null)
+            this.compressedRepresentation = !or.get("compressed").bigInt().get().equals(BigInteger.ZERO);
         this.setGenerator(this.restoreElement(or.get("generator")));
     }
 
@@ -101,6 +125,25 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
         this.generator = generator;
     }
 
+    /**
+     * Sets whether elements of this group are represented by their x-coordinate and the sign of their y-coordinate,
+     * roughly halving the size of element representations.
+     * <p>
+     * Decompression requires a square root computation when restoring elements.
+     *
+     * @see #usesCompressedRepresentation()
+     */
+    public void setCompressedRepresentation(boolean compressedRepresentation) {
+        if (compressedRepresentation && !isShortForm())
+            throw new UnsupportedOperationException("Compressed representation requires a curve in short form");
+        this.compressedRepresentation = compressedRepresentation;
+    }
+
+    @Override
+    public boolean usesCompressedRepresentation() {
+        return compressedRepresentation;
+    }
+
     /**
      * Returns cofactor of this subgroup.
      *
@@ -127,32 +170,11 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
         or.put("a3", a3.getRepresentation());
         or.put("a4", a4.getRepresentation());
         or.put("a6", a6.getRepresentation());
+        if (compressedRepresentation)
+            or.put("compressed", new BigIntegerRepresentation(1));
         return or;
     }
 
-    /**
-     * Tests if (x,y) is on curve that defines this group. Does not check subgroup membership.
-     *
-     * @param x - x-coordinate of point that shall be checked
-     * @param y - y-coordinate of point that shall be checked
-     * @return true if p fulfills equation of this group
-     */
-    public boolean isOnCurve(FieldElement x, FieldElement y) {
-        // FieldElement x,y;
-        //
-        // x = p.getX();
-        // y = p.getY();
-
-        /*
-         * check y^2+a_1 xy + a_3 y = x^3+a_2 x^2 + a_4 x + a_6
-         *
-         * rewritten as
-         *
-         * ((a_1 x + a_3)y + y)y = x ( x ( x+a_2 )+a_4)+a_6
-         */
-        return x.mul(getA1()).add(getA3()).mul(y).add(y).mul(y).equals(x.add(getA2()).mul(x).add(getA4()).mul(x).add(getA6()));
-    }
-
     /**
      * Tests if (x,y) is a member of this (sub)group.
      * <p>
@@ -176,7 +198,156 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
             return false;
 
         //Check subgroup membership
-        return this.getElement(x, y).pow(this.size()).isNeutralElement();
+        return isInSubgroup(this.getElement(x, y));
+    }
+
+    /**
+     * Tests if the given point lies on the curve and in this subgroup.
+     *
+     * @see #isMember(FieldElement, FieldElement)
+     */
+    @Override
+    public boolean isMember(GroupElementImpl element) {
+        PairingSourceGroupElement point = (PairingSourceGroupElement) element;
+        if (point.isNeutralElement())
+            return true;
+        return isOnCurve(point.getX(), point.getY()) && isInSubgroup(point);
+    }
+
+    /**
+     * Tests if all given points lie on the curve and in this subgroup.
+     * <p>
+     * If the cofactor is not 1, the subgroup membership of many points is tested at once by testing random linear
+     * combinations \(\prod_i P_i^{r_i}\) of them (in parallel), as long as this is estimated to be faster than
+     * testing every point.
+     * A non-member of the subgroup is only accepted with probability at most
+     * \(2^{-s}\) for \(s = \) {@link #BATCH_VALIDATION_SECURITY}.
+     * Since a non-member may differ from the subgroup only by a point of small order (dividing the cofactor),
+     * the number of combinations needed for this depends on the smallest prime factor of the cofactor.
+     */
+    @Override
+    public boolean areMembers(List<? extends GroupElementImpl> elements) {
+        List<PairingSourceGroupElement> points = new ArrayList<>(elements.size());
+        for (GroupElementImpl element : elements) {
+            if (!element.isNeutralElement())
+                points.add((PairingSourceGroupElement) element);
+        }
+        if (!points.parallelStream().allMatch(point -> isOnCurve(point.getX(), point.getY())))
+            return false;
+        if (cofactor.equals(BigInteger.ONE))
+            return true;
+
+        BatchValidation batchValidation = getBatchValidation();
+        if (batchValidation == null || !batchValidation.isFasterThanIndividualTests(points.size()))
+            return points.parallelStream().allMatch(this::isInSubgroup);
+
+        List<SmallExponentPrecomputation> precomputations = points.parallelStream().map(point -> {
+            SmallExponentPrecomputation precomputation = new SmallExponentPrecomputation(point);
+            precomputation.compute(BATCH_VALIDATION_WINDOW_SIZE, false);
+            return precomputation;
+        }).collect(Collectors.toList());
+        BigInteger coefficientBound = BigInteger.ONE.shiftLeft(batchValidation.coefficientBits);
+        return IntStream.range(0, batchValidation.rounds).parallel().allMatch(round -> {
+            Multiexponentiation multiexp = new Multiexponentiation();
+            for (int i = 0; i < points.size(); i++)
+                multiexp.put(points.get(i), RandomGenerator.getRandomNumber(coefficientBound), precomputations.get(i));
+            PairingSourceGroupElement combination = (PairingSourceGroupElement)
+                    ExponentiationAlgorithms.interleavingWnafMultiExp(multiexp, BATCH_VALIDATION_WINDOW_SIZE);
+            return combination.isNeutralElement() || isInSubgroup(combination);
+        });
+    }
+
+    /**
+     * Tests if the given point on the curve lies in this subgroup.
+     * <p>
+     * By default, tests if \(P^{\text{size}}\) is the neutral element (unless the cofactor is 1).
+     * Subclasses may override this with faster tests. Note that these must not rely on the point being
+     * a member of the subgroup (as GLV exponentiation does, for example).
+     *
+     * @param point a point on the curve
+     * @return true if the point is a member of this subgroup
+     */
+    protected boolean isInSubgroup(PairingSourceGroupElement point) {
+        if (cofactor.equals(BigInteger.ONE))
+            return true;
+        return ExponentiationAlgorithms.wnafExp(point, size, null, SUBGROUP_TEST_WINDOW_SIZE).isNeutralElement();
+    }
+
+    /**
+     * Estimates the number of group operations needed by {@link #isInSubgroup(PairingSourceGroupElement)}.
+     */
+    protected double estimateSubgroupTestCost() {
+        return size.bitLength() * (1 + 1.0 / (SUBGROUP_TEST_WINDOW_SIZE + 1));
+    }
+
+    private BatchValidation getBatchValidation() {
+        if (!batchValidationInitialized) {
+            batchValidation = BatchValidation.create(size, cofactor, estimateSubgroupTestCost());
+            batchValidationInitialized = true;
+        }
+        return batchValidation;
+    }
+
+    /**
+     * Parameters for testing subgroup membership of many points via random linear combinations.
+     */
+    private static class BatchValidation {
+        /**
+         * Bound for the trial division of the cofactor.
+         */
+        private static final int TRIAL_DIVISION_BOUND = 1 << 16;
+
+        final int rounds;
+        final int coefficientBits;
+        final double subgroupTestCost;
+
+        private BatchValidation(int rounds, int coefficientBits, double subgroupTestCost) {
+            this.rounds = rounds;
+            this.coefficientBits = coefficientBits;
+            this.subgroupTestCost = subgroupTestCost;
+        }
+
+        /**
+         * Computes the parameters, or returns null if batch validation is not possible.
+         */
+        static BatchValidation create(BigInteger size, BigInteger cofactor, double subgroupTestCost) {
+            if (!size.gcd(cofactor).equals(BigInteger.ONE))
+                return null;
+
+            // A random combination of points containing a non-member is a member with probability at most
+            // 1/l + 2^-coefficientBits, where l is the smallest prime factor of the cofactor.
+            BigInteger smallestFactor = getSmallestPrimeFactorBound(cofactor);
+            int coefficientBits = Math.min(smallestFactor.bitLength() + 8, BATCH_VALIDATION_SECURITY);
+            double errorPerRound = 1 / smallestFactor.doubleValue() + Math.pow(2, -coefficientBits);
+            int rounds = (int) Math.ceil(BATCH_VALIDATION_SECURITY / -(Math.log(errorPerRound) / Math.log(2)));
+            return new BatchValidation(rounds, coefficientBits, subgroupTestCost);
+        }
+
+        /**
+         * Returns a lower bound for the smallest prime factor of {@code n > 1}.
+         */
+        private static BigInteger getSmallestPrimeFactorBound(BigInteger n) {
+            for (int divisor = 2; divisor < TRIAL_DIVISION_BOUND; divisor++) {
+                BigInteger bigDivisor = BigInteger.valueOf(divisor);
+                if (bigDivisor.multiply(bigDivisor).compareTo(n) > 0)
+                    return n;
+                if (n.mod(bigDivisor).signum() == 0)
+                    return bigDivisor;
+            }
+            return n.isProbablePrime(100) ? n : BigInteger.valueOf(TRIAL_DIVISION_BOUND);
+        }
+
+        /**
+         * Estimates whether batch validation of the given number of points is faster than testing them individually
+         * (by comparing the estimated number of group operations).
+         */
+        boolean isFasterThanIndividualTests(int numberOfPoints) {
+            double precomputationCost = 1 << (BATCH_VALIDATION_WINDOW_SIZE - 2);
+            double costPerPoint = precomputationCost
+                    + rounds * coefficientBits / (double) (BATCH_VALIDATION_WINDOW_SIZE + 1);
+            double fixedCost = rounds * (coefficientBits + subgroupTestCost);
+            return numberOfPoints * costPerPoint + fixedCost < numberOfPoints * subgroupTestCost;
+        }
     }
 
     public Field getFieldOfDefinition() {
@@ -190,6 +361,7 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
         PairingSourceGroupImpl that = (PairingSourceGroupImpl) o;
         return size.equals(that.size) &&
                 cofactor.equals(that.cofactor) &&
+                compressedRepresentation == that.compressedRepresentation &&
                 generator.equals(that.generator) &&
                 field.equals(that.field) &&
                 Objects.equals(a1, that.a1) &&
@@ -212,6 +384,9 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
 
     @Override
     public PairingSourceGroupElement restoreElement(Representation repr) {
+        if (AbstractEllipticCurvePoint.isCompressedRepresentation(repr)) {
+            return (PairingSourceGroupElement) AbstractEllipticCurvePoint.restoreCompressed(this, repr);
+        }
         ObjectRepresentation or = (ObjectRepresentation) repr;
         FieldElement x = getFieldOfDefinition().restoreElement(or.get("x"));
         FieldElement y = getFieldOfDefinition().restoreElement(or.get("y"));
@@ -224,6 +399,8 @@ public abstract class PairingSourceGroupImpl implements WeierstrassCurve {
 
     @Override
     public Optional<Integer> getUniqueByteLength() {
+        if (compressedRepresentation) //x coordinate and one byte for the sign of y
+            return getFieldOfDefinition().getUniqueByteLength().map(k -> k + 1);
         //reserve space for x,y,z coordinate
         return getFieldOfDefinition().getUniqueByteLength().map(k -> k * 3);
     }
@@ -2,6 +2,8 @@ package org.cryptimeleon.math.structures.groups.elliptic;
 
 import org.cryptimeleon.math.hash.ByteAccumulator;
 import org.cryptimeleon.math.hash.UniqueByteRepresentable;
+import org.cryptimeleon.math.serialization.ListRepresentation;
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 import org.cryptimeleon.math.structures.rings.FieldElement;
@@ -25,6 +27,14 @@ public abstract class PairingTargetGroupElementImpl implements GroupElementImpl,
 
     @Override
     public Representation getRepresentation() {
+        if (group.usesCompressedRepresentation()) {
+            ListRepresentation compressed = new ListRepresentation();
+            for (FieldElement coefficient : group.compress(this))
+                compressed.put(coefficient.getRepresentation());
+            ObjectRepresentation repr = new ObjectRepresentation();
+            repr.put("c", compressed);
+            return repr;
+        }
         return elem.getRepresentation();
     }
 
@@ -110,6 +120,16 @@ public abstract class PairingTargetGroupElementImpl implements GroupElementImpl,
 
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
+        if (group.usesCompressedRepresentation()) {
+            boolean fixedLength = group.getFieldOfDefinition().getBaseField().getUniqueByteLength().isPresent();
+            for (FieldElement coefficient : group.compress(this)) {
+                if (fixedLength)
+                    accumulator.append(coefficient);
+                else
+                    accumulator.escapeAndSeparate(coefficient);
+            }
+            return accumulator;
+        }
         accumulator = elem.updateAccumulator(accumulator);
         return accumulator;
     }
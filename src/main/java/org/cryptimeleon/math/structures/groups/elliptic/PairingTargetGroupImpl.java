@@ -1,9 +1,11 @@
 package org.cryptimeleon.math.structures.groups.elliptic;
 
 import org.cryptimeleon.math.serialization.BigIntegerRepresentation;
+import org.cryptimeleon.math.serialization.ListRepresentation;
 import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.Representable;
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 import org.cryptimeleon.math.structures.groups.GroupImpl;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
@@ -11,6 +13,7 @@ import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -25,6 +28,7 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
     protected ExtensionField fieldOfDefinition;
     protected BigInteger size;
     private PairingTargetGroupElementImpl generator = null; //not part of this object's state. Only used for optimization.
+    protected boolean compressedRepresentation = false;
 
     public ExtensionField getFieldOfDefinition() {
         return fieldOfDefinition;
@@ -62,6 +66,8 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
         ObjectRepresentation r = new ObjectRepresentation();
         r.put("field", this.getFieldOfDefinition().getRepresentation());
         r.put("size", new BigIntegerRepresentation(this.size()));
+        if (compressedRepresentation)
+            r.put("compressed", new BigIntegerRepresentation(1));
         return r;
 
     }
@@ -73,6 +79,102 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
 
     public PairingTargetGroupImpl(Representation r) {
         this(new ExtensionField(r.obj().get("field")), r.obj().get("size").bigInt().get());
+        if (r.obj().get("compressed") != null)
+            setCompressedRepresentation(!r.obj().get("compressed").bigInt().get().equals(BigInteger.ZERO));
+    }
+
+    /**
+     * Sets whether elements are represented in compressed (torus) form, which halves the size of their
+     * (unique byte) representations at the cost of a field inversion when representing or restoring an element.
+     * <p>
+     * Restoring elements works for both forms regardless of this setting.
+     *
+     * @see #compress(PairingTargetGroupElementImpl)
+     */
+    public void setCompressedRepresentation(boolean compressedRepresentation) {
+        if (compressedRepresentation && fieldOfDefinition.getExtensionDegree() % 2 != 0)
+            throw new UnsupportedOperationException("Compression requires an extension field of even degree");
+        //group elements must have norm 1 over the subfield of even powers of x, i.e. size | q^(k/2) + 1
+        if (compressedRepresentation && !fieldOfDefinition.getBaseField().size()
+                .pow(fieldOfDefinition.getExtensionDegree() / 2).add(BigInteger.ONE).mod(size).equals(BigInteger.ZERO))
+            throw new UnsupportedOperationException("Compression requires the group order to divide q^(k/2) + 1");
+        this.compressedRepresentation = compressedRepresentation;
+    }
+
+    /**
+     * Returns true if elements are represented in compressed form.
+     *
+     * @see #setCompressedRepresentation(boolean)
+     */
+    public boolean usesCompressedRepresentation() {
+        return compressedRepresentation;
+    }
+
+    /**
+     * Returns \(w = x\), where the field of definition is \(\mathbb{F}_q[x]/(x^k + v)\) with \(k\) even.
+     * <p>
+     * The field of definition is a quadratic extension of the subfield \(K\) spanned by even powers of \(x\),
+     * generated by \(w\) with \(w^2 = x^2 \in K\). Note that \(x^{k/2}\) would not work in general,
+     * as it is contained in \(K\) if \(k \equiv 0 \pmod 4\).
+     */
+    private ExtensionFieldElement getQuadraticGenerator() {
+        return fieldOfDefinition.createElement(fieldOfDefinition.getBaseField().getZeroElement(),
+                fieldOfDefinition.getBaseField().getOneElement());
+    }
+
+    /**
+     * Compresses an element using the algebraic torus \(T_2\).
+     * <p>
+     * Write the field of definition as \(K(w)\) with \(K\) the subfield of even powers of \(x\) and \(w = x\).
+     * Group elements \(a = b_0 + b_1 w\) have norm \(a \bar{a} = 1\) (the conjugate is the inverse, as the group
+     * order divides \(|K| + 1\), see {@link #setCompressedRepresentation(boolean)}),
+     * so \(a \neq 1\) is uniquely determined by \(c = (1 + b_0)/b_1 \in K\) via \(a = (c + w)/(c - w)\).
+     * The neutral element is mapped to \(c = 0\) (which would otherwise correspond to \(-1\),
+     * which is not contained in a group of odd order).
+     *
+     * @return the coefficients of \(c\) at the even powers of \(x\)
+     */
+    public FieldElement[] compress(PairingTargetGroupElementImpl element) {
+        int halfDegree = fieldOfDefinition.getExtensionDegree() / 2;
+        FieldElement[] result = new FieldElement[halfDegree];
+        ExtensionFieldElement a = element.getElem();
+        ExtensionFieldElement conjugate = element.inv().getElem();
+        FieldElement denominator = a.sub(conjugate);
+        if (denominator.isZero()) { //neutral element
+            for (int i = 0; i < halfDegree; i++)
+                result[i] = fieldOfDefinition.getBaseField().getZeroElement();
+            return result;
+        }
+
+        //c = (1 + b0)/b1 = w (2 + a + conj(a)) / (a - conj(a))
+        FieldElement c = getQuadraticGenerator().mul(a.add(conjugate).add(fieldOfDefinition.getElement(2)))
+                .div(denominator);
+        FieldElement[] coefficients = ((ExtensionFieldElement) c).getCoefficients();
+        for (int i = 0; i < halfDegree; i++)
+            result[i] = 2 * i < coefficients.length ? coefficients[2 * i] : fieldOfDefinition.getBaseField().getZeroElement();
+        return result;
+    }
+
+    /**
+     * Reverses {@link #compress(PairingTargetGroupElementImpl)}.
+     * <p>
+     * Does not check that the result has order {@code size()}.
+     *
+     * @param compressed the coefficients of \(c\) at the even powers of \(x\)
+     * @return the element \((c + w)/(c - w)\)
+     */
+    public PairingTargetGroupElementImpl decompress(FieldElement[] compressed) {
+        if (compressed.length != fieldOfDefinition.getExtensionDegree() / 2)
+            throw new IllegalArgumentException("Expected " + fieldOfDefinition.getExtensionDegree() / 2 + " coefficients");
+        FieldElement[] coefficients = new FieldElement[fieldOfDefinition.getExtensionDegree()];
+        for (int i = 0; i < coefficients.length; i++)
+            coefficients[i] = i % 2 == 0 ? compressed[i / 2] : fieldOfDefinition.getBaseField().getZeroElement();
+        ExtensionFieldElement c = fieldOfDefinition.createElement(coefficients);
+        if (c.isZero())
+            return getNeutralElement();
+
+        ExtensionFieldElement w = getQuadraticGenerator();
+        return getElement((ExtensionFieldElement) c.add(w).div(c.sub(w)));
     }
 
     @Override
@@ -107,6 +209,13 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
 
     @Override
     public PairingTargetGroupElementImpl restoreElement(Representation repr) {
+        if (repr instanceof ObjectRepresentation) { //compressed
+            ListRepresentation list = (ListRepresentation) repr.obj().get("c");
+            FieldElement[] compressed = new FieldElement[list.size()];
+            for (int i = 0; i < compressed.length; i++)
+                compressed[i] = fieldOfDefinition.getBaseField().restoreElement(list.get(i));
+            return decompress(compressed);
+        }
         return getElement((ExtensionFieldElement) fieldOfDefinition.restoreElement(repr));
     }
 
@@ -122,7 +231,8 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
         if (o == null || getClass() != o.getClass()) return false;
         PairingTargetGroupImpl that = (PairingTargetGroupImpl) o;
         return fieldOfDefinition.equals(that.fieldOfDefinition) &&
-                size.equals(that.size);
+                size.equals(that.size) &&
+                compressedRepresentation == that.compressedRepresentation;
     }
 
     @Override
@@ -137,9 +247,49 @@ public abstract class PairingTargetGroupImpl implements GroupImpl, Representable
 
     @Override
     public Optional<Integer> getUniqueByteLength() {
+        if (compressedRepresentation)
+            return fieldOfDefinition.getBaseField().getUniqueByteLength()
+                    .map(k -> k * (fieldOfDefinition.getExtensionDegree() / 2));
         return this.fieldOfDefinition.getUniqueByteLength();
     }
 
+    /**
+     * Elements are encoded by the fixed-length encoding of their field element or, if
+     * {@link #usesCompressedRepresentation()}, by the fixed-length encodings of the coefficients of their
+     * compressed form (see {@link #compress(PairingTargetGroupElementImpl)}).
+     */
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        if (compressedRepresentation)
+            return fieldOfDefinition.getBaseField().getFixedEncodingLength()
+                    .map(length -> length * (fieldOfDefinition.getExtensionDegree() / 2));
+        return fieldOfDefinition.getFixedEncodingLength();
+    }
+
+    @Override
+    public void encodeFixedLength(GroupElementImpl element, ByteBuffer out) {
+        if (compressedRepresentation) {
+            for (FieldElement coefficient : compress((PairingTargetGroupElementImpl) element))
+                fieldOfDefinition.getBaseField().encodeFixedLength(coefficient, out);
+        } else {
+            fieldOfDefinition.encodeFixedLength(((PairingTargetGroupElementImpl) element).getElem(), out);
+        }
+    }
+
+    @Override
+    public PairingTargetGroupElementImpl decodeFixedLength(ByteBuffer in) {
+        if (compressedRepresentation) {
+            FieldElement[] compressed = new FieldElement[fieldOfDefinition.getExtensionDegree() / 2];
+            for (int i = 0; i < compressed.length; i++)
+                compressed[i] = (FieldElement) fieldOfDefinition.getBaseField().decodeFixedLength(in);
+            return decompress(compressed);
+        }
+        ExtensionFieldElement elem = fieldOfDefinition.decodeFixedLength(in);
+        if (elem.isZero())
+            throw new IllegalArgumentException("Zero is not a group element");
+        return getElement(elem);
+    }
+
     @Override
     public boolean isCommutative() {
         return true;
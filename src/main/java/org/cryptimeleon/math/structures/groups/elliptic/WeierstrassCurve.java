@@ -1,6 +1,16 @@
 package org.cryptimeleon.math.structures.groups.elliptic;
 
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * An elliptic curve defined by the weierstrass equation
@@ -56,7 +66,199 @@ public interface WeierstrassCurve extends EllipticCurve {
      */
     EllipticCurvePoint getElement(FieldElement x, FieldElement y);
 
+    /**
+     * Tests if (x,y) is on this curve. Does not check subgroup membership.
+     *
+     * @param x - x-coordinate of point that shall be checked
+     * @param y - y-coordinate of point that shall be checked
+     * @return true if (x,y) fulfills the equation of this curve
+     */
+    default boolean isOnCurve(FieldElement x, FieldElement y) {
+        /*
+         * check y^2+a_1 xy + a_3 y = x^3+a_2 x^2 + a_4 x + a_6
+         *
+         * rewritten as
+         *
+         * ((a_1 x + a_3)y + y)y = x ( x ( x+a_2 )+a_4)+a_6
+         */
+        return x.mul(getA1()).add(getA3()).mul(y).add(y).mul(y).equals(x.add(getA2()).mul(x).add(getA4()).mul(x).add(getA6()));
+    }
+
     default boolean isShortForm() {
         return getA3().isZero() && getA2().isZero() && getA1().isZero();
     }
+
+    /**
+     * Returns true for curves in short form, whose affine points are added in batches using a single field inversion
+     * (see {@link #batchOp(List, List)}).
+     */
+    @Override
+    default boolean implementsOwnBatchOp() {
+        return isShortForm();
+    }
+
+    /**
+     * Adds the given points pairwise.
+     * <p>
+     * For affine points on curves in short form, the slopes of all additions of distinct points are computed with a
+     * single field inversion (Montgomery's simultaneous inversion trick), i.e. all additions together cost about as
+     * much as a single addition plus three field multiplications per point.
+     * Other cases (e.g. doublings or additions involving the neutral element) are computed individually.
+     */
+    @Override
+    default List<GroupElementImpl> batchOp(List<? extends GroupElementImpl> lhs,
+                                           List<? extends GroupElementImpl> rhs) {
+        if (lhs.size() != rhs.size())
+            throw new IllegalArgumentException("Need the same number of left-hand and right-hand sides");
+        int n = lhs.size();
+        GroupElementImpl[] result = new GroupElementImpl[n];
+        FieldElement[] denominators = new FieldElement[n]; //x_Q - x_P for batched additions, else null
+        FieldElement[] prefixProducts = new FieldElement[n];
+        FieldElement product = getFieldOfDefinition().getOneElement();
+        for (int i = 0; i < n; i++) {
+            GroupElementImpl p = lhs.get(i);
+            GroupElementImpl q = rhs.get(i);
+            if (isShortForm() && p instanceof AffineEllipticCurvePoint && q instanceof AffineEllipticCurvePoint
+                    && !p.isNeutralElement() && !q.isNeutralElement()
+                    && !((AffineEllipticCurvePoint) p).getX().equals(((AffineEllipticCurvePoint) q).getX())) {
+                denominators[i] = ((AffineEllipticCurvePoint) q).getX().sub(((AffineEllipticCurvePoint) p).getX());
+                prefixProducts[i] = product;
+                product = product.mul(denominators[i]);
+            } else {
+                result[i] = p.op(q);
+            }
+        }
+
+        if (Arrays.stream(denominators).allMatch(Objects::isNull))
+            return Arrays.asList(result); //no additions to batch
+        FieldElement inverse = product.inv(); //inverse of the product of all denominators not processed yet
+        FieldElement one = getFieldOfDefinition().getOneElement();
+        for (int i = n - 1; i >= 0; i--) {
+            if (denominators[i] == null)
+                continue;
+            AffineEllipticCurvePoint p = (AffineEllipticCurvePoint) lhs.get(i);
+            AffineEllipticCurvePoint q = (AffineEllipticCurvePoint) rhs.get(i);
+            FieldElement lambda = q.getY().sub(p.getY()).mul(inverse.mul(prefixProducts[i]));
+            inverse = inverse.mul(denominators[i]);
+            result[i] = p.add(q, new FieldElement[] {one, lambda});
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Returns true if points on this curve are represented in compressed form, i.e. by their x-coordinate
+     * and the sign of their y-coordinate (see {@link #sign(FieldElement)}).
+     * <p>
+     * This affects the representation and the unique byte representation of points.
+     * Restoring points works for both compressed and uncompressed representations regardless of this setting.
+     */
+    default boolean usesCompressedRepresentation() {
+        return false;
+    }
+
+    /**
+     * Decompresses a point, i.e. computes the point \((x,y)\) on this curve whose y-coordinate has the given sign.
+     * <p>
+     * Requires the curve to be in short form. Uses the square root algorithm of the field of definition.
+     * Does not check subgroup membership.
+     *
+     * @param x the x-coordinate
+     * @param ySign the sign of the y-coordinate, as computed by {@link #sign(FieldElement)}
+     * @return the point \((x,y)\)
+     * @throws IllegalArgumentException if there is no point with the given x-coordinate on the curve
+     */
+    default EllipticCurvePoint decompress(FieldElement x, boolean ySign) {
+        if (!isShortForm())
+            throw new UnsupportedOperationException("Point decompression is only implemented for curves in short form");
+
+        //y^2 = x^3 + a4 x + a6
+        FieldElement ySquared = x.square().add(getA4()).mul(x).add(getA6());
+        FieldElement y;
+        try {
+            y = ySquared.sqrt();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("There is no point with x-coordinate " + x + " on " + this);
+        }
+        if (sign(y) != ySign)
+            y = y.neg();
+        return getElement(x, y);
+    }
+
+    /**
+     * Points are encoded by their normalized coordinates, each in the fixed-length encoding of the field of
+     * definition: \(x \| y\), or \(x \| \text{flag}\) if {@link #usesCompressedRepresentation()}
+     * (with the flag as in the unique byte representation, i.e. 0 for the neutral element, 2 or 3 for the sign
+     * of \(y\)).
+     * <p>
+     * In uncompressed form, the neutral element is encoded as \(x = y = 0\). Hence there is no fixed-length
+     * encoding if \((0,0)\) is on the curve, i.e. if \(A6 = 0\).
+     */
+    @Override
+    default Optional<Integer> getFixedEncodingLength() {
+        if (usesCompressedRepresentation())
+            return getFieldOfDefinition().getFixedEncodingLength().map(length -> length + 1);
+        if (getA6().isZero())
+            return Optional.empty();
+        return getFieldOfDefinition().getFixedEncodingLength().map(length -> 2 * length);
+    }
+
+    @Override
+    default void encodeFixedLength(GroupElementImpl element, ByteBuffer out) {
+        if (!getFixedEncodingLength().isPresent())
+            throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+        AbstractEllipticCurvePoint point = (AbstractEllipticCurvePoint) ((EllipticCurvePoint) element).normalize();
+        Field field = getFieldOfDefinition();
+        if (usesCompressedRepresentation()) {
+            field.encodeFixedLength(point.isNeutralElement() ? field.getZeroElement() : point.getX(), out);
+            out.put((byte) (point.isNeutralElement() ? 0 : sign(point.getY()) ? 3 : 2));
+        } else {
+            field.encodeFixedLength(point.isNeutralElement() ? field.getZeroElement() : point.getX(), out);
+            field.encodeFixedLength(point.isNeutralElement() ? field.getZeroElement() : point.getY(), out);
+        }
+    }
+
+    @Override
+    default EllipticCurvePoint decodeFixedLength(ByteBuffer in) {
+        if (!getFixedEncodingLength().isPresent())
+            throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+        Field field = getFieldOfDefinition();
+        FieldElement x = (FieldElement) field.decodeFixedLength(in);
+        if (usesCompressedRepresentation()) {
+            byte flag = in.get();
+            if (flag == 0)
+                return (EllipticCurvePoint) getNeutralElement();
+            if (flag != 2 && flag != 3)
+                throw new IllegalArgumentException("Illegal point compression flag " + flag);
+            return decompress(x, flag == 3);
+        }
+        FieldElement y = (FieldElement) field.decodeFixedLength(in);
+        if (x.isZero() && y.isZero())
+            return (EllipticCurvePoint) getNeutralElement();
+        if (!isOnCurve(x, y))
+            throw new IllegalArgumentException("(" + x + "," + y + ") is not on " + this);
+        return getElement(x, y);
+    }
+
+    /**
+     * Returns the sign of a field element, which is used to distinguish \(y\) and \(-y\) in compressed points.
+     * <p>
+     * For \(\mathbb{Z}_p\) elements, this is the parity of the integer representative.
+     * For extension field elements, this is the sign of the first nonzero coefficient (like {@code sgn0} in
+     * RFC 9380). Hence for nonzero \(y\) in a field of odd characteristic, \(y\) and \(-y\) have
+     * different signs.
+     *
+     * @param e the element to compute the sign for
+     * @return true iff the sign is odd
+     */
+    static boolean sign(FieldElement e) {
+        if (e instanceof Zp.ZpElement)
+            return ((Zp.ZpElement) e).getInteger().testBit(0);
+        if (e instanceof ExtensionFieldElement) {
+            for (FieldElement coefficient : ((ExtensionFieldElement) e).getCoefficients())
+                if (!coefficient.isZero())
+                    return sign(coefficient);
+            return false;
+        }
+        throw new UnsupportedOperationException("Sign not defined for elements of " + e.getStructure());
+    }
 }
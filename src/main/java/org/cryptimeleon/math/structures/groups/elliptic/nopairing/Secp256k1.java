@@ -1,13 +1,18 @@
 package org.cryptimeleon.math.structures.groups.elliptic.nopairing;
 
 import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.RepresentableRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.StringRepresentation;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.AbstractEllipticCurvePoint;
 import org.cryptimeleon.math.structures.groups.elliptic.AffineEllipticCurvePoint;
 import org.cryptimeleon.math.structures.groups.elliptic.EllipticCurvePoint;
+import org.cryptimeleon.math.structures.groups.elliptic.GlvEndomorphism;
 import org.cryptimeleon.math.structures.groups.elliptic.WeierstrassCurve;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
 import org.cryptimeleon.math.structures.groups.mappings.impl.HashIntoGroupImpl;
 import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
@@ -59,20 +64,47 @@ public class Secp256k1 implements WeierstrassCurve {
     public static final Zp.ZpElement generatorY =
             zp.valueOf(new BigInteger("483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8", 16));
 
+    /**
+     * The endomorphism \((x,y) \mapsto (\beta x, y)\) used for GLV exponentiation, set up on first use.
+     */
+    private volatile GlvEndomorphism endomorphism;
+    private volatile boolean endomorphismInitialized = false;
+
+    private static final String COMPRESSED_NAME = "secp256k1-compressed";
+
+    /**
+     * Whether points are represented by their x-coordinate and the sign of their y-coordinate.
+     */
+    private final boolean compressedRepresentation;
+
+    /**
+     * Initialize the curve.
+     */
+    public Secp256k1() {
+        this(false);
+    }
+
     /**
      * Initialize the curve.
+     *
+     * @param compressedRepresentation whether points are represented (and uniquely byte-represented) by their
+     *                                 x-coordinate and the sign of their y-coordinate, see
+     *                                 {@link WeierstrassCurve#usesCompressedRepresentation()}
      */
-    public Secp256k1() {}
+    public Secp256k1(boolean compressedRepresentation) {
+        this.compressedRepresentation = compressedRepresentation;
+    }
 
     /**
-     * Initialize the curve from a representation (not used since all parameters are fixed).
+     * Initialize the curve from a representation.
      * <p>
-     * The representation is not used, as all parameters are fixed.
-     * Hence, it can be any value.
+     * As all curve parameters are fixed, the representation only determines whether points are compressed.
      *
-     * @param repr the representation to use for restoration. Not used
+     * @param repr the representation to use for restoration
      */
-    public Secp256k1(Representation repr) {this();}
+    public Secp256k1(Representation repr) {
+        this(repr instanceof StringRepresentation && COMPRESSED_NAME.equals(repr.str().get()));
+    }
 
     @Override
     public FieldElement getA6() {
@@ -121,6 +153,8 @@ public class Secp256k1 implements WeierstrassCurve {
 
     @Override
     public GroupElementImpl restoreElement(Representation repr) {
+        if (AbstractEllipticCurvePoint.isCompressedRepresentation(repr))
+            return (GroupElementImpl) AbstractEllipticCurvePoint.restoreCompressed(this, repr);
         return new AffineEllipticCurvePoint(this, repr);
     }
 
@@ -139,29 +173,80 @@ public class Secp256k1 implements WeierstrassCurve {
         return true;
     }
 
+    /**
+     * Tests if the given point is an affine point on the curve (as the curve has prime order, this suffices).
+     */
+    @Override
+    public boolean isMember(GroupElementImpl element) {
+        AbstractEllipticCurvePoint point = (AbstractEllipticCurvePoint) element;
+        return point.isNeutralElement() || point.getZ().isOne() && isOnCurve(point.getX(), point.getY());
+    }
+
     @Override
     public double estimateCostInvPerOp() {
         return 346;
     }
 
+    /**
+     * Returns the endomorphism used for GLV exponentiation, or null if exponentiations should use the generic
+     * algorithms.
+     */
+    private GlvEndomorphism getEndomorphism() {
+        if (!endomorphismInitialized) {
+            synchronized (this) {
+                if (!endomorphismInitialized) {
+                    endomorphism = GlvEndomorphism.forCubeRootOfUnity(this, getGenerator(), n);
+                    endomorphismInitialized = true;
+                }
+            }
+        }
+        return endomorphism;
+    }
+
+    @Override
+    public boolean implementsOwnExp() {
+        return getEndomorphism() != null;
+    }
+
+    @Override
+    public GroupElementImpl exp(GroupElementImpl base, BigInteger exponent, SmallExponentPrecomputation precomputation) {
+        return getEndomorphism().exp(base, exponent, precomputation);
+    }
+
+    @Override
+    public boolean implementsOwnMultiExp() {
+        return getEndomorphism() != null;
+    }
+
+    @Override
+    public GroupElementImpl multiexp(Multiexponentiation mexp) {
+        return getEndomorphism().multiexp(mexp);
+    }
+
     @Override
     public Optional<Integer> getUniqueByteLength() {
-        return Optional.empty();
+        //x coordinate and one byte for the sign of y
+        return compressedRepresentation ? zp.getUniqueByteLength().map(k -> k + 1) : Optional.empty();
+    }
+
+    @Override
+    public boolean usesCompressedRepresentation() {
+        return compressedRepresentation;
     }
 
     @Override
     public Representation getRepresentation() {
-        return new StringRepresentation("secp256k1");
+        return new StringRepresentation(compressedRepresentation ? COMPRESSED_NAME : "secp256k1");
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Secp256k1;
+        return obj instanceof Secp256k1 && compressedRepresentation == ((Secp256k1) obj).compressedRepresentation;
     }
 
     @Override
     public int hashCode() {
-        return 0;
+        return compressedRepresentation ? 1 : 0;
     }
 
     /**
@@ -169,13 +254,24 @@ public class Secp256k1 implements WeierstrassCurve {
      */
     public static class HashIntoSecp256k1 implements HashIntoGroupImpl {
         private final HashIntoZp hash;
+        private final Secp256k1 codomain;
 
         /**
          * Instantiate this hash function into Secp256k1
          * @param hash a hash function mapping into the base field Zp that outputs random-looking images (like SHA256 or SHA3)
          */
         public HashIntoSecp256k1(HashIntoZp hash) {
+            this(hash, new Secp256k1());
+        }
+
+        /**
+         * Instantiate this hash function into the given Secp256k1 instance (which determines point compression).
+         * @param hash a hash function mapping into the base field Zp that outputs random-looking images (like SHA256 or SHA3)
+         * @param codomain the curve to map into
+         */
+        public HashIntoSecp256k1(HashIntoZp hash, Secp256k1 codomain) {
             this.hash = hash;
+            this.codomain = codomain;
             if (!hash.getTargetStructure().equals(zp))
                 throw new IllegalStateException("Hash must be into Z"+p);
         }
@@ -188,12 +284,23 @@ public class Secp256k1 implements WeierstrassCurve {
         }
 
         public HashIntoSecp256k1(Representation repr) {
-            hash = (HashIntoZp) repr.repr().recreateRepresentable();
+            if (repr instanceof ObjectRepresentation) {
+                hash = (HashIntoZp) repr.obj().get("hash").repr().recreateRepresentable();
+                codomain = new Secp256k1(repr.obj().get("codomain"));
+            } else {
+                hash = (HashIntoZp) repr.repr().recreateRepresentable();
+                codomain = new Secp256k1();
+            }
         }
 
         @Override
         public Representation getRepresentation() {
-            return new RepresentableRepresentation(hash);
+            if (!codomain.usesCompressedRepresentation())
+                return new RepresentableRepresentation(hash);
+            ObjectRepresentation repr = new ObjectRepresentation();
+            repr.put("hash", new RepresentableRepresentation(hash));
+            repr.put("codomain", codomain.getRepresentation());
+            return repr;
         }
 
         @Override
@@ -204,7 +311,7 @@ public class Secp256k1 implements WeierstrassCurve {
                 Zp.ZpElement ySquared = xCoordinate.pow(3).add(b);
 
                 if (ySquared.isSquare()) //check if y is quadratic residue.
-                    return new Secp256k1().getElement(xCoordinate, ySquared.sqrt()); //note that all elliptic curve points lie in the group (i.e. cofactor 1)
+                    return codomain.getElement(xCoordinate, ySquared.sqrt()); //note that all elliptic curve points lie in the group (i.e. cofactor 1)
 
                 //If we were unlucky: try next x
                 xCoordinate = xCoordinate.add(zp.getOneElement());
@@ -216,7 +323,7 @@ public class Secp256k1 implements WeierstrassCurve {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             HashIntoSecp256k1 that = (HashIntoSecp256k1) o;
-            return hash.equals(that.hash);
+            return hash.equals(that.hash) && codomain.equals(that.codomain);
         }
 
         @Override
@@ -25,4 +25,30 @@ public class BarretoNaehrigBasicBilinearGroup extends BasicBilinearGroup {
     public BarretoNaehrigBasicBilinearGroup(Representation repr) {
         super(repr);
     }
+
+    /**
+     * Sets whether elements of \(\mathbb{G}_1\) and \(\mathbb{G}_2\) are represented (and uniquely byte-represented)
+     * by their x-coordinate and the sign of their y-coordinate.
+     * <p>
+     * This roughly halves the size of representations at the cost of a square root computation when restoring
+     * an element. Representations of both forms can be restored regardless of this setting.
+     *
+     * @param compressedRepresentation whether to use compressed representations
+     */
+    public void setCompressedRepresentation(boolean compressedRepresentation) {
+        ((BarretoNaehrigBilinearGroupImpl) impl).setCompressedRepresentation(compressedRepresentation);
+    }
+
+    /**
+     * Sets whether elements of \(\mathbb{G}_T\) are represented (and uniquely byte-represented) in compressed form,
+     * using 6 instead of 12 coordinates over \(\mathbb{F}_p\).
+     * <p>
+     * Compression and decompression each cost roughly one inversion in \(\mathbb{F}_{p^{12}}\).
+     * Representations of both forms can be restored regardless of this setting.
+     *
+     * @param compressedRepresentation whether to use compressed representations
+     */
+    public void setCompressedTargetGroupRepresentation(boolean compressedRepresentation) {
+        ((BarretoNaehrigBilinearGroupImpl) impl).setCompressedTargetGroupRepresentation(compressedRepresentation);
+    }
 }
@@ -161,6 +161,28 @@ class BarretoNaehrigBilinearGroupImpl implements BilinearGroupImpl {
         return ReprUtil.serialize(this);
     }
 
+    /**
+     * Sets whether elements of \(\mathbb{G}_1\) and \(\mathbb{G}_2\) are represented in compressed form.
+     *
+     * @see org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupImpl#setCompressedRepresentation(boolean)
+     */
+    public void setCompressedRepresentation(boolean compressedRepresentation) {
+        g1impl.setCompressedRepresentation(compressedRepresentation);
+        g2impl.setCompressedRepresentation(compressedRepresentation);
+        //after deserialization, the hash functions have their own copies of the groups
+        hashIntoG1impl.getCodomain().setCompressedRepresentation(compressedRepresentation);
+        hashIntoG2impl.getCodomain().setCompressedRepresentation(compressedRepresentation);
+    }
+
+    /**
+     * Sets whether elements of \(\mathbb{G}_T\) are represented in compressed (torus) form.
+     *
+     * @see org.cryptimeleon.math.structures.groups.elliptic.PairingTargetGroupImpl#setCompressedRepresentation(boolean)
+     */
+    public void setCompressedTargetGroupRepresentation(boolean compressedRepresentation) {
+        gtimpl.setCompressedRepresentation(compressedRepresentation);
+    }
+
     @Override
     public GroupImpl getG1() {
         return g1impl;
@@ -1,6 +1,7 @@
 package org.cryptimeleon.math.structures.groups.elliptic.type3.bn;
 
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.elliptic.GlvEndomorphism;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
 
@@ -45,6 +46,14 @@ class BarretoNaehrigGroup1Impl extends BarretoNaehrigSourceGroupImpl {
         return new BarretoNaehrigGroup1ElementImpl(this, x, y);
     }
   
+    /**
+     * Uses the endomorphism \((x,y) \mapsto (\beta x, y)\) for a primitive cube root of unity \(\beta\).
+     */
+    @Override
+    protected GlvEndomorphism findEndomorphism() {
+        return GlvEndomorphism.forCubeRootOfUnity(this, getGenerator(), size());
+    }
+
     @Override
     public double estimateCostInvPerOp() {
         return 307;
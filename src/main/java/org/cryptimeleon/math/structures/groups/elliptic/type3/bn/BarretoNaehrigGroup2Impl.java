@@ -2,10 +2,19 @@ package org.cryptimeleon.math.structures.groups.elliptic.type3.bn;
 
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.AbstractEllipticCurvePoint;
+import org.cryptimeleon.math.structures.groups.elliptic.GlvEndomorphism;
+import org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupElement;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
 import org.cryptimeleon.math.structures.rings.FieldElement;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
 import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * G2 in the Barreto-Naehrig bilinear group.
@@ -43,6 +52,81 @@ class BarretoNaehrigGroup2Impl extends BarretoNaehrigSourceGroupImpl {
         return new BarretoNaehrigGroup2ElementImpl(this);
     }
 
+    /**
+     * Uses the untwist-Frobenius-twist endomorphism \(\psi(x,y) = (c_x \bar{x}, c_y \bar{y})\) with eigenvalue
+     * \(p\), which yields a 4-dimensional GLS decomposition.
+     * <p>
+     * The constants are (up to cube and square roots of unity) powers of the twisting parameter; the matching
+     * ones are found by testing on the generator.
+     */
+    @Override
+    protected GlvEndomorphism findEndomorphism() {
+        ExtensionField field = (ExtensionField) getFieldOfDefinition();
+        if (field.getExtensionDegree() != 2)
+            return null;
+        BigInteger p = field.getCharacteristic();
+        if (!p.mod(BigInteger.valueOf(6)).equals(BigInteger.ONE))
+            return null;
+
+        FieldElement omega = field.createElement(
+                GlvEndomorphism.getPrimitiveCubeRootOfUnity(field.getBaseField()),
+                field.getBaseField().getZeroElement()
+        );
+        BigInteger exponentX = p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(3));
+        BigInteger exponentY = p.subtract(BigInteger.ONE).shiftRight(1);
+
+        List<UnaryOperator<GroupElementImpl>> maps = new ArrayList<>();
+        for (FieldElement twist : new FieldElement[] {getA6(), getA6().inv()}) {
+            FieldElement cx = twist.pow(exponentX);
+            FieldElement cy = twist.pow(exponentY);
+            for (int i = 0; i < 3; i++) {
+                FieldElement cxi = cx.mul(omega.pow(BigInteger.valueOf(i)));
+                maps.add(point -> frobeniusMap(point, cxi, cy));
+                maps.add(point -> frobeniusMap(point, cxi, cy.neg()));
+            }
+        }
+
+        return GlvEndomorphism.find(getGenerator(), size(), 4, maps, Collections.singletonList(p.mod(size())));
+    }
+
+    private GroupElementImpl frobeniusMap(GroupElementImpl element, FieldElement cx, FieldElement cy) {
+        AbstractEllipticCurvePoint point = (AbstractEllipticCurvePoint) ((AbstractEllipticCurvePoint) element).normalize();
+        if (point.isNeutralElement())
+            return point;
+        return getElement(
+                ((ExtensionFieldElement) point.getX()).applyFrobenius().mul(cx),
+                ((ExtensionFieldElement) point.getY()).applyFrobenius().mul(cy)
+        );
+    }
+
+    /**
+     * Uses the test \(\psi(Q) = Q^{6u^2}\) for BN curves [Scott, "A note on group membership tests for
+     * \(G_1\), \(G_2\) and \(G_T\) on BLS pairing-friendly curves"], which only needs an exponent of half the
+     * size of the group order.
+     * <p>
+     * Here \(6u^2 = t - 1 = p \bmod n\) is also the eigenvalue of \(\psi\) used for GLS exponentiation.
+     */
+    @Override
+    protected boolean isInSubgroup(PairingSourceGroupElement point) {
+        GlvEndomorphism psi = getEndomorphism();
+        if (psi == null)
+            return super.isInSubgroup(point);
+        return psi.apply(point).equals(
+                ExponentiationAlgorithms.wnafExp(point, getSubgroupTestExponent(), null, SUBGROUP_TEST_WINDOW_SIZE)
+        );
+    }
+
+    @Override
+    protected double estimateSubgroupTestCost() {
+        if (getEndomorphism() == null)
+            return super.estimateSubgroupTestCost();
+        return getSubgroupTestExponent().bitLength() * (1 + 1.0 / (SUBGROUP_TEST_WINDOW_SIZE + 1));
+    }
+
+    private BigInteger getSubgroupTestExponent() {
+        return getFieldOfDefinition().getCharacteristic().mod(size());
+    }
+
     @Override
     public double estimateCostInvPerOp() {
         return 600;
@@ -72,6 +72,10 @@ class BarretoNaehrigPointEncoding implements HashIntoGroupImpl {
         return hashFunction;
     }
 
+    BarretoNaehrigSourceGroupImpl getCodomain() {
+        return codomain;
+    }
+
     @Override
     public BarretoNaehrigSourceGroupElementImpl hashIntoGroupImpl(byte[] x) {
 
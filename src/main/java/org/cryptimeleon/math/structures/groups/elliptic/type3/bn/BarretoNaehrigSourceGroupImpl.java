@@ -2,8 +2,12 @@ package org.cryptimeleon.math.structures.groups.elliptic.type3.bn;
 
 import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.GlvEndomorphism;
 import org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupElement;
 import org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupImpl;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
 import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
@@ -16,6 +20,12 @@ import java.math.BigInteger;
  * This class implements a subgroup of \(E:y^2=x^3+b\).
  */
 abstract class BarretoNaehrigSourceGroupImpl extends PairingSourceGroupImpl {
+    /**
+     * Endomorphism used to speed up exponentiations, set up on first use.
+     */
+    private volatile GlvEndomorphism endomorphism;
+    private volatile boolean endomorphismInitialized = false;
+
     public BarretoNaehrigSourceGroupImpl(BigInteger size, BigInteger cofactor, ExtensionFieldElement a6) {
         super(size, cofactor, a6.getStructure().getZeroElement(), a6);
     }
@@ -163,6 +173,51 @@ abstract class BarretoNaehrigSourceGroupImpl extends PairingSourceGroupImpl {
         return true;
     }
 
+    /**
+     * Sets up the endomorphism used for GLV/GLS exponentiation.
+     *
+     * @return the endomorphism, or null if exponentiations should use the generic algorithms
+     */
+    protected abstract GlvEndomorphism findEndomorphism();
+
+    /**
+     * Returns the endomorphism used for GLV/GLS exponentiation, or null if there is none (or no generator
+     * has been set yet).
+     */
+    GlvEndomorphism getEndomorphism() {
+        if (!endomorphismInitialized) {
+            if (getGenerator() == null)
+                return null;
+            synchronized (this) {
+                if (!endomorphismInitialized) {
+                    endomorphism = findEndomorphism();
+                    endomorphismInitialized = true;
+                }
+            }
+        }
+        return endomorphism;
+    }
+
+    @Override
+    public boolean implementsOwnExp() {
+        return getEndomorphism() != null;
+    }
+
+    @Override
+    public GroupElementImpl exp(GroupElementImpl base, BigInteger exponent, SmallExponentPrecomputation precomputation) {
+        return getEndomorphism().exp(base, exponent, precomputation);
+    }
+
+    @Override
+    public boolean implementsOwnMultiExp() {
+        return getEndomorphism() != null;
+    }
+
+    @Override
+    public GroupElementImpl multiexp(Multiexponentiation mexp) {
+        return getEndomorphism().multiexp(mexp);
+    }
+
     // workaround since `super.super.method()` does not work...
     protected PairingSourceGroupElement superGetUniformlyRandomElement() {
         return super.getUniformlyRandomElement();
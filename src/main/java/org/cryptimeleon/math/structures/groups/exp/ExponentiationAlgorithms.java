@@ -147,8 +147,22 @@ public class ExponentiationAlgorithms {
      * For negative exponents, the base is inverted which does mean the precomputation has to be done anew.
      * */
     public static GroupElementImpl interleavingSlidingWindowMultiExp(Multiexponentiation multiexp, int windowSize) {
+        int[] windowSizes = new int[multiexp.getNumberOfTerms()];
+        Arrays.fill(windowSizes, windowSize);
+        return interleavingSlidingWindowMultiExp(multiexp, windowSizes);
+    }
+
+    /**
+     * Evaluates a multi-exponentiation using the interleaved sliding window algorithm with an individual window size
+     * for each term (e.g. as chosen by {@link Multiexponentiation#computeWindowSizes(MultiExpAlgorithm, int)}).
+     *
+     * @param multiexp multi-exponentiation to evaluate
+     * @param windowSizes window size for each term of multiexp (in order)
+     * @see #interleavingSlidingWindowMultiExp(Multiexponentiation, int)
+     */
+    public static GroupElementImpl interleavingSlidingWindowMultiExp(Multiexponentiation multiexp, int[] windowSizes) {
         List<MultiExpTerm> terms = multiexp.getTerms();
-        multiexp.ensurePrecomputation(windowSize, MultiExpAlgorithm.SLIDING);
+        multiexp.ensurePrecomputation(windowSizes, MultiExpAlgorithm.SLIDING);
         if (terms.isEmpty()) //nothing to do here.
             return multiexp.getConstantFactor().orElseThrow(() -> new IllegalArgumentException("Cannot compute an empty multiexp"));
         int numTerms = terms.size();
@@ -173,7 +187,7 @@ public class ExponentiationAlgorithms {
                 exponent = exponentNegative ? exponent.negate() : exponent;
                 if (windowPos[i] == -1 && exponent.testBit(j)) { //start a new window
                     // now find right edge of window
-                    int J = j - windowSize + 1;
+                    int J = j - windowSizes[i] + 1;
                     // right edge is first occurrence of a "1"
                     while (!testBit(exponent, J)) {
                         J++;
@@ -210,11 +224,21 @@ public class ExponentiationAlgorithms {
      * curves.
      */
     public static GroupElementImpl interleavingWnafMultiExp(Multiexponentiation multiexp, int windowSize) {
-        //TODO choose larger windowSize if possible, e.g., all bases have had more precomputation anyway?
-        // Add setting for "usual window size" and "precomputation window size".
-        // maxExp = Math.max(windowSize, multiexp.minPrecomputedPower);
-        // Need to adapt windowSize
-        multiexp.ensurePrecomputation(windowSize, MultiExpAlgorithm.WNAF);
+        int[] windowSizes = new int[multiexp.getNumberOfTerms()];
+        Arrays.fill(windowSizes, windowSize);
+        return interleavingWnafMultiExp(multiexp, windowSizes);
+    }
+
+    /**
+     * Evaluates a multi-exponentiation using an interleaved WNAF-bases algorithm with an individual window size
+     * for each term (e.g. as chosen by {@link Multiexponentiation#computeWindowSizes(MultiExpAlgorithm, int)}).
+     *
+     * @param multiexp multi-exponentiation to evaluate
+     * @param windowSizes window size for each term of multiexp (in order)
+     * @see #interleavingWnafMultiExp(Multiexponentiation, int)
+     */
+    public static GroupElementImpl interleavingWnafMultiExp(Multiexponentiation multiexp, int[] windowSizes) {
+        multiexp.ensurePrecomputation(windowSizes, MultiExpAlgorithm.WNAF);
         List<MultiExpTerm> terms = multiexp.getTerms();
         if (terms.isEmpty()) //nothing to do here.
             return multiexp.getConstantFactor().orElseThrow(
@@ -224,7 +248,7 @@ public class ExponentiationAlgorithms {
         int longestExponentDigitLength = 0;
         int[][] exponentDigits = new int[terms.size()][];
         for (int i = 0; i < terms.size(); ++i) {
-            exponentDigits[i] = precomputeExponentDigitsForWnaf(terms.get(i).exponent, windowSize);
+            exponentDigits[i] = precomputeExponentDigitsForWnaf(terms.get(i).exponent, windowSizes[i]);
             longestExponentDigitLength = Math.max(longestExponentDigitLength, exponentDigits[i].length);
         }
         /*// padding with zeros
@@ -258,6 +282,81 @@ public class ExponentiationAlgorithms {
         return result;
     }
 
+    /**
+     * Chooses the window size for a base in an interleaved multi-exponentiation.
+     * <p>
+     * The choice minimizes the estimated number of group operations spent on this base, i.e. for precomputing the
+     * powers of the base that are not cached yet plus for multiplying them into the result.
+     * The squarings are shared by all terms, so they do not depend on the window size.
+     * Hence bases with large cached precomputations use (at least) the cached window size,
+     * while bases without precomputations and with short exponents get small (or no) tables.
+     *
+     * @param algorithm the multi-exponentiation algorithm
+     * @param exponentBitLength the (maximal) bit length of the exponents the base is raised to
+     * @param numberOfExponents the number of exponents the (same precomputation of the) base is used for
+     * @param precomputedWindowSize the window size already supported by the cached precomputation of the base
+     * @param costInvPerOp the number of inversions per group operation (see {@link GroupImpl#estimateCostInvPerOp()})
+     * @param maxFreshWindowSize the maximal window size up to which new powers of the base may be computed
+     * @return the window size to use (at least 1)
+     */
+    public static int chooseWindowSize(MultiExpAlgorithm algorithm, int exponentBitLength, int numberOfExponents,
+                                       int precomputedWindowSize, double costInvPerOp, int maxFreshWindowSize) {
+        return chooseWindowSize(algorithm, exponentBitLength, numberOfExponents, precomputedWindowSize, costInvPerOp,
+                1, maxFreshWindowSize);
+    }
+
+    /**
+     * Chooses the window size for a base in an interleaved multi-exponentiation like
+     * {@link #chooseWindowSize(MultiExpAlgorithm, int, int, int, double, int)}, but with the given cost of squarings
+     * (instead of assuming that a squaring costs as much as a group operation).
+     * The squaring of the base needed to compute a table of odd powers is part of the precomputation cost.
+     *
+     * @param algorithm the multi-exponentiation algorithm
+     * @param exponentBitLength the (maximal) bit length of the exponents the base is raised to
+     * @param numberOfExponents the number of exponents the (same precomputation of the) base is used for
+     * @param precomputedWindowSize the window size already supported by the cached precomputation of the base
+     * @param costInvPerOp the number of inversions per group operation (see {@link GroupImpl#estimateCostInvPerOp()})
+     * @param costSquarePerOp the number of squarings per group operation (see {@link GroupCostProfile#getCostSquarePerOp()})
+     * @param maxFreshWindowSize the maximal window size up to which new powers of the base may be computed
+     * @return the window size to use (at least 1)
+     */
+    public static int chooseWindowSize(MultiExpAlgorithm algorithm, int exponentBitLength, int numberOfExponents,
+                                       int precomputedWindowSize, double costInvPerOp, double costSquarePerOp,
+                                       int maxFreshWindowSize) {
+        double costPerDigit;
+        switch (algorithm) {
+            case SLIDING:
+                costPerDigit = 1;
+                break;
+            case WNAF:
+                // about half the digits are negative and may need an inversion of a precomputed positive power
+                costPerDigit = 1 + 0.5 / costInvPerOp;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported MultiExpAlgorithm " + algorithm);
+        }
+
+        int bestWindowSize = 1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int maxWindowSize = Math.min(Math.max(precomputedWindowSize, maxFreshWindowSize), 30);
+        for (int windowSize = 1; windowSize <= maxWindowSize; windowSize++) {
+            // expected number of nonzero digits: the sliding window algorithm has windowSize+1 bits per window
+            // on average, wNAF (with digits of width windowSize+1) has windowSize+2.
+            double numberOfDigits = (double) exponentBitLength
+                    / (algorithm == MultiExpAlgorithm.SLIDING ? windowSize + 1 : windowSize + 2);
+            double precomputationCost = 0;
+            if (windowSize > Math.max(precomputedWindowSize, 1)) // odd powers up to 2^windowSize - 1, using base^2
+                precomputationCost = (1 << (windowSize - 1)) - (1 << Math.max(precomputedWindowSize - 1, 0))
+                        + 1 / costSquarePerOp;
+            double cost = numberOfExponents * numberOfDigits * costPerDigit + precomputationCost;
+            if (cost <= bestCost) { // prefer larger windows, e.g. to use all cached powers
+                bestCost = cost;
+                bestWindowSize = windowSize;
+            }
+        }
+        return bestWindowSize;
+    }
+
     /**
      * Tests if the bit at position {@code index} equals {@code 1}, i.e. is set.
      * <p>
@@ -0,0 +1,239 @@
+package org.cryptimeleon.math.structures.groups.exp;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Decomposes exponents \(k\) into short exponents \(k_0, \dots, k_{d-1}\) with
+ * \(k \equiv \sum_i k_i \lambda^i \bmod n\), where \(\lambda\) is the eigenvalue of an efficiently computable
+ * endomorphism \(\psi\) of a group of order \(n\), i.e. \(\psi(g) = g^\lambda\).
+ * <p>
+ * This is the decomposition step of the GLV (and, for \(d > 2\), GLS) method: instead of computing \(g^k\),
+ * one computes the multi-exponentiation \(\prod_i \psi^i(g)^{k_i}\) whose exponents are only about
+ * \(\log(n)/d\) bits long.
+ * <p>
+ * The decomposition reduces \((k, 0, \dots, 0)\) modulo an LLL-reduced basis of the lattice
+ * \(\{(a_0, \dots, a_{d-1}) \mid \sum_i a_i \lambda^i \equiv 0 \bmod n\}\) using Babai's rounding technique.
+ */
+public class GlvDecomposition {
+    private final BigInteger n;
+    private final BigInteger lambda;
+    /**
+     * Rows form a reduced basis of the lattice.
+     */
+    private final BigInteger[][] basis;
+    /**
+     * {@code babaiNumerators[j] / determinant} is the j-th coordinate of \((1, 0, \dots, 0)\) w.r.t. {@link #basis}.
+     */
+    private final BigInteger[] babaiNumerators;
+    private final BigInteger determinant;
+
+    /**
+     * Sets up the decomposition.
+     *
+     * @param n the group order
+     * @param lambda the eigenvalue of the endomorphism
+     * @param dimension the number of exponents \(d\) to decompose into
+     * @throws IllegalArgumentException if \(1, \lambda, \dots, \lambda^{d-1}\) do not span a lattice of full rank
+     */
+    public GlvDecomposition(BigInteger n, BigInteger lambda, int dimension) {
+        if (dimension < 1)
+            throw new IllegalArgumentException("Dimension must be positive");
+        this.n = n;
+        this.lambda = lambda.mod(n);
+
+        //Initial basis: (n, 0, ..., 0) and (-lambda^i, e_i)
+        BigInteger[][] initialBasis = new BigInteger[dimension][dimension];
+        for (BigInteger[] row : initialBasis)
+            Arrays.fill(row, BigInteger.ZERO);
+        initialBasis[0][0] = n;
+        BigInteger lambdaPower = BigInteger.ONE;
+        for (int i = 1; i < dimension; i++) {
+            lambdaPower = lambdaPower.multiply(this.lambda).mod(n);
+            initialBasis[i][0] = lambdaPower.negate();
+            initialBasis[i][i] = BigInteger.ONE;
+        }
+
+        this.basis = lllReduce(initialBasis);
+        this.determinant = determinant(basis);
+        if (determinant.signum() == 0)
+            throw new IllegalArgumentException("Degenerate lattice");
+
+        //Cramer's rule for the coordinates of (1, 0, ..., 0)
+        babaiNumerators = new BigInteger[dimension];
+        for (int j = 0; j < dimension; j++) {
+            BigInteger[][] replaced = new BigInteger[dimension][];
+            for (int i = 0; i < dimension; i++)
+                replaced[i] = i == j ? unitVector(dimension) : basis[i];
+            babaiNumerators[j] = determinant(replaced);
+        }
+    }
+
+    public int getDimension() {
+        return basis.length;
+    }
+
+    public BigInteger getLambda() {
+        return lambda;
+    }
+
+    public BigInteger getGroupOrder() {
+        return n;
+    }
+
+    /**
+     * Decomposes the given exponent.
+     *
+     * @param k the exponent
+     * @return \(k_0, \dots, k_{d-1}\) (possibly negative) such that \(k \equiv \sum_i k_i \lambda^i \bmod n\)
+     */
+    public BigInteger[] decompose(BigInteger k) {
+        k = k.mod(n);
+        int dimension = basis.length;
+        BigInteger[] result = new BigInteger[dimension];
+        Arrays.fill(result, BigInteger.ZERO);
+        result[0] = k;
+
+        //subtract the lattice vector closest to (k, 0, ..., 0) (found via Babai rounding)
+        for (int j = 0; j < dimension; j++) {
+            BigInteger c = roundDiv(k.multiply(babaiNumerators[j]), determinant);
+            if (c.signum() == 0)
+                continue;
+            for (int i = 0; i < dimension; i++)
+                result[i] = result[i].subtract(c.multiply(basis[j][i]));
+        }
+
+        return result;
+    }
+
+    private static BigInteger[] unitVector(int dimension) {
+        BigInteger[] result = new BigInteger[dimension];
+        Arrays.fill(result, BigInteger.ZERO);
+        result[0] = BigInteger.ONE;
+        return result;
+    }
+
+    /**
+     * Rounds a/b to the nearest integer.
+     */
+    private static BigInteger roundDiv(BigInteger a, BigInteger b) {
+        if (b.signum() < 0) {
+            a = a.negate();
+            b = b.negate();
+        }
+        //floor((2a + b) / 2b)
+        BigInteger numerator = a.shiftLeft(1).add(b);
+        BigInteger denominator = b.shiftLeft(1);
+        BigInteger[] qr = numerator.divideAndRemainder(denominator);
+        return qr[1].signum() < 0 ? qr[0].subtract(BigInteger.ONE) : qr[0];
+    }
+
+    private static BigInteger dot(BigInteger[] a, BigInteger[] b) {
+        BigInteger result = BigInteger.ZERO;
+        for (int i = 0; i < a.length; i++)
+            result = result.add(a[i].multiply(b[i]));
+        return result;
+    }
+
+    /**
+     * Determinant via Laplace expansion (only used for small dimensions).
+     */
+    private static BigInteger determinant(BigInteger[][] matrix) {
+        int dimension = matrix.length;
+        if (dimension == 1)
+            return matrix[0][0];
+        BigInteger result = BigInteger.ZERO;
+        for (int j = 0; j < dimension; j++) {
+            if (matrix[0][j].signum() == 0)
+                continue;
+            BigInteger[][] minor = new BigInteger[dimension - 1][dimension - 1];
+            for (int i = 1; i < dimension; i++)
+                for (int l = 0, m = 0; l < dimension; l++)
+                    if (l != j)
+                        minor[i - 1][m++] = matrix[i][l];
+            BigInteger term = matrix[0][j].multiply(determinant(minor));
+            result = j % 2 == 0 ? result.add(term) : result.subtract(term);
+        }
+        return result;
+    }
+
+    /**
+     * Integral LLL reduction (with \(\delta = 3/4\)) of the given basis (rows), see Algorithm 2.6.7 in
+     * H. Cohen, "A Course in Computational Algebraic Number Theory".
+     * <p>
+     * Works with exact integer arithmetic only, which is fine for the small dimensions used here.
+     */
+    private static BigInteger[][] lllReduce(BigInteger[][] input) {
+        int dim = input.length;
+        //1-based indices as in Cohen's description
+        BigInteger[][] b = new BigInteger[dim + 1][];
+        for (int i = 0; i < dim; i++)
+            b[i + 1] = input[i].clone();
+        BigInteger[] d = new BigInteger[dim + 1];
+        BigInteger[][] lam = new BigInteger[dim + 1][dim + 1];
+
+        d[0] = BigInteger.ONE;
+        d[1] = dot(b[1], b[1]);
+        int k = 2, kmax = 1;
+        while (k <= dim) {
+            if (k > kmax) { //incremental Gram-Schmidt
+                kmax = k;
+                for (int j = 1; j <= k; j++) {
+                    BigInteger u = dot(b[k], b[j]);
+                    for (int i = 1; i < j; i++)
+                        u = d[i].multiply(u).subtract(lam[k][i].multiply(lam[j][i])).divide(d[i - 1]);
+                    if (j < k)
+                        lam[k][j] = u;
+                    else if (u.signum() == 0)
+                        throw new IllegalArgumentException("Lattice vectors are linearly dependent");
+                    else
+                        d[k] = u;
+                }
+            }
+
+            reduce(b, d, lam, k, k - 1);
+            BigInteger lhs = d[k].multiply(d[k - 2]).shiftLeft(2);
+            BigInteger rhs = d[k - 1].pow(2).multiply(BigInteger.valueOf(3)).subtract(lam[k][k - 1].pow(2).shiftLeft(2));
+            if (lhs.compareTo(rhs) < 0) { //Lovasz condition violated
+                swap(b, d, lam, k, kmax);
+                k = Math.max(2, k - 1);
+            } else {
+                for (int l = k - 2; l >= 1; l--)
+                    reduce(b, d, lam, k, l);
+                k++;
+            }
+        }
+
+        return Arrays.copyOfRange(b, 1, dim + 1);
+    }
+
+    private static void reduce(BigInteger[][] b, BigInteger[] d, BigInteger[][] lam, int k, int l) {
+        if (lam[k][l].shiftLeft(1).abs().compareTo(d[l]) <= 0)
+            return;
+        BigInteger q = roundDiv(lam[k][l], d[l]);
+        for (int i = 0; i < b[k].length; i++)
+            b[k][i] = b[k][i].subtract(q.multiply(b[l][i]));
+        lam[k][l] = lam[k][l].subtract(q.multiply(d[l]));
+        for (int i = 1; i < l; i++)
+            lam[k][i] = lam[k][i].subtract(q.multiply(lam[l][i]));
+    }
+
+    private static void swap(BigInteger[][] b, BigInteger[] d, BigInteger[][] lam, int k, int kmax) {
+        BigInteger[] tmpRow = b[k];
+        b[k] = b[k - 1];
+        b[k - 1] = tmpRow;
+        for (int j = 1; j <= k - 2; j++) {
+            BigInteger tmp = lam[k][j];
+            lam[k][j] = lam[k - 1][j];
+            lam[k - 1][j] = tmp;
+        }
+        BigInteger l = lam[k][k - 1];
+        BigInteger newD = d[k - 2].multiply(d[k]).add(l.pow(2)).divide(d[k - 1]);
+        for (int i = k + 1; i <= kmax; i++) {
+            BigInteger t = lam[i][k];
+            lam[i][k] = d[k].multiply(lam[i][k - 1]).subtract(l.multiply(t)).divide(d[k - 1]);
+            lam[i][k - 1] = newD.multiply(t).add(l.multiply(lam[i][k])).divide(d[k]);
+        }
+        d[k - 1] = newD;
+    }
+}
@@ -0,0 +1,168 @@
+package org.cryptimeleon.math.structures.groups.exp;
+
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
+import org.cryptimeleon.math.serialization.Representable;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.StringRepresentation;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.GroupImpl;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * The measured cost (in nanoseconds) of the basic operations of some {@link GroupImpl}.
+ * <p>
+ * Unlike {@link GroupImpl#estimateCostInvPerOp()}, which is a fixed estimate, a profile reflects the actual hardware.
+ * It can be measured once via {@link #measure(GroupImpl)} and persisted via its representation, such that later
+ * runs can use the measured costs without repeating the benchmark.
+ *
+ * @see org.cryptimeleon.math.structures.groups.lazy.LazyGroup#tune(GroupCostProfile)
+ */
+public class GroupCostProfile implements Representable {
+    /**
+     * Number of (random) elements the operations are measured on.
+     */
+    private static final int NUMBER_OF_ELEMENTS = 16;
+    /**
+     * Minimal duration of a single measurement.
+     * Shorter measurements are repeated with twice the number of iterations.
+     */
+    private static final long MIN_MEASUREMENT_NANOS = 10_000_000;
+    /**
+     * Number of measurements per operation, the fastest of which is used (to filter out interruptions).
+     */
+    private static final int NUMBER_OF_MEASUREMENTS = 3;
+
+    /**
+     * Keeps results of the measured operations alive so that they cannot be optimized away.
+     */
+    @SuppressWarnings("unused")
+    private static volatile GroupElementImpl sink;
+
+    private final double opNanos;
+    private final double squareNanos;
+    private final double invNanos;
+
+    public GroupCostProfile(double opNanos, double squareNanos, double invNanos) {
+        if (!(opNanos > 0) || !(squareNanos > 0) || !(invNanos > 0))
+            throw new IllegalArgumentException("Costs must be positive");
+        this.opNanos = opNanos;
+        this.squareNanos = squareNanos;
+        this.invNanos = invNanos;
+    }
+
+    public GroupCostProfile(Representation repr) {
+        this(Double.parseDouble(repr.obj().get("op").str().get()),
+                Double.parseDouble(repr.obj().get("square").str().get()),
+                Double.parseDouble(repr.obj().get("inv").str().get()));
+    }
+
+    /**
+     * Measures the cost of group operations, squarings and inversions in the given group.
+     * <p>
+     * This takes roughly a tenth of a second (plus the time to generate a few random elements).
+     *
+     * @param group the group to measure; needs to support {@link GroupImpl#getUniformlyRandomElement()}
+     */
+    public static GroupCostProfile measure(GroupImpl group) {
+        GroupElementImpl[] elements = new GroupElementImpl[NUMBER_OF_ELEMENTS];
+        for (int i = 0; i < elements.length; i++)
+            elements[i] = group.getUniformlyRandomElement();
+
+        double opNanos = measure(i -> elements[i % NUMBER_OF_ELEMENTS].op(elements[(i + 1) % NUMBER_OF_ELEMENTS]));
+        double squareNanos = measure(i -> elements[i % NUMBER_OF_ELEMENTS].square());
+        double invNanos = measure(i -> elements[i % NUMBER_OF_ELEMENTS].inv());
+        return new GroupCostProfile(opNanos, squareNanos, invNanos);
+    }
+
+    /**
+     * Returns the average time (in nanoseconds) that the given operation takes.
+     * The first measurements also serve as warmup.
+     */
+    private static double measure(IntFunction<GroupElementImpl> operation) {
+        double result = Double.POSITIVE_INFINITY;
+        int iterations = 16;
+        for (int measurement = 0; measurement < NUMBER_OF_MEASUREMENTS; ) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++)
+                sink = operation.apply(i);
+            long duration = System.nanoTime() - start;
+            if (duration < MIN_MEASUREMENT_NANOS) {
+                iterations *= 2;
+                continue;
+            }
+            result = Math.min(result, Math.max(duration, 1) / (double) iterations);
+            measurement++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cost of a group operation in nanoseconds.
+     */
+    public double getOpNanos() {
+        return opNanos;
+    }
+
+    /**
+     * Returns the cost of a squaring in nanoseconds.
+     */
+    public double getSquareNanos() {
+        return squareNanos;
+    }
+
+    /**
+     * Returns the cost of an inversion in nanoseconds.
+     */
+    public double getInvNanos() {
+        return invNanos;
+    }
+
+    /**
+     * Returns the measured number of inversions per group operation,
+     * i.e. the measured counterpart of {@link GroupImpl#estimateCostInvPerOp()}.
+     */
+    public double getCostInvPerOp() {
+        return opNanos / invNanos;
+    }
+
+    /**
+     * Returns the measured number of squarings per group operation.
+     * <p>
+     * Window size choices use it for the squaring of the base needed to precompute its odd powers
+     * (see {@link ExponentiationAlgorithms#chooseWindowSize(MultiExpAlgorithm, int, int, int, double, double, int)}).
+     */
+    public double getCostSquarePerOp() {
+        return opNanos / squareNanos;
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        ObjectRepresentation repr = new ObjectRepresentation();
+        repr.put("op", new StringRepresentation(Double.toString(opNanos)));
+        repr.put("square", new StringRepresentation(Double.toString(squareNanos)));
+        repr.put("inv", new StringRepresentation(Double.toString(invNanos)));
+        return repr;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GroupCostProfile that = (GroupCostProfile) o;
+        return Double.compare(that.opNanos, opNanos) == 0
+                && Double.compare(that.squareNanos, squareNanos) == 0
+                && Double.compare(that.invNanos, invNanos) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(opNanos, squareNanos, invNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCostProfile{op=" + opNanos + "ns, square=" + squareNanos + "ns, inv=" + invNanos + "ns}";
+    }
+}
@@ -4,6 +4,7 @@ import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -36,8 +37,21 @@ public class Multiexponentiation {
      * @param windowSize The window size to ensure support for
      */
     public void ensurePrecomputation(int windowSize, MultiExpAlgorithm multiExpAlgorithm) {
+        int[] windowSizes = new int[getNumberOfTerms()];
+        Arrays.fill(windowSizes, windowSize);
+        ensurePrecomputation(windowSizes, multiExpAlgorithm);
+    }
+
+    /**
+     * Ensures that each term supports its given window size by performing the precomputations that are necessary.
+     * @param windowSizes The window size to ensure support for, for each term (in order)
+     * @see #ensurePrecomputation(int, MultiExpAlgorithm)
+     */
+    public void ensurePrecomputation(int[] windowSizes, MultiExpAlgorithm multiExpAlgorithm) {
         if (terms != null) {
-            for (MultiExpTerm term : terms) {
+            for (int i = 0; i < terms.size(); i++) {
+                MultiExpTerm term = terms.get(i);
+                int windowSize = windowSizes[i];
                 switch (multiExpAlgorithm) {
                     case SLIDING:
                         // if inversion is faster than op, we can potentially use existing precomputations of the
@@ -113,6 +127,55 @@ public class Multiexponentiation {
         return minPrecomputedWindowSize;
     }
 
+    /**
+     * Chooses a window size for each term, using the cached precomputations of bases where they exist and
+     * small windows for short exponents (see
+     * {@link ExponentiationAlgorithms#chooseWindowSize(MultiExpAlgorithm, int, int, int, double, int)}).
+     * @param multiExpAlgorithm the algorithm the window sizes are chosen for
+     * @param maxFreshWindowSize the maximal window size for which powers are computed that are not cached yet
+     * @return the window size for each term (in order)
+     */
+    public int[] computeWindowSizes(MultiExpAlgorithm multiExpAlgorithm, int maxFreshWindowSize) {
+        if (getNumberOfTerms() == 0)
+            return new int[0];
+        return computeWindowSizes(multiExpAlgorithm, maxFreshWindowSize,
+                terms.get(0).getBase().getStructure().estimateCostInvPerOp(), 1);
+    }
+
+    /**
+     * Chooses a window size for each term like {@link #computeWindowSizes(MultiExpAlgorithm, int)},
+     * but with the given (e.g. measured, see {@link GroupCostProfile}) costs of inversions and squarings.
+     * @param multiExpAlgorithm the algorithm the window sizes are chosen for
+     * @param maxFreshWindowSize the maximal window size for which powers are computed that are not cached yet
+     * @param costInvPerOp the number of inversions per group operation
+     * @param costSquarePerOp the number of squarings per group operation
+     * @return the window size for each term (in order)
+     */
+    public int[] computeWindowSizes(MultiExpAlgorithm multiExpAlgorithm, int maxFreshWindowSize,
+                                    double costInvPerOp, double costSquarePerOp) {
+        int[] windowSizes = new int[getNumberOfTerms()];
+        for (int i = 0; i < windowSizes.length; i++) {
+            MultiExpTerm term = terms.get(i);
+            int precomputedWindowSize;
+            switch (multiExpAlgorithm) {
+                case SLIDING:
+                    precomputedWindowSize = term.getExponent().signum() >= 0
+                            ? term.precomputation.getCurrentlySupportedPositiveWindowSize()
+                            : term.precomputation.getCurrentlySupportedNegativeWindowSize();
+                    break;
+                case WNAF:
+                    precomputedWindowSize = term.precomputation.getCurrentlySupportedWindowSize();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported MultiExpAlgorithm " + multiExpAlgorithm);
+            }
+            windowSizes[i] = ExponentiationAlgorithms.chooseWindowSize(multiExpAlgorithm,
+                    term.getExponent().bitLength(), 1, precomputedWindowSize,
+                    costInvPerOp, costSquarePerOp, maxFreshWindowSize);
+        }
+        return windowSizes;
+    }
+
     public List<MultiExpTerm> getTerms() {
         return terms == null ? Collections.emptyList() : Collections.unmodifiableList(terms);
     }
@@ -3,36 +3,50 @@ package org.cryptimeleon.math.structures.groups.exp;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 
 import java.util.ArrayList;
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caches the odd powers base^1, base^3, ... (and base^-1, base^-3, ...) of some base for window-based
+ * exponentiation algorithms.
+ * <p>
+ * The powers are stored in immutable arrays that are replaced by larger copies when the precomputation grows.
+ * Hence reading powers never blocks, even while another thread computes a larger window.
+ * Since the precomputation only ever grows, powers that were available once stay available.
+ */
 public class SmallExponentPrecomputation {
-    GroupElementImpl base;
-    ArrayList<GroupElementImpl> oddPowers = null; //oddPowers.get(i) == base^(2*i+1)
-    ArrayList<GroupElementImpl> oddNegativePowers = null; //oddNegativePowers.get(i) == base^(-2*i-1)
-    int windowSize = 0;
-    int negativeWindowSize = 0;
+    final GroupElementImpl base;
+    private volatile Powers powers = Powers.EMPTY;
 
     public SmallExponentPrecomputation(GroupElementImpl base) {
         this.base = base;
     }
 
+    public GroupElementImpl getBase() {
+        return base;
+    }
+
     public int getCurrentMaxPositiveExponent() {
-        return oddPowers == null ? 0 : 2*oddPowers.size()-1;
+        return powers.getMaxPositiveExponent();
     }
 
     public int getCurrentMaxNegativeExponent() {
-        return oddNegativePowers == null ? 0 : -2*oddNegativePowers.size()+1;
+        return powers.getMaxNegativeExponent();
     }
 
     public int getCurrentlySupportedPositiveWindowSize() {
-        return windowSize;
+        return powers.windowSize;
     }
 
     public int getCurrentlySupportedNegativeWindowSize() {
-        return negativeWindowSize;
+        return powers.negativeWindowSize;
     }
 
     public int getCurrentlySupportedWindowSize() {
-        return Math.max(windowSize, negativeWindowSize);
+        Powers powers = this.powers;
+        return Math.max(powers.windowSize, powers.negativeWindowSize);
     }
 
     public GroupElementImpl get(int exponent) {
@@ -47,83 +61,158 @@ public class SmallExponentPrecomputation {
     }
 
     public GroupElementImpl getOddPositivePower(int exponent) {
-        if (getCurrentMaxPositiveExponent() < exponent) {
+        Powers powers = this.powers;
+        if (powers.getMaxPositiveExponent() < exponent) {
             return getOddNegativePower(-exponent).inv();
         }
         int index = (exponent-1)/2;
-        return oddPowers.get(index);
+        return powers.oddPowers[index];
     }
 
     public GroupElementImpl getOddNegativePower(int exponent) {
-        if (getCurrentMaxNegativeExponent() > exponent) {
+        Powers powers = this.powers;
+        if (powers.getMaxNegativeExponent() > exponent) {
             return getOddPositivePower(-exponent).inv();
         }
         int index = (-exponent-1)/2;
-        return oddNegativePowers.get(index);
+        return powers.oddNegativePowers[index];
     }
 
     public void compute(int windowSize, boolean invertExisting) {
-        if (this.windowSize < windowSize) {
-            int maximumPower = (1 << windowSize) - 1;
-            int numElements = (maximumPower+1)/2;
-
-            synchronized (this) {
-                if (this.windowSize < windowSize) {
-                    if (oddPowers == null) {
-                        oddPowers = new ArrayList<>(numElements);
-                        oddPowers.add(base);
-                    }
-
-                    // populate using existing negative powers if enabled
-                    if (invertExisting && oddNegativePowers != null) {
-                        for (int i = oddPowers.size(); i < oddNegativePowers.size(); ++i) {
-                            oddPowers.add(i, oddNegativePowers.get(i).inv());
-                        }
-                    }
-
-                    GroupElementImpl square = base.square();
-                    GroupElementImpl currentSmallPower = oddPowers.get(oddPowers.size() - 1);
-                    for (int i = oddPowers.size(); i < numElements; i++) {
-                        currentSmallPower = currentSmallPower.op(square);
-                        oddPowers.add(i, currentSmallPower);
-                    }
-
-                    this.windowSize = windowSize;
+        if (powers.windowSize >= windowSize)
+            return;
+        int maximumPower = (1 << windowSize) - 1;
+        int numElements = (maximumPower+1)/2;
+
+        // only threads growing the precomputation synchronize, readers use the currently published powers
+        synchronized (this) {
+            Powers current = powers;
+            if (current.windowSize >= windowSize)
+                return;
+
+            List<GroupElementImpl> oddPowers = new ArrayList<>(Math.max(numElements, current.oddPowers.length));
+            oddPowers.addAll(Arrays.asList(current.oddPowers));
+            if (oddPowers.isEmpty())
+                oddPowers.add(base);
+
+            // populate using existing negative powers if enabled
+            if (invertExisting) {
+                for (int i = oddPowers.size(); i < current.oddNegativePowers.length; ++i) {
+                    oddPowers.add(i, current.oddNegativePowers[i].inv());
+                }
+            }
+
+            if (base.getStructure().implementsOwnBatchOp()) {
+                // base^1, base^3, ..., base^(2m-1) are known, so multiplying them with base^(2m) in one batch
+                // yields base^(2m+1), ..., base^(4m-1)
+                while (oddPowers.size() < numElements) {
+                    int m = oddPowers.size();
+                    int count = Math.min(m, numElements - m);
+                    GroupElementImpl shift = oddPowers.get(m - 1).op(base);
+                    oddPowers.addAll(base.getStructure().batchOp(oddPowers.subList(0, count),
+                            Collections.nCopies(count, shift)));
                 }
             }
+
+            GroupElementImpl square = oddPowers.size() < numElements ? base.square() : null;
+            GroupElementImpl currentSmallPower = oddPowers.get(oddPowers.size() - 1);
+            for (int i = oddPowers.size(); i < numElements; i++) {
+                currentSmallPower = currentSmallPower.op(square);
+                oddPowers.add(i, currentSmallPower);
+            }
+
+            powers = new Powers(oddPowers.toArray(new GroupElementImpl[0]), current.oddNegativePowers,
+                    windowSize, current.negativeWindowSize);
         }
     }
 
     public void computeNegativePowers(int windowSize, boolean invertExisting) {
-        if (this.negativeWindowSize < windowSize) {
-            int maximumPower = (1 << windowSize) - 1;
-            int numElements = (maximumPower+1)/2;
-
-            synchronized (this) {
-                if (this.negativeWindowSize < windowSize) {
-                    GroupElementImpl invBase = base.inv();
-                    if (oddNegativePowers == null) {
-                        oddNegativePowers = new ArrayList<>(numElements);
-                        oddNegativePowers.add(invBase);
-                    }
-
-                    // populate using existing positive powers if enabled
-                    if (invertExisting && oddPowers != null) {
-                        for (int i = oddNegativePowers.size(); i < oddPowers.size(); ++i) {
-                            oddNegativePowers.add(i, oddPowers.get(i).inv());
-                        }
-                    }
-
-                    GroupElementImpl square = invBase.square();
-                    GroupElementImpl currentSmallPower = oddNegativePowers.get(oddNegativePowers.size() - 1);
-                    for (int i = oddNegativePowers.size(); i < numElements; i++) {
-                        currentSmallPower = currentSmallPower.op(square);
-                        oddNegativePowers.add(i, currentSmallPower);
-                    }
-
-                    this.negativeWindowSize = windowSize;
+        if (powers.negativeWindowSize >= windowSize)
+            return;
+        // with cheap inversions, derive the negative powers from the (batch-computed) positive ones
+        if (invertExisting && base.getStructure().implementsOwnBatchOp())
+            compute(windowSize, true);
+        int maximumPower = (1 << windowSize) - 1;
+        int numElements = (maximumPower+1)/2;
+
+        synchronized (this) {
+            Powers current = powers;
+            if (current.negativeWindowSize >= windowSize)
+                return;
+
+            GroupElementImpl invBase = base.inv();
+            List<GroupElementImpl> oddNegativePowers =
+                    new ArrayList<>(Math.max(numElements, current.oddNegativePowers.length));
+            oddNegativePowers.addAll(Arrays.asList(current.oddNegativePowers));
+            if (oddNegativePowers.isEmpty())
+                oddNegativePowers.add(invBase);
+
+            // populate using existing positive powers if enabled
+            if (invertExisting) {
+                for (int i = oddNegativePowers.size(); i < current.oddPowers.length; ++i) {
+                    oddNegativePowers.add(i, current.oddPowers[i].inv());
                 }
             }
+
+            GroupElementImpl square = oddNegativePowers.size() < numElements ? invBase.square() : null;
+            GroupElementImpl currentSmallPower = oddNegativePowers.get(oddNegativePowers.size() - 1);
+            for (int i = oddNegativePowers.size(); i < numElements; i++) {
+                currentSmallPower = currentSmallPower.op(square);
+                oddNegativePowers.add(i, currentSmallPower);
+            }
+
+            powers = new Powers(current.oddPowers, oddNegativePowers.toArray(new GroupElementImpl[0]),
+                    current.windowSize, windowSize);
+        }
+    }
+
+    /**
+     * Returns a precomputation for {@code homomorphism(base)} that reuses this precomputation's powers by applying
+     * the homomorphism to them.
+     * <p>
+     * Useful for endomorphisms that are much cheaper than a group operation (see {@link GlvDecomposition}).
+     *
+     * @param homomorphism a group homomorphism
+     * @return precomputation for the image of the base, supporting the same window sizes as this one
+     */
+    public SmallExponentPrecomputation map(UnaryOperator<GroupElementImpl> homomorphism) {
+        SmallExponentPrecomputation result = new SmallExponentPrecomputation(homomorphism.apply(base));
+        Powers powers = this.powers;
+        GroupElementImpl[] oddPowers = new GroupElementImpl[powers.oddPowers.length];
+        for (int i = 0; i < oddPowers.length; i++)
+            oddPowers[i] = homomorphism.apply(powers.oddPowers[i]);
+        GroupElementImpl[] oddNegativePowers = new GroupElementImpl[powers.oddNegativePowers.length];
+        for (int i = 0; i < oddNegativePowers.length; i++)
+            oddNegativePowers[i] = homomorphism.apply(powers.oddNegativePowers[i]);
+        result.powers = new Powers(oddPowers, oddNegativePowers, powers.windowSize, powers.negativeWindowSize);
+        return result;
+    }
+
+    /**
+     * An immutable snapshot of the precomputed powers.
+     */
+    private static class Powers {
+        static final Powers EMPTY = new Powers(new GroupElementImpl[0], new GroupElementImpl[0], 0, 0);
+
+        final GroupElementImpl[] oddPowers; //oddPowers[i] == base^(2*i+1)
+        final GroupElementImpl[] oddNegativePowers; //oddNegativePowers[i] == base^(-2*i-1)
+        final int windowSize;
+        final int negativeWindowSize;
+
+        Powers(GroupElementImpl[] oddPowers, GroupElementImpl[] oddNegativePowers, int windowSize,
+               int negativeWindowSize) {
+            this.oddPowers = oddPowers;
+            this.oddNegativePowers = oddNegativePowers;
+            this.windowSize = windowSize;
+            this.negativeWindowSize = negativeWindowSize;
+        }
+
+        int getMaxPositiveExponent() {
+            return oddPowers.length == 0 ? 0 : 2*oddPowers.length-1;
+        }
+
+        int getMaxNegativeExponent() {
+            return oddNegativePowers.length == 0 ? 0 : -2*oddNegativePowers.length+1;
         }
     }
 }
@@ -6,12 +6,27 @@ import org.cryptimeleon.math.structures.groups.GroupElementImpl;
  * Represents a constant value.
  */
 class ConstLazyGroupElement extends LazyGroupElement {
+    private final boolean isKnownMember;
+
     public ConstLazyGroupElement(LazyGroup group, GroupElementImpl concreteValue) {
+        this(group, concreteValue, false);
+    }
+
+    /**
+     * @param isKnownMember whether the value is known to be a member of the group (see {@link #isKnownMember()})
+     */
+    public ConstLazyGroupElement(LazyGroup group, GroupElementImpl concreteValue, boolean isKnownMember) {
         super(group, concreteValue);
+        this.isKnownMember = isKnownMember;
     }
 
     @Override
     protected void computeConcreteValue() {
         //nothing to do, value is already known from constructor call
     }
+
+    @Override
+    protected boolean isKnownMember() {
+        return isKnownMember;
+    }
 }
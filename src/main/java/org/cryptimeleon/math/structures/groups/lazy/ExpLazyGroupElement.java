@@ -1,9 +1,7 @@
 package org.cryptimeleon.math.structures.groups.lazy;
 
-import org.cryptimeleon.math.structures.groups.GroupElementImpl;
-import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
-
 import java.math.BigInteger;
+import java.util.function.BiConsumer;
 
 /**
  * Represents an exponentiation with a base and exponent.
@@ -11,24 +9,28 @@ import java.math.BigInteger;
 class ExpLazyGroupElement extends LazyGroupElement {
     LazyGroupElement base;
     BigInteger exponent;
+    private final boolean isKnownMember;
 
     public ExpLazyGroupElement(LazyGroup group, LazyGroupElement base, BigInteger exponent) {
         super(group);
         this.base = base;
         this.exponent = exponent;
+        this.isKnownMember = base.isKnownMember();
     }
 
     @Override
     protected void computeConcreteValue() {
-        setConcreteValue(group.compute(base.getConcreteValue(), exponent, base.getPrecomputedSmallExponents()));
+        setConcreteValue(ProductOfPowers.of(this).compute());
     }
 
     @Override
-    protected GroupElementImpl accumulateMultiexp(Multiexponentiation multiexp) {
-        if (isDefinitelySupposedToGetConcreteValue())
-            return getConcreteValue();
+    protected boolean forEachFactor(BiConsumer<LazyGroupElement, BigInteger> factors) {
+        factors.accept(base, exponent);
+        return true;
+    }
 
-        multiexp.put(base.getConcreteValue(), exponent, base.getPrecomputedSmallExponents());
-        return null;
+    @Override
+    protected boolean isKnownMember() {
+        return isKnownMember;
     }
 }
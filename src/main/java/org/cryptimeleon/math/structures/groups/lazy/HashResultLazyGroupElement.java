@@ -17,4 +17,9 @@ class HashResultLazyGroupElement extends LazyGroupElement {
     protected void computeConcreteValue() {
         setConcreteValue(hash.impl.hashIntoGroupImpl(preimage));
     }
+
+    @Override
+    protected boolean isKnownMember() {
+        return true;
+    }
 }
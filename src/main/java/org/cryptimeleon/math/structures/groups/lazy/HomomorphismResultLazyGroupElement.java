@@ -1,20 +1,34 @@
 package org.cryptimeleon.math.structures.groups.lazy;
 
+import java.util.function.Consumer;
+
 /**
  * Represents the result of applying a group homomorphism to some group element.
  */
 class HomomorphismResultLazyGroupElement extends LazyGroupElement {
     protected LazyGroupElement preimage;
     protected LazyGroupHomomorphism homomorphism;
+    private final boolean isKnownMember;
 
     public HomomorphismResultLazyGroupElement(LazyGroupElement preimage, LazyGroupHomomorphism homomorphism) {
         super(homomorphism.targetGroup);
         this.preimage = preimage;
         this.homomorphism = homomorphism;
+        this.isKnownMember = preimage.isKnownMember();
     }
 
     @Override
     protected void computeConcreteValue() {
         setConcreteValue(homomorphism.impl.apply(preimage.getConcreteValue()));
     }
+
+    @Override
+    protected void forEachDependency(Consumer<LazyGroupElement> dependencies) {
+        dependencies.accept(preimage);
+    }
+
+    @Override
+    protected boolean isKnownMember() {
+        return isKnownMember;
+    }
 }
@@ -1,18 +1,34 @@
 package org.cryptimeleon.math.structures.groups.lazy;
 
+import java.math.BigInteger;
+import java.util.function.BiConsumer;
+
 /**
  * Represents the result of inverting a group element.
  */
 class InvLazyGroupElement extends LazyGroupElement {
     protected LazyGroupElement base;
+    private final boolean isKnownMember;
 
     public InvLazyGroupElement(LazyGroup group, LazyGroupElement base) {
         super(group);
         this.base = base;
+        this.isKnownMember = base.isKnownMember();
     }
 
     @Override
     protected void computeConcreteValue() {
-        setConcreteValue(base.getConcreteValue().inv());
+        setConcreteValue(ProductOfPowers.of(this).compute());
+    }
+
+    @Override
+    protected boolean forEachFactor(BiConsumer<LazyGroupElement, BigInteger> factors) {
+        factors.accept(base, BigInteger.ONE.negate());
+        return true;
+    }
+
+    @Override
+    protected boolean isKnownMember() {
+        return isKnownMember;
     }
 }
@@ -3,19 +3,26 @@ package org.cryptimeleon.math.structures.groups.lazy;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
+import org.cryptimeleon.math.structures.cartesian.Vector;
 import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.GroupElement;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 import org.cryptimeleon.math.structures.groups.GroupImpl;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 import org.cryptimeleon.math.structures.groups.exp.*;
+import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
 import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * A {@link GroupImpl} wrapper implementing deferred (lazy) evaluation for abelian groups with known finite order.
@@ -35,6 +42,11 @@ public class LazyGroup implements Group {
     // and then possibly has to block a long time to wait for the other threads to finish while it could have computed something useful.
     // Honestly, we should try this out in a proper performance test.
 
+    /**
+     * Largest window size {@link #tune(GroupCostProfile)} chooses for exponentiations.
+     */
+    private static final int MAX_TUNED_EXPONENTIATION_WINDOW_SIZE = 10;
+
     int exponentiationWindowSize = 4;
     int precomputationWindowSize = 8;
     @Represented
@@ -45,6 +57,18 @@ public class LazyGroup implements Group {
     GroupElement generator;
     MultiExpAlgorithm selectedMultiExpAlgorithm;
     ExpAlgorithm selectedExpAlgorithm;
+    /**
+     * Number of inversions per group operation, either as estimated by the impl or as measured by {@link #tune()}.
+     */
+    double costInvPerOp;
+    /**
+     * Number of squarings per group operation, 1 unless measured by {@link #tune()}.
+     */
+    double costSquarePerOp = 1;
+    /**
+     * Pool of precomputed random values, or null if disabled.
+     */
+    volatile RandomElementPool randomElementPool = null;
 
     public LazyGroup(GroupImpl impl) {
         this(impl, 4, 8);
@@ -62,10 +86,15 @@ public class LazyGroup implements Group {
         if (size == null || !impl.isCommutative()) {
             throw new IllegalArgumentException("Need commutative cyclic group of finite known order.");
         }
-        generator = wrap(impl.getGenerator());
+        generator = wrapMember(impl.getGenerator());
         isPrimeOrder = size.isProbablePrime(100);
         zn = isPrimeOrder ? new Zp(size) : new Zn(size);
-        if (impl.estimateCostInvPerOp() >= ExponentiationAlgorithms.WNAF_INVERSION_COST_THRESHOLD) {
+        costInvPerOp = impl.estimateCostInvPerOp();
+        selectAlgorithms();
+    }
+
+    private void selectAlgorithms() {
+        if (costInvPerOp >= ExponentiationAlgorithms.WNAF_INVERSION_COST_THRESHOLD) {
             selectedMultiExpAlgorithm = MultiExpAlgorithm.WNAF;
             selectedExpAlgorithm = ExpAlgorithm.WNAF;
         } else {
@@ -90,6 +119,14 @@ public class LazyGroup implements Group {
         return new ConstLazyGroupElement(this, impl);
     }
 
+    /**
+     * Like {@link #wrap(GroupElementImpl)}, for values known to be members of this group (e.g. powers of the
+     * generator), so exponents of expressions involving them can be reduced modulo the group order.
+     */
+    LazyGroupElement wrapMember(GroupElementImpl impl) {
+        return new ConstLazyGroupElement(this, impl, true);
+    }
+
     @Override
     public GroupElement getNeutralElement() {
         return new NeutralLazyGroupElement(this);
@@ -115,11 +152,149 @@ public class LazyGroup implements Group {
         return new RandomNonNeutralGroupElement(this);
     }
 
+    /**
+     * Generates {@code n} uniformly random elements.
+     * <p>
+     * If a pool is enabled (see {@link #enableRandomElementPool(int)}), the pooled elements are used first.
+     * The remaining elements are generated as g^r for random exponents r, where g is {@link #getGenerator()}.
+     * These exponentiations use the cached precomputations of g (which are computed if necessary) and are computed in
+     * parallel. The returned elements are already computed.
+     */
+    @Override
+    public GroupElementVector getUniformlyRandomElements(int n) throws UnsupportedOperationException {
+        RandomElementPool pool = randomElementPool;
+        if (pool == null)
+            return computePowersOfGenerator(zn.getUniformlyRandomElements(n));
+
+        List<GroupElementImpl> pooled = pool.takeElements(n);
+        int numPooled = pooled.size();
+        GroupElementVector remainder = numPooled < n
+                ? computePowersOfGenerator(zn.getUniformlyRandomElements(n - numPooled))
+                : new GroupElementVector();
+        return GroupElementVector.generate(
+                i -> i < numPooled ? wrapMember(pooled.get(i)) : remainder.get(i - numPooled), n);
+    }
+
+    /**
+     * Generates {@code n} uniformly random non-neutral elements.
+     * <p>
+     * For groups of prime order, these are computed like {@link #getUniformlyRandomElements(int)},
+     * with nonzero exponents.
+     */
+    @Override
+    public GroupElementVector getUniformlyRandomNonNeutrals(int n) {
+        if (!isPrimeOrder)
+            return Group.super.getUniformlyRandomNonNeutrals(n);
+        return computePowersOfGenerator(zn.getUniformlyRandomNonzeroElements(n));
+    }
+
+    private GroupElementVector computePowersOfGenerator(RingElementVector exponents) {
+        LazyGroupElement generator = (LazyGroupElement) this.generator;
+        generator.precomputePow();
+        GroupElementImpl base = generator.getConcreteValue();
+        SmallExponentPrecomputation precomputation = generator.getPrecomputedSmallExponents();
+        return GroupElementVector.fromStream(exponents.stream().parallel()
+                .map(exponent -> wrapMember(compute(base, ((Zn.ZnElement) exponent).getInteger(), precomputation))));
+    }
+
+    /**
+     * Returns a uniformly random exponent r together with g^r, where g is {@link #getGenerator()}.
+     * <p>
+     * If a pool is enabled (see {@link #enableRandomElementPool(int)}), the pair is taken from the pool.
+     */
+    public RandomPower getUniformlyRandomPowerOfGenerator() {
+        RandomElementPool pool = randomElementPool;
+        if (pool != null)
+            return pool.takePower();
+        Zn.ZnElement exponent = zn.getUniformlyRandomElement();
+        return new RandomPower(exponent, generator.pow(exponent));
+    }
+
+    /**
+     * Returns a uniformly random element of the underlying group, taken from the pool if one is enabled.
+     */
+    GroupElementImpl getUniformlyRandomElementImpl() {
+        RandomElementPool pool = randomElementPool;
+        return pool != null ? pool.takeElement() : impl.getUniformlyRandomElement();
+    }
+
+    /**
+     * Enables a pool of random elements and random powers of the generator for this group, which is refilled in the
+     * background (see {@link RandomElementPool}).
+     * <p>
+     * Afterwards, {@link #getUniformlyRandomElement()}, {@link #getUniformlyRandomNonNeutral()} and
+     * {@link #getUniformlyRandomPowerOfGenerator()} take their values from the pool, such that they are
+     * (usually) not computed on the caller's critical path.
+     * Replaces (and discards) a previously enabled pool.
+     *
+     * @param capacity the maximal number of random powers (and, separately, random elements) to hold
+     * @return the pool, e.g. to observe its state
+     */
+    public synchronized RandomElementPool enableRandomElementPool(int capacity) {
+        RandomElementPool pool = new RandomElementPool(this, capacity);
+        disableRandomElementPool();
+        randomElementPool = pool;
+        return pool;
+    }
+
+    /**
+     * Disables the pool of random values (if enabled) and discards the pooled values.
+     */
+    public synchronized void disableRandomElementPool() {
+        if (randomElementPool != null) {
+            randomElementPool.close();
+            randomElementPool = null;
+        }
+    }
+
+    /**
+     * Returns the pool of random values of this group, if enabled.
+     */
+    public Optional<RandomElementPool> getRandomElementPool() {
+        return Optional.ofNullable(randomElementPool);
+    }
+
     @Override
     public GroupElement restoreElement(Representation repr) {
         return wrap(impl.restoreElement(repr));
     }
 
+    @Override
+    public boolean isMember(GroupElement element) {
+        return impl.isMember(((LazyGroupElement) element).getConcreteValue());
+    }
+
+    @Override
+    public boolean areMembers(Vector<? extends GroupElement> elements) {
+        return impl.areMembers(elements.stream().parallel()
+                .map(element -> ((LazyGroupElement) element).getConcreteValue())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The element is restored and validated when its value is first needed.
+     */
+    @Override
+    public GroupElement restoreValidatedElement(Representation repr) {
+        return new ValidatedLazyGroupElement(this,
+                new ValidatedLazyGroupElement.Batch(this, Collections.singletonList(repr)), 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements are restored and validated together (see {@link GroupImpl#areMembers(List)}) when the value
+     * of any of them is first needed.
+     */
+    @Override
+    public GroupElementVector restoreValidatedVector(Representation repr) {
+        List<Representation> representations = repr.list().getList();
+        ValidatedLazyGroupElement.Batch batch = new ValidatedLazyGroupElement.Batch(this, representations);
+        return GroupElementVector.generate(i -> new ValidatedLazyGroupElement(this, batch, i), representations.size());
+    }
+
     @Override
     public GroupElement getGenerator() throws UnsupportedOperationException {
         return generator;
@@ -130,6 +305,21 @@ public class LazyGroup implements Group {
         return impl.getUniqueByteLength();
     }
 
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        return impl.getFixedEncodingLength();
+    }
+
+    @Override
+    public void encodeFixedLength(GroupElement element, ByteBuffer out) {
+        impl.encodeFixedLength(((LazyGroupElement) element).getConcreteValue(), out);
+    }
+
+    @Override
+    public GroupElement decodeFixedLength(ByteBuffer in) {
+        return wrap(impl.decodeFixedLength(in));
+    }
+
     @Override
     public boolean isCommutative() {
         return true;
@@ -163,6 +353,26 @@ public class LazyGroup implements Group {
         return "Lazy "+impl.toString();
     }
 
+    /**
+     * Returns whether the given elements of this group are equal.
+     * <p>
+     * If neither value is supposed to be computed anyway, this computes lhs * rhs^(-1) as a single
+     * (multi-)exponentiation and checks whether it is the neutral element, instead of computing both values.
+     */
+    boolean areEqual(LazyGroupElement lhs, LazyGroupElement rhs) {
+        if (lhs == rhs)
+            return true;
+        if (!lhs.isDefinitelySupposedToGetConcreteValue() && !rhs.isDefinitelySupposedToGetConcreteValue()) {
+            ProductOfPowers quotient = new ProductOfPowers(this);
+            quotient.put(lhs, BigInteger.ONE);
+            quotient.put(rhs, BigInteger.ONE.negate());
+            quotient.rewrite();
+            if (quotient.needsExponentiation()) //otherwise, comparing the values is just as cheap
+                return quotient.compute().isNeutralElement();
+        }
+        return lhs.getConcreteValue().equals(rhs.getConcreteValue());
+    }
+
     public GroupElementImpl compute(Multiexponentiation multiexp) {
         if (multiexp.isEmpty())
             return impl.getNeutralElement();
@@ -173,24 +383,18 @@ public class LazyGroup implements Group {
             case SLIDING:
                 return ExponentiationAlgorithms.interleavingSlidingWindowMultiExp(
                         multiexp,
-                        Math.max(
-                                exponentiationWindowSize,
-                                multiexp.computeMinPrecomputedWindowSize(MultiExpAlgorithm.SLIDING)
-                        )
+                        multiexp.computeWindowSizes(MultiExpAlgorithm.SLIDING, exponentiationWindowSize, costInvPerOp,
+                                costSquarePerOp)
                 );
             case WNAF:
                 return ExponentiationAlgorithms.interleavingWnafMultiExp(
                         multiexp,
-                        Math.max(
-                                exponentiationWindowSize,
-                                multiexp.computeMinPrecomputedWindowSize(MultiExpAlgorithm.WNAF)
-                        )
+                        multiexp.computeWindowSizes(MultiExpAlgorithm.WNAF, exponentiationWindowSize, costInvPerOp,
+                                costSquarePerOp)
                 );
             default:
                 throw new IllegalStateException("Unsupported MultiExpAlgorithm " + selectedMultiExpAlgorithm);
         }
-        //TODO some multiexponentiation algorithms may be able to handle different windows sizes for each base.
-        // Generally, using the minimum for window size is "safe", but not necessarily clever performance-wise. Example: \prod h_i^x_i * (g^a)^b. The latter has no precomputation at all (even if g may have it), so ...
     }
 
     public GroupElementImpl compute(GroupElementImpl base, BigInteger exponent, SmallExponentPrecomputation precomputation) {
@@ -209,6 +413,43 @@ public class LazyGroup implements Group {
         }
     }
 
+    /**
+     * Measures the costs of the operations of the underlying group on this machine and tunes the exponentiation
+     * parameters accordingly (see {@link #tune(GroupCostProfile)}).
+     * <p>
+     * Measuring takes a fraction of a second. To avoid repeating it, the returned profile can be stored
+     * (via its representation) and applied in later runs via {@link #tune(GroupCostProfile)}.
+     *
+     * @return the measured profile
+     */
+    public GroupCostProfile tune() {
+        GroupCostProfile profile = GroupCostProfile.measure(impl);
+        tune(profile);
+        return profile;
+    }
+
+    /**
+     * Tunes the exponentiation parameters of this group to the given (measured) costs of the underlying group.
+     * <p>
+     * This selects wNAF or sliding window exponentiation depending on the cost of inversions
+     * (instead of {@link GroupImpl#estimateCostInvPerOp()}), and sets the exponentiation window size to the one
+     * minimizing the cost of an exponentiation with exponents of the size of the group order
+     * (taking the costs of inversions and squarings into account).
+     * The window sizes of individual multi-exponentiation terms are chosen on each multi-exponentiation
+     * (up to the exponentiation window size), also based on the given costs.
+     * <p>
+     * Cached precomputations are not affected, i.e. the precomputation window size stays as it is.
+     *
+     * @param profile the costs of the underlying group, e.g. as measured by {@link #tune()}
+     */
+    public void tune(GroupCostProfile profile) {
+        costInvPerOp = profile.getCostInvPerOp();
+        costSquarePerOp = profile.getCostSquarePerOp();
+        selectAlgorithms();
+        exponentiationWindowSize = ExponentiationAlgorithms.chooseWindowSize(selectedMultiExpAlgorithm,
+                size.bitLength(), 1, 0, costInvPerOp, costSquarePerOp, MAX_TUNED_EXPONENTIATION_WINDOW_SIZE);
+    }
+
     /**
      * Returns the window size used for the non-cached precomputations computed during the exponentiation algorithm.
      */
@@ -224,6 +465,8 @@ public class LazyGroup implements Group {
      * exponentiation. As the precomputations affected by this variable are only temporarily stored during execution
      * of the exponentiation algorithm, we do not recommend setting this too high as the cost of computing the
      * whole window quickly exceeds its performance benefits during the actual exponentiation.
+     * For multi-exponentiations, this is the maximal window size; smaller windows are chosen for terms
+     * where they are cheaper (e.g. short exponents), and bases with larger cached precomputations use those.
      * <p>
      * If you want to change the number of cached precomputations, use {@link this#setPrecomputationWindowSize(int)}.
      */
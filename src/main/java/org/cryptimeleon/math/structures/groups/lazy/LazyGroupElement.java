@@ -6,13 +6,19 @@ import org.cryptimeleon.math.structures.Element;
 import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.GroupElement;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
-import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
 import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
 
 import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Abstract class providing the base for different lazy group operation results.
@@ -123,25 +129,114 @@ public abstract class LazyGroupElement implements GroupElement {
      * If it is in the process of being computed, this blocks until the value is ready.
      */
     protected GroupElementImpl getConcreteValue() {
+        ComputationState state = computationState;
+        if (state == ComputationState.DONE)
+            return concreteValue;
+        if (state != ComputationState.IN_PROGRESS)
+            computeDependencies();
+        return computeOrWait();
+    }
+
+    /**
+     * Computes the concrete value of this LazyGroupElement (or waits for another thread computing it),
+     * assuming that the elements it depends on have been taken care of by {@link #computeDependencies()}.
+     */
+    private GroupElementImpl computeOrWait() {
         if (computationState == ComputationState.IN_PROGRESS) { //someone else is already computing this. We'll just wait for that to finish.
             try {
                 futureConcreteValue.get();
-            } catch (InterruptedException | ExecutionException e) {
-                e.printStackTrace();
+            } catch (ExecutionException e) { //the computing thread failed, fail the same way (see below)
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw new RuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new RuntimeException(e);
             }
         } else if (computationState != ComputationState.DONE) { //there's something for us to do
             //Note on concurrency: potentially multiple threads may (probably very rarely) reach this stage. But that's fine, both would just compute the same value.
             futureConcreteValue = new CompletableFuture<>(); //set up Future for other threads to wait on if they need the value we're going to compute
             computationState = ComputationState.IN_PROGRESS; //mark computation IN_PROGRESS. Because computationState is volatile, if any thread reads this state, the futureConcreteValue is also already set.
-            computeConcreteValue(); //actually compute the value of this LazyGroupElement. Goal for this call is to run setConcreteValue().
-            // This may block for some time if it depends on some value that's also already IN_PROGRESS (but there is no way this results in a deadlock because of the non-cyclic nature of these computations).
+            try {
+                computeConcreteValue(); //actually compute the value of this LazyGroupElement. Goal for this call is to run setConcreteValue().
+                // This may block for some time if it depends on some value that's also already IN_PROGRESS (but there is no way this results in a deadlock because of the non-cyclic nature of these computations).
+            } catch (RuntimeException | Error e) { //e.g. an invalid restored element (see ValidatedLazyGroupElement). Don't leave waiting threads hanging.
+                computationState = ComputationState.NOTHING;
+                futureConcreteValue.completeExceptionally(e);
+                throw e;
+            }
             futureConcreteValue.complete(this); //wake up anyone waiting for us to finish.
         }
 
         return concreteValue;
     }
 
+    /**
+     * Computes the concrete values of all elements that computing this element's value will need
+     * (i.e. the bases of its {@link ProductOfPowers}, the arguments of pairings, ...), deepest first.
+     * <p>
+     * Without this, computing an element that depends on a long chain of elements whose values are needed
+     * (e.g. a chain of requested intermediate results) would recurse along the chain and overflow the stack.
+     * Here, the dependencies are traversed with an explicit stack instead, such that computing each of them only
+     * recurses into elements that are already computed.
+     */
+    private void computeDependencies() {
+        IdentityHashMap<LazyGroupElement, Boolean> visited = new IdentityHashMap<>();
+        Deque<DependencyFrame> stack = new ArrayDeque<>();
+        visited.put(this, true);
+        stack.push(new DependencyFrame(this, true));
+        while (!stack.isEmpty()) {
+            DependencyFrame frame = stack.peek();
+            if (frame.next < frame.children.size()) {
+                LazyGroupElement child = frame.children.get(frame.next);
+                boolean childIsTarget = frame.next >= frame.numberOfFactors //dependencies are always needed
+                        || child.isDefinitelySupposedToGetConcreteValue(); //factors only if they are not expanded
+                frame.next++;
+                if (child.computationState != ComputationState.DONE && visited.put(child, true) == null)
+                    stack.push(new DependencyFrame(child, childIsTarget));
+            } else {
+                stack.pop();
+                if (frame.isTarget && frame.element != this)
+                    frame.element.computeOrWait();
+            }
+        }
+    }
+
+    /**
+     * An element visited by {@link #computeDependencies()}.
+     */
+    private static class DependencyFrame {
+        final LazyGroupElement element;
+        /**
+         * Whether the element's concrete value needs to be computed (otherwise, the element is just expanded when
+         * computing an element that has it as a factor).
+         */
+        final boolean isTarget;
+        /**
+         * The factors of the element (see {@link #forEachFactor(BiConsumer)}), followed by its dependencies
+         * (see {@link #forEachDependency(Consumer)}).
+         */
+        final List<LazyGroupElement> children = new ArrayList<>();
+        final int numberOfFactors;
+        int next = 0;
+
+        DependencyFrame(LazyGroupElement element, boolean isTarget) {
+            this.element = element;
+            if (element.computationState == ComputationState.IN_PROGRESS) { //someone else takes care of it
+                this.isTarget = true;
+                this.numberOfFactors = 0;
+                return;
+            }
+            boolean isExpandable = element.forEachFactor((factor, exponent) -> children.add(factor));
+            this.isTarget = isTarget || !isExpandable;
+            this.numberOfFactors = children.size();
+            if (this.isTarget)
+                element.forEachDependency(children::add);
+        }
+    }
+
     /**
      * Generally, when computing the value of some LazyGroupElement, there is no need to compute the values of all LazyGroupElements
      * related to it on the way. One example of this is multiexponentiation, where the element g^a * h^b generally should be computed
@@ -166,16 +261,37 @@ public abstract class LazyGroupElement implements GroupElement {
     protected abstract void computeConcreteValue();
 
     /**
-     * Writes down the value of this group element as a multiexponentiation.
-     * Implementors shall return a value h and put values g_i^x_i into multiexp such that
-     * h * product(g_i^x_i) is the value of this LazyGroupElement.
-     * For h = 1, return null.
+     * Writes down the value of this group element as a product of powers of other LazyGroupElements.
+     * Implementors shall call {@code factors} with pairs (g_i, x_i) such that product(g_i^x_i) is the value of
+     * this LazyGroupElement and return true.
+     * Elements that cannot be written that way (e.g., random elements or pairing results) return false
+     * without calling {@code factors}.
      *
-     * Yes, this is slightly weird from an API design perspective, but it's for the sake of
-     * (probably premature) optimization.
+     * This is used by {@link ProductOfPowers} to rewrite whole expressions into a single multiexponentiation.
+     */
+    protected boolean forEachFactor(BiConsumer<LazyGroupElement, BigInteger> factors) {
+        return false; //subclasses shall overwrite if they can be expressed in terms of other elements.
+    }
+
+    /**
+     * Calls {@code dependencies} for all elements (other than the factors from {@link #forEachFactor(BiConsumer)})
+     * whose concrete value computeConcreteValue() needs, e.g. the arguments of a pairing.
+     */
+    protected void forEachDependency(Consumer<LazyGroupElement> dependencies) {
+        //no dependencies by default
+    }
+
+    /**
+     * Returns whether this element is known to be a member of its group, i.e. it was generated within the group
+     * (e.g. random elements and hash results), validated, or computed from such elements only.
+     * Elements restored without validation may lie outside the group, so {@link ProductOfPowers} does not reduce
+     * their exponents modulo the group order.
+     * <p>
+     * Subclasses derived from other elements shall determine this on construction, so it is cheap for deep
+     * expressions.
      */
-    protected GroupElementImpl accumulateMultiexp(Multiexponentiation multiexp) {
-        return getConcreteValue(); //subclasses shall overwrite if they have better ideas than this naive way.
+    protected boolean isKnownMember() {
+        return false;
     }
 
     public SmallExponentPrecomputation getPrecomputedSmallExponents() {
@@ -196,7 +312,7 @@ public abstract class LazyGroupElement implements GroupElement {
         if (!(o instanceof LazyGroupElement)) return false;
         LazyGroupElement that = (LazyGroupElement) o;
         if (!group.equals(that.group)) return false;
-        return getConcreteValue().equals(that.getConcreteValue());
+        return group.areEqual(this, that);
     }
 
     @Override
@@ -1,8 +1,5 @@
 package org.cryptimeleon.math.structures.groups.lazy;
 
-import org.cryptimeleon.math.structures.groups.GroupElementImpl;
-import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
-
 /**
  * Represents the neutral group element in the lazy evaluation framework.
  */
@@ -17,8 +14,7 @@ class NeutralLazyGroupElement extends LazyGroupElement {
     }
 
     @Override
-    protected GroupElementImpl accumulateMultiexp(Multiexponentiation multiexp) {
-        //Nothing to do here.
-        return null;
+    protected boolean isKnownMember() {
+        return true;
     }
 }
@@ -1,59 +1,89 @@
 package org.cryptimeleon.math.structures.groups.lazy;
 
-import org.cryptimeleon.math.structures.groups.GroupElementImpl;
-import org.cryptimeleon.math.structures.groups.exp.MultiExpTerm;
-import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
-
-import java.util.List;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
 
 /**
  * Represents the result of a group operation.
+ * <p>
+ * To keep long products (such as {@code acc = acc.op(x_i.pow(e_i))} in a loop) flat, a product of n factors
+ * multiplied with another element becomes a product of n+1 factors instead of a product of two factors.
+ * Those products share the same list of factors, which is only appended to.
  */
 class OpLazyGroupElement extends LazyGroupElement {
-    LazyGroupElement lhs, rhs;
-    GroupElementImpl accumulatedConstant = null;
-    List<MultiExpTerm> terms = null;
-    int firstTermIndex = -1, lastTermIndex = -1;
+    /**
+     * The factors of this product are the first numberOfFactors entries of factors.
+     */
+    private final Factors factors;
+    private final int numberOfFactors;
+    private final boolean isKnownMember;
 
     public OpLazyGroupElement(LazyGroup group, LazyGroupElement lhs, LazyGroupElement rhs) {
         super(group);
-        this.lhs = lhs;
-        this.rhs = rhs;
+        // Extend lhs's product if we're the first to do so (and lhs won't be computed anyway, in which case we'd
+        // rather use its value)
+        if (lhs instanceof OpLazyGroupElement && !lhs.isDefinitelySupposedToGetConcreteValue()
+                && ((OpLazyGroupElement) lhs).factors.append(((OpLazyGroupElement) lhs).numberOfFactors, rhs)) {
+            factors = ((OpLazyGroupElement) lhs).factors;
+            numberOfFactors = ((OpLazyGroupElement) lhs).numberOfFactors + 1;
+        } else {
+            factors = new Factors(lhs, rhs);
+            numberOfFactors = 2;
+        }
+        isKnownMember = lhs.isKnownMember() && rhs.isKnownMember();
     }
 
     @Override
     protected void computeConcreteValue() {
-        Multiexponentiation multiexp = new Multiexponentiation();
-        multiexp.put(this.accumulateMultiexp(multiexp)); //[sic!] adding the constant returned by accumulateMultiexp to the whole thing
+        setConcreteValue(ProductOfPowers.of(this).compute());
+    }
 
-        setConcreteValue(group.compute(multiexp));
+    @Override
+    protected boolean forEachFactor(BiConsumer<LazyGroupElement, BigInteger> factors) {
+        LazyGroupElement[] elements = this.factors.getElements();
+        for (int i = 0; i < numberOfFactors; i++)
+            factors.accept(elements[i], BigInteger.ONE);
+        return true;
     }
 
     @Override
-    protected GroupElementImpl accumulateMultiexp(Multiexponentiation multiexp) {
-        if (isComputed()) //we already know the exact value. Use that.
-            return getConcreteValue();
-
-        if (terms != null) { //accumulation was already computed earlier. Reusing those instead of descending into the children
-            for (int i=firstTermIndex;i<=lastTermIndex;i++)
-                multiexp.put(terms.get(i));
-            return accumulatedConstant;
+    protected boolean isKnownMember() {
+        return isKnownMember;
+    }
+
+    /**
+     * Append-only list of factors shared by products.
+     */
+    private static class Factors {
+        private LazyGroupElement[] elements;
+        private int size;
+
+        Factors(LazyGroupElement lhs, LazyGroupElement rhs) {
+            elements = new LazyGroupElement[] {lhs, rhs};
+            size = 2;
         }
 
-        //Value is not yet cached. Accumulate it.
-        firstTermIndex = multiexp.getNumberOfTerms();
-        GroupElementImpl lhsConstant = lhs.isDefinitelySupposedToGetConcreteValue() ? lhs.getConcreteValue() : lhs.accumulateMultiexp(multiexp);
-        GroupElementImpl rhsConstant = rhs.isDefinitelySupposedToGetConcreteValue() ? rhs.getConcreteValue() : rhs.accumulateMultiexp(multiexp);
-        accumulatedConstant = lhsConstant == null ? rhsConstant : (rhsConstant == null ? lhsConstant : lhsConstant.op(rhsConstant));
-        lastTermIndex = multiexp.getNumberOfTerms()-1;
-
-        if (firstTermIndex <= lastTermIndex) //this value depends on the result of some multiexponentiation stuff.
-            this.terms = multiexp.getTerms(); //cache it for later
-        else if (accumulatedConstant != null)
-            setConcreteValue(accumulatedConstant); //we haven't added anything to the multiexp. So we know the proper concrete value of this already.
-        else
-            setConcreteValue(group.impl.getNeutralElement());
-
-        return accumulatedConstant;
+        /**
+         * Appends the given element if this list currently has the given size.
+         *
+         * @return true if the element was appended, false if the list has been appended to by someone else
+         */
+        synchronized boolean append(int expectedSize, LazyGroupElement element) {
+            if (size != expectedSize)
+                return false;
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, 2 * size);
+            elements[size++] = element;
+            return true;
+        }
+
+        /**
+         * Returns the current array backing this list.
+         * Entries below the size of a product using this list are never changed.
+         */
+        synchronized LazyGroupElement[] getElements() {
+            return elements;
+        }
     }
 }
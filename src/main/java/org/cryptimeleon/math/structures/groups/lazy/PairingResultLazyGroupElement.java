@@ -2,18 +2,22 @@ package org.cryptimeleon.math.structures.groups.lazy;
 
 import org.cryptimeleon.math.structures.groups.GroupElement;
 
+import java.util.function.Consumer;
+
 /**
  * Represents the result of a pairing evaluation.
  */
 class PairingResultLazyGroupElement extends LazyGroupElement {
     protected LazyGroupElement lhs, rhs;
     protected LazyBilinearMap bilMap;
+    private final boolean isKnownMember;
 
     public PairingResultLazyGroupElement(LazyGroup gt, LazyBilinearMap bilMap, GroupElement lhs, GroupElement rhs) {
         super(gt);
         this.lhs = (LazyGroupElement) lhs;
         this.rhs = (LazyGroupElement) rhs;
         this.bilMap = bilMap;
+        this.isKnownMember = this.lhs.isKnownMember() && this.rhs.isKnownMember();
     }
 
     @Override
@@ -21,4 +25,15 @@ class PairingResultLazyGroupElement extends LazyGroupElement {
         setConcreteValue(bilMap.impl.apply(lhs.getConcreteValue(), rhs.getConcreteValue()));
         //TODO optimize: (1) draw exponents e(g,h)^x into e(g^x, h). (2) A product e(g,h)*e(g2,h2)*... can share the final exponentiation. (3) precomputation of pairings
     }
+
+    @Override
+    protected void forEachDependency(Consumer<LazyGroupElement> dependencies) {
+        dependencies.accept(lhs);
+        dependencies.accept(rhs);
+    }
+
+    @Override
+    protected boolean isKnownMember() {
+        return isKnownMember;
+    }
 }
@@ -0,0 +1,228 @@
+package org.cryptimeleon.math.structures.groups.lazy;
+
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.exp.MultiExpTerm;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Rewrites an expression of {@link LazyGroupElement}s into a product prod(g_i^x_i) of distinct bases g_i.
+ * <p>
+ * Starting from the given elements, all elements that can be written in terms of other elements
+ * (see {@link LazyGroupElement#forEachFactor}) are expanded, such that
+ * <ul>
+ *     <li>nested exponentiations (g^a)^b become g^(a*b),</li>
+ *     <li>exponents are distributed over group operations, i.e. (g^a * h^b)^c becomes g^(a*c) * h^(b*c),</li>
+ *     <li>inversions become negated exponents, and</li>
+ *     <li>multiple occurrences of the same base are merged by adding their exponents.</li>
+ * </ul>
+ * If all given elements are known to be members of the group (see {@link LazyGroupElement#isKnownMember()}),
+ * exponent arithmetic is done modulo the group order.
+ * Otherwise, exponents are not reduced, since g^size is not the neutral element for values g outside of the group.
+ * Elements whose concrete value is (or is supposed to be) computed anyway are not expanded but used as bases.
+ * <p>
+ * Subexpressions that occur multiple times in the expression are expanded once (the expression is treated as a DAG),
+ * so rewriting takes time linear in the size of the expression.
+ */
+class ProductOfPowers {
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    private final LazyGroup group;
+    private final IdentityHashMap<LazyGroupElement, Node> nodes = new IdentityHashMap<>();
+    private final List<Node> roots = new ArrayList<>();
+    private final IdentityHashMap<LazyGroupElement, BigInteger> bases = new IdentityHashMap<>();
+    private final List<LazyGroupElement> baseOrder = new ArrayList<>();
+    private boolean reduceExponents = false;
+
+    ProductOfPowers(LazyGroup group) {
+        this.group = group;
+    }
+
+    /**
+     * Returns the rewritten form of the given element.
+     */
+    static ProductOfPowers of(LazyGroupElement element) {
+        ProductOfPowers result = new ProductOfPowers(element.group);
+        result.put(element, BigInteger.ONE);
+        result.rewrite();
+        return result;
+    }
+
+    /**
+     * Multiplies element^exponent into this product.
+     * The given element is always expanded (if possible), even if its concrete value is supposed to be computed.
+     * Call {@link #rewrite()} after adding all elements.
+     */
+    void put(LazyGroupElement element, BigInteger exponent) {
+        Node node = nodes.get(element);
+        if (node == null) {
+            node = new Node(element);
+            nodes.put(element, node);
+            roots.add(node);
+        }
+        node.exponent = node.exponent.add(exponent);
+    }
+
+    /**
+     * Expands the elements given via {@link #put(LazyGroupElement, BigInteger)} and collects the exponents of the
+     * resulting bases.
+     */
+    void rewrite() {
+        // Products of members are members, so the roots' membership covers every element of the expression
+        reduceExponents = roots.stream().allMatch(root -> root.element.isKnownMember());
+
+        // Collect all expandable elements and count how often each element occurs as a factor of some other element
+        List<Node> expanded = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node root : roots) {
+            if (!root.visited) {
+                root.visited = true;
+                expand(root, true);
+                stack.push(root);
+            }
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.factors == null) //not expanded, i.e. a base
+                continue;
+            expanded.add(node);
+            for (Node factor : node.factors) {
+                factor.numberOfParents++;
+                if (!factor.visited) {
+                    factor.visited = true;
+                    expand(factor, false);
+                    stack.push(factor);
+                }
+            }
+        }
+
+        // Propagate exponents in topological order, i.e. an element's exponent is final once all its parents are done
+        Deque<Node> ready = new ArrayDeque<>();
+        for (Node node : expanded)
+            if (node.numberOfParents == 0)
+                ready.add(node);
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            for (int i = 0; i < node.factors.size(); i++) {
+                Node factor = node.factors.get(i);
+                factor.exponent = reduce(factor.exponent.add(node.exponent.multiply(node.factorExponents.get(i))));
+                if (--factor.numberOfParents == 0) {
+                    if (factor.factors != null)
+                        ready.add(factor);
+                    else
+                        putBase(factor);
+                }
+            }
+        }
+        for (Node root : roots)
+            if (root.factors == null && root.numberOfParents == 0)
+                putBase(root);
+
+        nodes.clear();
+        roots.clear();
+    }
+
+    private BigInteger reduce(BigInteger exponent) {
+        return reduceExponents ? exponent.mod(group.size) : exponent;
+    }
+
+    private void putBase(Node node) {
+        BigInteger exponent = reduce(node.exponent);
+        if (exponent.signum() == 0)
+            return;
+        // use the representative with the smallest absolute value, which benefits (e.g.) x^-1 = x^(n-1)
+        if (reduceExponents && exponent.shiftLeft(1).compareTo(group.size) > 0)
+            exponent = exponent.subtract(group.size);
+        if (bases.put(node.element, exponent) == null)
+            baseOrder.add(node.element);
+    }
+
+    /**
+     * Returns whether computing this product involves a (multi-)exponentiation,
+     * i.e. whether the exponent of some base is not in {-2, -1, 1, 2} (see {@link #compute()}).
+     */
+    boolean needsExponentiation() {
+        for (BigInteger exponent : bases.values())
+            if (!isSmall(exponent))
+                return true;
+        return false;
+    }
+
+    private static boolean isSmall(BigInteger exponent) {
+        return exponent.abs().compareTo(TWO) <= 0;
+    }
+
+    /**
+     * Computes the value of this product.
+     * <p>
+     * Bases with exponent +-1 or +-2 are multiplied (or squared) directly, everything else is computed as a single
+     * (multi-)exponentiation.
+     */
+    GroupElementImpl compute() {
+        Multiexponentiation multiexp = new Multiexponentiation();
+        GroupElementImpl constant = null;
+        for (LazyGroupElement base : baseOrder) {
+            BigInteger exponent = bases.get(base);
+            if (isSmall(exponent)) {
+                GroupElementImpl value = base.getConcreteValue();
+                if (exponent.abs().equals(TWO))
+                    value = value.square();
+                if (exponent.signum() < 0)
+                    value = value.inv();
+                constant = constant == null ? value : constant.op(value);
+            } else {
+                multiexp.put(base.getConcreteValue(), exponent, base.getPrecomputedSmallExponents());
+            }
+        }
+
+        if (multiexp.getNumberOfTerms() == 0)
+            return constant == null ? group.impl.getNeutralElement() : constant;
+        if (constant == null && multiexp.getNumberOfTerms() == 1) {
+            MultiExpTerm term = multiexp.getTerms().get(0);
+            return group.compute(term.getBase(), term.getExponent(), term.getPrecomputation());
+        }
+        if (constant != null)
+            multiexp.put(constant);
+        return group.compute(multiexp);
+    }
+
+    /**
+     * Expands the given node's element unless it is not a root and its value is supposed to be computed anyway.
+     */
+    private void expand(Node node, boolean isRoot) {
+        if (!isRoot && node.element.isDefinitelySupposedToGetConcreteValue())
+            return;
+        List<Node> factors = new ArrayList<>();
+        List<BigInteger> factorExponents = new ArrayList<>();
+        boolean isExpandable = node.element.forEachFactor((element, exponent) -> {
+            factors.add(nodes.computeIfAbsent(element, Node::new));
+            factorExponents.add(exponent);
+        });
+        if (isExpandable) {
+            node.factors = factors;
+            node.factorExponents = factorExponents;
+        }
+    }
+
+    private static class Node {
+        final LazyGroupElement element;
+        BigInteger exponent = BigInteger.ZERO;
+        /**
+         * The factors of element if it is expanded, otherwise null (element is used as a base).
+         */
+        List<Node> factors = null;
+        List<BigInteger> factorExponents = null;
+        int numberOfParents = 0;
+        boolean visited = false;
+
+        Node(LazyGroupElement element) {
+            this.element = element;
+        }
+    }
+}
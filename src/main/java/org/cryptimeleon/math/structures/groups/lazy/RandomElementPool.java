@@ -0,0 +1,218 @@
+package org.cryptimeleon.math.structures.groups.lazy;
+
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of random group elements and random powers (r, g^r) of the generator g of some {@link LazyGroup},
+ * which is refilled in the background.
+ * <p>
+ * Generating these values (in particular the exponentiation g^r) is moved off the critical path:
+ * whenever the pool runs low, a refill task is submitted to a dedicated low-priority daemon thread, which computes
+ * new values (using the cached precomputations of the generator, i.e. a fixed-base table) until the pool is full.
+ * Hence refills do not occupy the threads of {@link java.util.concurrent.ForkJoinPool#commonPool()}, which runs
+ * lazy computations and parallel streams.
+ * The refill task computes only a few values at a time and then resubmits itself, so the pools of several groups
+ * are refilled in turns.
+ * If the pool is empty, values are generated inline.
+ * <p>
+ * Use {@link LazyGroup#enableRandomElementPool(int)} to create a pool for a group.
+ * Each pooled value is handed out at most once.
+ */
+public class RandomElementPool {
+    /**
+     * Number of random powers (and random elements) computed by a refill task before it resubmits itself.
+     */
+    private static final int REFILL_CHUNK_SIZE = 4;
+    private static final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RandomElementPool refill");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final LazyGroup group;
+    private final LazyGroupElement generator;
+    private final int capacity;
+    private final ArrayBlockingQueue<RandomPower> powers;
+    private final ArrayBlockingQueue<GroupElementImpl> elements;
+    private final AtomicBoolean isRefilling = new AtomicBoolean(false);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean isClosed = false;
+
+    /**
+     * Creates a pool for the given group and starts filling it.
+     *
+     * @param group the group
+     * @param capacity the maximal number of random powers (and, separately, random elements) held by the pool
+     */
+    RandomElementPool(LazyGroup group, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.group = group;
+        this.generator = (LazyGroupElement) group.getGenerator();
+        this.capacity = capacity;
+        this.powers = new ArrayBlockingQueue<>(capacity);
+        this.elements = new ArrayBlockingQueue<>(capacity);
+        requestRefill();
+    }
+
+    /**
+     * Returns a pooled random power of the generator, or computes one if the pool is empty.
+     */
+    RandomPower takePower() {
+        RandomPower result = powers.poll();
+        count(result != null);
+        requestRefill();
+        return result != null ? result : computePower();
+    }
+
+    /**
+     * Returns a pooled random group element, or computes one if the pool is empty.
+     */
+    GroupElementImpl takeElement() {
+        GroupElementImpl result = elements.poll();
+        count(result != null);
+        requestRefill();
+        return result != null ? result : group.impl.getUniformlyRandomElement();
+    }
+
+    /**
+     * Takes up to {@code n} pooled random group elements without generating any inline.
+     * The missing elements count as misses, as the caller generates them.
+     */
+    List<GroupElementImpl> takeElements(int n) {
+        List<GroupElementImpl> result = new ArrayList<>(n);
+        elements.drainTo(result, n);
+        hits.addAndGet(result.size());
+        misses.addAndGet(n - result.size());
+        requestRefill();
+        return result;
+    }
+
+    private void count(boolean isHit) {
+        if (isHit)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+    }
+
+    private RandomPower computePower() {
+        Zn.ZnElement exponent = group.getZn().getUniformlyRandomElement();
+        GroupElementImpl power = group.compute(generator.getConcreteValue(), exponent.getInteger(),
+                generator.getPrecomputedSmallExponents());
+        return new RandomPower(exponent, group.wrapMember(power));
+    }
+
+    /**
+     * Submits a refill task if the pool is at most half full and no refill is running.
+     */
+    private void requestRefill() {
+        if (isClosed || (powers.size() > capacity / 2 && elements.size() > capacity / 2))
+            return;
+        if (isRefilling.compareAndSet(false, true))
+            refillExecutor.submit(this::refill);
+    }
+
+    private boolean isFull() {
+        return powers.remainingCapacity() == 0 && elements.remainingCapacity() == 0;
+    }
+
+    /**
+     * Computes up to {@link #REFILL_CHUNK_SIZE} values of each kind, then resubmits itself unless the pool is full.
+     */
+    private void refill() {
+        boolean isFinished = true;
+        try {
+            generator.precomputePow();
+            for (int i = 0; i < REFILL_CHUNK_SIZE && !isClosed && !isFull(); i++) {
+                if (powers.remainingCapacity() > 0)
+                    powers.offer(computePower());
+                if (elements.remainingCapacity() > 0)
+                    elements.offer(group.impl.getUniformlyRandomElement());
+            }
+            isFinished = isClosed || isFull();
+        } finally {
+            if (isFinished)
+                isRefilling.set(false);
+        }
+        if (!isFinished) {
+            refillExecutor.submit(this::refill); //let other pools' refills run before continuing
+            return;
+        }
+        if (isClosed)
+            clear();
+        else
+            requestRefill(); //values may have been taken while the refill finished
+    }
+
+    /**
+     * Stops refilling and discards all pooled values.
+     */
+    void close() {
+        isClosed = true;
+        clear();
+    }
+
+    private void clear() {
+        powers.clear();
+        elements.clear();
+    }
+
+    /**
+     * Returns the maximal number of random powers (and, separately, random elements) held by this pool.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of random powers currently available.
+     */
+    public int getNumberOfAvailablePowers() {
+        return powers.size();
+    }
+
+    /**
+     * Returns the number of random elements currently available.
+     */
+    public int getNumberOfAvailableElements() {
+        return elements.size();
+    }
+
+    /**
+     * Returns how many values were taken from the pool so far.
+     */
+    public long getNumberOfHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns how many values had to be generated inline because the pool was empty.
+     */
+    public long getNumberOfMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns whether the pool is currently being refilled.
+     */
+    public boolean isRefilling() {
+        return isRefilling.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RandomElementPool{capacity=" + capacity + ", powers=" + powers.size()
+                + ", elements=" + elements.size() + ", hits=" + hits.get() + ", misses=" + misses.get() + "}";
+    }
+}
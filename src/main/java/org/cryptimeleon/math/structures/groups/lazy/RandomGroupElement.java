@@ -15,8 +15,13 @@ class RandomGroupElement extends LazyGroupElement {
     @Override
     protected synchronized void computeConcreteValue() {
         if (value == null)
-            value = group.impl.getUniformlyRandomElement();
+            value = group.getUniformlyRandomElementImpl();
 
         setConcreteValue(value);
     }
+
+    @Override
+    protected boolean isKnownMember() {
+        return true;
+    }
 }
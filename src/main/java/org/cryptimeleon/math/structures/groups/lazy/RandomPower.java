@@ -0,0 +1,33 @@
+package org.cryptimeleon.math.structures.groups.lazy;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+/**
+ * A uniformly random exponent r together with g^r, where g is the generator of some {@link LazyGroup}.
+ *
+ * @see LazyGroup#getUniformlyRandomPowerOfGenerator()
+ */
+public class RandomPower {
+    private final Zn.ZnElement exponent;
+    private final GroupElement power;
+
+    RandomPower(Zn.ZnElement exponent, GroupElement power) {
+        this.exponent = exponent;
+        this.power = power;
+    }
+
+    /**
+     * Returns the random exponent r.
+     */
+    public Zn.ZnElement getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Returns g^r.
+     */
+    public GroupElement getPower() {
+        return power;
+    }
+}
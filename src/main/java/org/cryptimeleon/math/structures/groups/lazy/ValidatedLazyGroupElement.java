@@ -0,0 +1,76 @@
+package org.cryptimeleon.math.structures.groups.lazy;
+
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents an element restored from an untrusted representation, which is restored and validated
+ * (see {@link org.cryptimeleon.math.structures.groups.GroupImpl#isMember(GroupElementImpl)}) when its value
+ * is first needed.
+ * <p>
+ * Elements restored together share a {@link Batch}, such that they are validated at once
+ * (see {@link org.cryptimeleon.math.structures.groups.GroupImpl#areMembers(List)}).
+ */
+class ValidatedLazyGroupElement extends LazyGroupElement {
+    private final Batch batch;
+    private final int index;
+
+    public ValidatedLazyGroupElement(LazyGroup group, Batch batch, int index) {
+        super(group);
+        this.batch = batch;
+        this.index = index;
+    }
+
+    @Override
+    protected void computeConcreteValue() {
+        setConcreteValue(batch.get(index));
+    }
+
+    @Override
+    protected boolean isKnownMember() {
+        return true;
+    }
+
+    /**
+     * Representations of elements that are restored and validated together.
+     */
+    static class Batch {
+        private final LazyGroup group;
+        private List<Representation> representations;
+        private GroupElementImpl[] values = null;
+        private RuntimeException failure = null;
+
+        Batch(LazyGroup group, List<Representation> representations) {
+            this.group = group;
+            this.representations = representations;
+        }
+
+        /**
+         * Returns the validated value of the element with the given index, restoring and validating all elements
+         * of this batch on first call.
+         *
+         * @throws IllegalArgumentException if restoring or validating any of the elements failed
+         */
+        synchronized GroupElementImpl get(int index) {
+            if (values == null && failure == null) {
+                try {
+                    GroupElementImpl[] restored = representations.parallelStream()
+                            .map(group.impl::restoreElement)
+                            .toArray(GroupElementImpl[]::new);
+                    if (!group.impl.areMembers(Arrays.asList(restored)))
+                        throw new IllegalArgumentException("Restored elements are not members of " + group);
+                    values = restored;
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                representations = null; // no longer needed
+            }
+            if (failure != null)
+                throw new IllegalArgumentException("Invalid restored element", failure);
+            return values[index];
+        }
+    }
+}
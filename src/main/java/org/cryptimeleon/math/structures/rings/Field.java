@@ -1,6 +1,7 @@
 package org.cryptimeleon.math.structures.rings;
 
 import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.rings.helpers.FiniteFieldTools;
 
 import java.math.BigInteger;
 
@@ -58,4 +59,16 @@ public interface Field extends Ring {
     default boolean isCommutative() {
         return true;
     }
+
+    /**
+     * Returns some quadratic non-residue of this field, i.e. an element without a square root.
+     * <p>
+     * Used by {@link FieldElement#sqrt()}. The default implementation searches for one on every call,
+     * so implementations should cache it.
+     *
+     * @throws UnsupportedOperationException if the field has no quadratic non-residues (e.g. characteristic 2)
+     */
+    default FieldElement getQuadraticNonResidue() throws UnsupportedOperationException {
+        return FiniteFieldTools.findQuadraticNonResidue(this);
+    }
 }
@@ -1,6 +1,7 @@
 package org.cryptimeleon.math.structures.rings;
 
 import org.cryptimeleon.math.structures.Element;
+import org.cryptimeleon.math.structures.rings.helpers.FiniteFieldTools;
 
 import java.math.BigInteger;
 
@@ -91,4 +92,27 @@ public interface FieldElement extends RingElement {
             result = result.applyFrobenius();
         return result;
     }
+
+    /**
+     * Returns true iff there is a \(y\) in the same field such that \(y^2 = \text{this}\).
+     * <p>
+     * The default implementation uses Euler's criterion.
+     */
+    default boolean isSquare() {
+        return FiniteFieldTools.isSquareByEulerCriterion(this);
+    }
+
+    /**
+     * Computes a square root of this element.
+     * <p>
+     * The default implementation runs Tonelli-Shanks with the field's (cached) quadratic non-residue.
+     *
+     * @return an element \(y\) with \(y^2 = \text{this}\)
+     * @throws ArithmeticException if this element is not a square
+     */
+    default FieldElement sqrt() throws ArithmeticException {
+        if (isZero())
+            return this;
+        return FiniteFieldTools.tonelliShanks(this, getStructure().getQuadraticNonResidue());
+    }
 }
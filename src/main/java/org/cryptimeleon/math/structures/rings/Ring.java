@@ -8,10 +8,12 @@ import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
 
 import java.lang.reflect.Type;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An algebraic ring with 1.
@@ -262,6 +264,40 @@ public interface Ring extends Structure, RepresentationRestorer {
         return result;
     }
 
+    /**
+     * Returns the number of bytes written by {@link #encodeFixedLength(RingElement, ByteBuffer)},
+     * or an empty {@code Optional} if this ring does not support a fixed-length encoding.
+     * <p>
+     * Unlike the unique byte representation, the fixed-length encoding can be decoded
+     * (see {@link #decodeFixedLength(ByteBuffer)}) and contains no padding or separators.
+     */
+    default Optional<Integer> getFixedEncodingLength() {
+        return Optional.empty();
+    }
+
+    /**
+     * Writes exactly {@link #getFixedEncodingLength()} bytes encoding the given element to the given buffer.
+     *
+     * @param element an element of this ring
+     * @param out the buffer to write to (at its position, which is advanced)
+     * @throws UnsupportedOperationException if this ring does not support a fixed-length encoding
+     */
+    default void encodeFixedLength(RingElement element, ByteBuffer out) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+
+    /**
+     * Reads an element encoded by {@link #encodeFixedLength(RingElement, ByteBuffer)}.
+     *
+     * @param in the buffer to read from (at its position, which is advanced)
+     * @return the decoded element
+     * @throws IllegalArgumentException if the bytes do not encode an element of this ring
+     * @throws UnsupportedOperationException if this ring does not support a fixed-length encoding
+     */
+    default RingElement decodeFixedLength(ByteBuffer in) {
+        throw new UnsupportedOperationException(this + " does not support a fixed-length encoding");
+    }
+
     /**
      * Estimates the number of inversions that can be done per group operation for the same cost.
      * For example, {@code 2} would mean that an inversion costs half as much as a group operation, on average.
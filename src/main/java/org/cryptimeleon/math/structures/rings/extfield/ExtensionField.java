@@ -5,10 +5,12 @@ import org.cryptimeleon.math.serialization.*;
 import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.RingElement;
+import org.cryptimeleon.math.structures.rings.helpers.FiniteFieldTools;
 import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +23,8 @@ public class ExtensionField implements Field {
 
     //primitive cube root that is required for cube-root computation,
     private FieldElement cubeRoot = null;
+    //quadratic non-residue that is required for Tonelli-Shanks square roots
+    private ExtensionFieldElement quadraticNonResidue = null;
     protected FieldElement constant;
     protected int extensionDegree;
     protected PolynomialRing.Polynomial definingPolynomial;
@@ -133,6 +137,24 @@ public class ExtensionField implements Field {
         this.cubeRoot = cubeRoot;
     }
 
+    /**
+     * Returns a fixed quadratic non-residue in this field.
+     * <p>
+     * The non-residue is searched for once and cached afterwards.
+     *
+     * @return quadratic non-residue
+     */
+    @Override
+    public ExtensionFieldElement getQuadraticNonResidue() {
+        if (this.quadraticNonResidue == null) {
+            if (isBaseField())
+                this.quadraticNonResidue = createElement(getBaseField().getQuadraticNonResidue());
+            else
+                this.quadraticNonResidue = (ExtensionFieldElement) FiniteFieldTools.findQuadraticNonResidue(this);
+        }
+        return quadraticNonResidue;
+    }
+
     /**
      * Search and set primitive cube root in this field.
      */
@@ -416,4 +438,28 @@ public class ExtensionField implements Field {
     public Optional<Integer> getUniqueByteLength() {
         return constant.getStructure().getUniqueByteLength().map(ubl -> ubl * (extensionDegree + 1)); //number of coefficients
     }
+
+    /**
+     * Returns the length of the fixed-length encoding of elements, i.e. the concatenation of the fixed-length
+     * encodings of their {@link #getExtensionDegree()} coefficients over the base field.
+     */
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        return getBaseField().getFixedEncodingLength().map(length -> length * extensionDegree);
+    }
+
+    @Override
+    public void encodeFixedLength(RingElement element, ByteBuffer out) {
+        FieldElement[] coefficients = ((ExtensionFieldElement) element).getCoefficients();
+        for (int i = 0; i < extensionDegree; i++)
+            getBaseField().encodeFixedLength(i < coefficients.length ? coefficients[i] : getBaseField().getZeroElement(), out);
+    }
+
+    @Override
+    public ExtensionFieldElement decodeFixedLength(ByteBuffer in) {
+        FieldElement[] coefficients = new FieldElement[extensionDegree];
+        for (int i = 0; i < extensionDegree; i++)
+            coefficients[i] = (FieldElement) getBaseField().decodeFixedLength(in);
+        return createElement(coefficients);
+    }
 }
@@ -5,6 +5,7 @@ import org.cryptimeleon.math.hash.UniqueByteRepresentable;
 import org.cryptimeleon.math.serialization.ListRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.Element;
+import org.cryptimeleon.math.structures.rings.Field;
 import org.cryptimeleon.math.structures.rings.FieldElement;
 import org.cryptimeleon.math.structures.rings.RingElement;
 import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
@@ -162,6 +163,83 @@ public class ExtensionFieldElement implements FieldElement, UniqueByteRepresenta
         //return (ExtensionFieldElement) this.pow(getStructure().getCharacteristic());
     }
 
+    /**
+     * Returns the i-th coefficient of this element, which is zero if it is not explicitly stored.
+     */
+    private FieldElement getCoefficient(int i) {
+        return i < coefficients.length ? coefficients[i] : field.getBaseField().getZeroElement();
+    }
+
+    /**
+     * Returns true iff this element is a square.
+     * <p>
+     * For extension degree 1, this is decided in the base field.
+     * For extension degree 2 (and odd characteristic), this is a square iff its norm
+     * \(a_0^2 + c a_1^2\) is a square in the base field, which is much cheaper than Euler's criterion.
+     */
+    @Override
+    public boolean isSquare() {
+        if (field.isBaseField())
+            return getCoefficient(0).isSquare();
+        if (field.getExtensionDegree() == 2 && field.getCharacteristic().testBit(0)) {
+            FieldElement a0 = getCoefficient(0), a1 = getCoefficient(1);
+            return a0.square().add(field.getConstant().mul(a1.square())).isSquare();
+        }
+        return FieldElement.super.isSquare();
+    }
+
+    /**
+     * Computes a square root of this element.
+     * <p>
+     * For extension degree 1, the root is computed in the base field.
+     * For extension degree 2 (and odd characteristic), Scott's "complex method" reduces the computation to
+     * two square roots in the base field.
+     * Otherwise, Tonelli-Shanks with the field's cached quadratic non-residue is used.
+     *
+     * @return an element \(y\) with \(y^2 = \text{this}\)
+     * @throws ArithmeticException if this element is not a square
+     */
+    @Override
+    public ExtensionFieldElement sqrt() throws ArithmeticException {
+        if (field.isBaseField())
+            return field.createElement(getCoefficient(0).sqrt());
+        if (field.getExtensionDegree() == 2 && field.getCharacteristic().testBit(0))
+            return sqrtDegreeTwo();
+        return (ExtensionFieldElement) FieldElement.super.sqrt();
+    }
+
+    /**
+     * Square root for \(a = a_0 + a_1 x\) with \(x^2 = \beta = -c\).
+     * <p>
+     * See M. Scott, "Implementing cryptographic pairings", Section 5.2 (the "complex method"):
+     * A root is \(x_0 + x_1 x\) with \(x_0^2 = \delta = (a_0 \pm \sqrt{a_0^2 - \beta a_1^2}) / 2\) and
+     * \(x_1 = a_1 / (2 x_0)\).
+     */
+    private ExtensionFieldElement sqrtDegreeTwo() {
+        FieldElement a0 = getCoefficient(0), a1 = getCoefficient(1);
+        Field baseField = field.getBaseField();
+
+        if (a1.isZero()) {
+            //every base field element is a square in the extension
+            if (a0.isSquare())
+                return field.createElement(a0.sqrt());
+            //beta is a non-residue (x^2 - beta is irreducible), so a0/beta is a square and (sqrt(a0/beta) x)^2 = a0
+            FieldElement beta = field.getConstant().neg();
+            return field.createElement(baseField.getZeroElement(), a0.div(beta).sqrt());
+        }
+
+        //norm a0^2 - beta a1^2 must be a square, otherwise this is not a square
+        FieldElement alpha = a0.square().add(field.getConstant().mul(a1.square())).sqrt();
+        FieldElement twoInv = baseField.getElement(2).inv();
+        FieldElement delta = a0.add(alpha).mul(twoInv);
+        if (!delta.isSquare())
+            delta = a0.sub(alpha).mul(twoInv);
+
+        FieldElement x0 = delta.sqrt();
+        FieldElement x1 = a1.div(x0.add(x0));
+        return field.createElement(x0, x1);
+    }
+
     @Override
     public ExtensionField getStructure() {
         return this.field;
@@ -12,8 +12,20 @@ public abstract class FiniteFieldTools {
 
     /**
      * Returns true iff there is an \(y\) in the same field such that \(y^2 = x\).
+     * <p>
+     * Delegates to {@link FieldElement#isSquare()}, so fields with a faster test (e.g. a Jacobi symbol computation
+     * in \(\mathbb{Z}_p\)) use it automatically.
      */
     public static boolean isSquare(FieldElement x) {
+        return x.isSquare();
+    }
+
+    /**
+     * Returns true iff there is an \(y\) in the same field such that \(y^2 = x\), decided via Euler's criterion.
+     * <p>
+     * This works in every finite field of odd characteristic, but costs a full exponentiation.
+     */
+    public static boolean isSquareByEulerCriterion(FieldElement x) {
         if (x.isZero())
             return true;
 
@@ -32,33 +44,47 @@ public abstract class FiniteFieldTools {
 
     /**
      * Computes the square root of the given element.
+     * <p>
+     * Delegates to {@link FieldElement#sqrt()}, which picks the best method available for the element's field.
+     *
+     * @throws ArithmeticException if the element is not a square
      */
     public static FieldElement sqrt(FieldElement element) {
-        if (!isSquare(element)) {
-            throw new ArithmeticException(element + "is not a square");
-        }
+        return element.sqrt();
+    }
 
+    /**
+     * Searches for a quadratic non-residue in the given field by sampling random elements.
+     * <p>
+     * Fields should cache the result, see {@link Field#getQuadraticNonResidue()}.
+     */
+    public static FieldElement findQuadraticNonResidue(Field field) {
+        FieldElement z;
+        do {
+            z = field.getUniformlyRandomElement();
+        } while (z.isZero() || z.isSquare());
+        return z;
+    }
+
+    /**
+     * Computes the square root of the given element using the Tonelli-Shanks algorithm.
+     *
+     * @param element the element to compute the square root of
+     * @param quadraticNonResidue some quadratic non-residue in the element's field
+     * @return an element \(r\) with \(r^2 = \text{element}\)
+     * @throws ArithmeticException if the element is not a square
+     */
+    public static FieldElement tonelliShanks(FieldElement element, FieldElement quadraticNonResidue) {
         if (element.isZero())
             return element;
 
         /* order of multiplicative group of the field */
         Field field = element.getStructure();
         BigInteger q = field.sizeUnitGroup();
-        FieldElement t, r;
-
-        /* implementation of Tonelli-Shanks */
-
-        FieldElement z = field.getOneElement();
+        FieldElement t, r, z;
 
         int m;
 
-        /*
-         * search non-deterministically for QNR
-         */
-        do {
-            z = field.getUniformlyRandomElement();
-        } while (isSquare(z) || z.isZero());
-
         int s = 0;
 
         while (!q.testBit(0)) {
@@ -66,7 +92,7 @@ public abstract class FiniteFieldTools {
             s++;
         }
 
-        z = z.pow(q);
+        z = quadraticNonResidue.pow(q);
 
         r = element.pow((q.add(BigInteger.valueOf(1)).divide(BigInteger.valueOf(2))));
 
@@ -81,6 +107,9 @@ public abstract class FiniteFieldTools {
                 i++;
                 t_squared = t_squared.mul(t_squared);
             }
+            // t has order 2^m only if element is a non-residue
+            if (i == m)
+                throw new ArithmeticException(element + " is not a square");
             FieldElement b = z;
             for (int j = 0; j < m - i - 1; j++) {
                 b = b.mul(b);
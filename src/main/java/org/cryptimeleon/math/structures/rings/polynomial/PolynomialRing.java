@@ -5,19 +5,50 @@ import org.cryptimeleon.math.serialization.ListRepresentation;
 import org.cryptimeleon.math.serialization.RepresentableRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.Element;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 import org.cryptimeleon.math.structures.rings.Ring;
 import org.cryptimeleon.math.structures.rings.RingElement;
 import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.cryptimeleon.math.structures.rings.zn.Zp.ZpElement;
 
 import java.math.BigInteger;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * A polynomial ring over a given base commutative {@link Ring}.
  */
 public class PolynomialRing implements Ring {
+    /**
+     * Minimum value of (number of points) * (degree + 1) for which {@link Polynomial#evaluateAll(List)}
+     * evaluates the points in parallel.
+     */
+    static final long PARALLEL_EVALUATION_THRESHOLD = 1 << 12;
+
+    /**
+     * Algorithms for evaluating a polynomial at many points, see {@link Polynomial#evaluateAll(List, EvaluationStrategy)}.
+     */
+    public enum EvaluationStrategy {
+        /**
+         * Evaluates each point separately using the Horner scheme.
+         */
+        HORNER,
+        /**
+         * Like {@link #HORNER}, but evaluates the points in parallel.
+         */
+        PARALLEL_HORNER,
+        /**
+         * Builds the subproduct tree of the points and reduces the polynomial along it.
+         * <p>
+         * As polynomial multiplication is done using the schoolbook method, this does not improve on
+         * the asymptotic cost of {@link #HORNER}; hence it is never chosen automatically.
+         */
+        SUBPRODUCT_TREE
+    }
+
     /**
      * The ring over which the polynomials are defined.
      */
@@ -290,6 +321,157 @@ public class PolynomialRing implements Ring {
             return result;
         }
 
+        /**
+         * Returns the values of the polynomial evaluated at each of the given {@code points}.
+         * <p>
+         * The evaluation strategy is chosen based on the number of points and the degree of this polynomial,
+         * see {@link EvaluationStrategy}.
+         *
+         * @param points positions to evaluate, all from the base ring
+         * @return vector whose i-th entry is the result of evaluation at {@code points.get(i)}
+         */
+        public RingElementVector evaluateAll(List<? extends RingElement> points) {
+            EvaluationStrategy strategy = (long) points.size() * (degree + 1) >= PARALLEL_EVALUATION_THRESHOLD
+                    ? EvaluationStrategy.PARALLEL_HORNER
+                    : EvaluationStrategy.HORNER;
+            return evaluateAll(points, strategy);
+        }
+
+        /**
+         * Returns the values of the polynomial evaluated at each of the given {@code points}
+         * using the given evaluation strategy.
+         *
+         * @param points positions to evaluate, all from the base ring
+         * @param strategy the algorithm to use for evaluation
+         * @return vector whose i-th entry is the result of evaluation at {@code points.get(i)}
+         */
+        public RingElementVector evaluateAll(List<? extends RingElement> points, EvaluationStrategy strategy) {
+            for (RingElement x : points) {
+                if (!x.getStructure().equals(baseRing)) {
+                    throw new UnsupportedOperationException(
+                            "Evaluate only supports elements from the base ring as argument");
+                }
+            }
+            if (points.isEmpty())
+                return new RingElementVector();
+
+            switch (strategy) {
+                case HORNER:
+                    return RingElementVector.fromStream(points.stream().map(hornerEvaluator()));
+                case PARALLEL_HORNER:
+                    // stream is ordered, so the collected results are in the order of points
+                    return RingElementVector.fromStream(points.parallelStream().map(hornerEvaluator()));
+                case SUBPRODUCT_TREE:
+                    return new RingElementVector(evaluateWithSubproductTree(points));
+                default:
+                    throw new IllegalArgumentException("Unsupported evaluation strategy " + strategy);
+            }
+        }
+
+        /**
+         * Returns a function evaluating this polynomial using the Horner scheme.
+         * <p>
+         * For {@link Zn} base rings, the computation is done directly on the integer representatives
+         * (reducing once per step) instead of through the ring element layer.
+         */
+        private Function<RingElement, RingElement> hornerEvaluator() {
+            if (!(baseRing instanceof Zn))
+                return this::evaluate;
+
+            Zn zn = (Zn) baseRing;
+            BigInteger modulus = zn.size();
+            BigInteger[] integerCoefficients = new BigInteger[degree + 1];
+            for (int i = 0; i <= degree; i++)
+                integerCoefficients[i] = ((Zn.ZnElement) coefficients[i]).getInteger();
+
+            return x -> {
+                BigInteger xInt = ((Zn.ZnElement) x).getInteger();
+                BigInteger result = integerCoefficients[degree];
+                for (int i = degree - 1; i >= 0; i--)
+                    result = result.multiply(xInt).add(integerCoefficients[i]).mod(modulus);
+                return zn.createZnElement(result);
+            };
+        }
+
+        /**
+         * Evaluates this polynomial at all points by building the subproduct tree
+         * \(M_{i,j} = \prod_{k} (X - x_k)\) over the points and reducing this polynomial
+         * modulo the tree's nodes from the root down to the leaves.
+         * The remainders at the leaves are the evaluations.
+         */
+        private RingElement[] evaluateWithSubproductTree(List<? extends RingElement> points) {
+            int n = points.size();
+            RingElement one = baseRing.getOneElement();
+
+            // tree.get(0) contains the leaves X - x_i, tree.get(l+1) contains products of pairs from tree.get(l)
+            List<RingElement[][]> tree = new ArrayList<>();
+            RingElement[][] level = new RingElement[n][];
+            for (int i = 0; i < n; i++)
+                level[i] = new RingElement[]{points.get(i).neg(), one};
+            tree.add(level);
+            while (level.length > 1) {
+                RingElement[][] nextLevel = new RingElement[(level.length + 1) / 2][];
+                for (int i = 0; i < nextLevel.length; i++) {
+                    nextLevel[i] = 2 * i + 1 < level.length
+                            ? multiplyCoefficients(level[2 * i], level[2 * i + 1])
+                            : level[2 * i];
+                }
+                tree.add(nextLevel);
+                level = nextLevel;
+            }
+
+            // Remainder tree: remainders[i] = this mod tree.get(l)[i]
+            RingElement[][] remainders = new RingElement[][]{
+                    remainderMonic(Arrays.copyOf(coefficients, degree + 1), level[0])
+            };
+            for (int l = tree.size() - 2; l >= 0; l--) {
+                RingElement[][] children = tree.get(l);
+                RingElement[][] childRemainders = new RingElement[children.length][];
+                for (int i = 0; i < children.length; i++)
+                    childRemainders[i] = remainderMonic(remainders[i / 2], children[i]);
+                remainders = childRemainders;
+            }
+
+            RingElement[] result = new RingElement[n];
+            for (int i = 0; i < n; i++)
+                result[i] = remainders[i].length == 0 ? baseRing.getZeroElement() : remainders[i][0];
+            return result;
+        }
+
+        /**
+         * Multiplies the two polynomials given by their coefficients (schoolbook multiplication).
+         */
+        private RingElement[] multiplyCoefficients(RingElement[] a, RingElement[] b) {
+            RingElement[] result = new RingElement[a.length + b.length - 1];
+            Arrays.fill(result, baseRing.getZeroElement());
+            for (int i = 0; i < a.length; i++)
+                for (int j = 0; j < b.length; j++)
+                    result[i + j] = result[i + j].add(a[i].mul(b[j]));
+            return result;
+        }
+
+        /**
+         * Computes the remainder of dividing the polynomial with coefficients {@code a} by the monic
+         * polynomial with coefficients {@code monicDivisor}.
+         *
+         * @return coefficients of the remainder, of length {@code min(a.length, monicDivisor.length-1)}
+         */
+        private RingElement[] remainderMonic(RingElement[] a, RingElement[] monicDivisor) {
+            int divisorDegree = monicDivisor.length - 1;
+            if (a.length <= divisorDegree)
+                return a;
+
+            RingElement[] remainder = Arrays.copyOf(a, a.length);
+            for (int i = remainder.length - 1; i >= divisorDegree; i--) {
+                RingElement factor = remainder[i];
+                if (factor.isZero())
+                    continue;
+                for (int j = 0; j < divisorDegree; j++)
+                    remainder[i - divisorDegree + j] = remainder[i - divisorDegree + j].sub(factor.mul(monicDivisor[j]));
+            }
+            return Arrays.copyOf(remainder, divisorDegree);
+        }
+
         /**
          * Creates a new polynomial by adding the given polynomial to this.
          * <p>
@@ -700,6 +882,35 @@ public class PolynomialRing implements Ring {
         return getPoly(dataPoints, dataPoints.size() - 1);
     }
 
+    /**
+     * Evaluates a polynomial "in the exponent" at each of the given points.
+     * <p>
+     * Let \(p(X) = \sum a_j X^j\) and let {@code coefficientCommitments} contain \(C_j = g^{a_j}\)
+     * (e.g. the commitments published in Feldman's verifiable secret sharing).
+     * Then the i-th entry of the result is \(g^{p(x_i)} = \prod_j C_j^{x_i^j}\), where \(x_i\) is the i-th point.
+     * <p>
+     * The commitments are prepared for exponentiation once via {@link GroupElement#precomputePow()},
+     * such that the precomputed tables are shared by the multi-exponentiations for all points.
+     * The results are already being computed (in the background) when this method returns.
+     *
+     * @param coefficientCommitments the group elements \(C_j = g^{a_j}\), in order from lowest to highest exponent
+     * @param points the points \(x_i\) to evaluate at, from \(\mathbb{Z}_n\) where \(n\) is the size of the group
+     * @return vector whose i-th entry is \(g^{p(x_i)}\)
+     */
+    public static GroupElementVector evaluateAllInTheExponent(GroupElementVector coefficientCommitments,
+                                                              List<? extends RingElement> points) {
+        if (coefficientCommitments.length() == 0)
+            throw new IllegalArgumentException("No coefficient commitments given");
+
+        coefficientCommitments.precomputePow();
+        return GroupElementVector.fromStream(points.stream().map(x -> {
+            RingElementVector powersOfX = RingElementVector.iterate(
+                    x.getStructure().getOneElement(), power -> power.mul(x), coefficientCommitments.length()
+            );
+            return coefficientCommitments.innerProduct(powersOfX).compute();
+        }));
+    }
+
     @Override
     public Optional<Integer> getUniqueByteLength() {
         return Optional.empty();
@@ -12,8 +12,11 @@ import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.Element;
 import org.cryptimeleon.math.structures.rings.Ring;
 import org.cryptimeleon.math.structures.rings.RingElement;
+import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -112,6 +115,29 @@ public class Zn implements Ring {
         return createZnElement(RandomGenerator.getRandomNonZeroNumber(n));
     }
 
+    /**
+     * Generates {@code count} elements uniformly at random.
+     * <p>
+     * Draws the randomness for all elements at once (see {@link RandomGenerator#getRandomNumbers(BigInteger, int)}).
+     */
+    @Override
+    public RingElementVector getUniformlyRandomElements(int count) throws UnsupportedOperationException {
+        return RingElementVector.fromStream(Arrays.stream(RandomGenerator.getRandomNumbers(n, count)).parallel()
+                .map(this::createZnElementUnsafe));
+    }
+
+    /**
+     * Generates {@code count} nonzero elements uniformly at random.
+     * <p>
+     * Draws the randomness for all elements at once (see {@link RandomGenerator#getRandomNumbers(BigInteger, int)}).
+     */
+    @Override
+    public RingElementVector getUniformlyRandomNonzeroElements(int count) {
+        return RingElementVector.fromStream(
+                Arrays.stream(RandomGenerator.getRandomNumbers(n.subtract(BigInteger.ONE), count)).parallel()
+                        .map(v -> createZnElementUnsafe(v.add(BigInteger.ONE))));
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this)
@@ -494,6 +520,35 @@ public class Zn implements Ring {
         return Optional.of(maxByteLength);
     }
 
+    /**
+     * Returns the number of bytes of the (unsigned, big-endian) fixed-length encoding of elements,
+     * i.e. \(\lceil \log_2(n) / 8 \rceil\).
+     */
+    @Override
+    public Optional<Integer> getFixedEncodingLength() {
+        return Optional.of((n.bitLength() + 7) / 8);
+    }
+
+    @Override
+    public void encodeFixedLength(RingElement element, ByteBuffer out) {
+        int length = (n.bitLength() + 7) / 8;
+        byte[] bytes = ((ZnElement) element).getInteger().toByteArray();
+        //toByteArray() may contain a leading sign byte or be shorter than the fixed length
+        for (int i = bytes.length; i < length; i++)
+            out.put((byte) 0);
+        out.put(bytes, Math.max(0, bytes.length - length), Math.min(bytes.length, length));
+    }
+
+    @Override
+    public ZnElement decodeFixedLength(ByteBuffer in) {
+        byte[] bytes = new byte[(n.bitLength() + 7) / 8];
+        in.get(bytes);
+        BigInteger v = new BigInteger(1, bytes);
+        if (v.compareTo(n) >= 0)
+            throw new IllegalArgumentException("Encoded integer is not smaller than " + n);
+        return createZnElementUnsafe(v);
+    }
+
     @Override
     public ZnElement getElement(BigInteger i) {
         return createZnElement(i);
@@ -1,5 +1,6 @@
 package org.cryptimeleon.math.structures.rings.zn;
 
+import org.cryptimeleon.math.misc.BigIntegerTools;
 import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.Element;
@@ -16,6 +17,11 @@ import java.math.BigInteger;
  */
 public class Zp extends Zn implements Field {
 
+    /**
+     * Cached quadratic non-residue, required for Tonelli-Shanks square roots.
+     */
+    private ZpElement quadraticNonResidue = null;
+
     /**
      * Construct the field {@code Zp} using a given prime {@code p}.
      *
@@ -39,6 +45,23 @@ public class Zp extends Zn implements Field {
         return n.subtract(BigInteger.ONE);
     }
 
+    /**
+     * Returns the smallest positive integer that is a quadratic non-residue modulo p.
+     */
+    @Override
+    public ZpElement getQuadraticNonResidue() {
+        if (quadraticNonResidue == null) {
+            if (n.equals(BigInteger.valueOf(2)))
+                throw new UnsupportedOperationException("Every element of Z_2 is a square");
+            //Jacobi symbols are cheap and a non-residue is usually found within the first few integers
+            BigInteger candidate = BigInteger.valueOf(2);
+            while (BigIntegerTools.jacobiSymbol(candidate, n) != -1)
+                candidate = candidate.add(BigInteger.ONE);
+            quadraticNonResidue = createZnElementUnsafe(candidate);
+        }
+        return quadraticNonResidue;
+    }
+
     @Override
     public boolean hasPrimeSize() throws UnsupportedOperationException {
         return true;
@@ -156,69 +179,49 @@ public class Zp extends Zn implements Field {
 
         /**
          * Returns true if there is a \(y \in \mathbb{Z}_p\) such that \(y^2 = \text{this}\)
+         * <p>
+         * Uses the Jacobi symbol, which is considerably cheaper than Euler's criterion.
          */
+        @Override
         public boolean isSquare() {
-            return FiniteFieldTools.isSquare(this);
+            if (isZero() || n.equals(BigInteger.valueOf(2)))
+                return true;
+            return BigIntegerTools.jacobiSymbol(v, n) == 1;
         }
 
         /**
          * Computes a square root of this element if it exists.
+         * <p>
+         * For \(p \equiv 3 \bmod 4\) and \(p \equiv 5 \bmod 8\) this costs a single exponentiation.
+         * For \(p \equiv 1 \bmod 8\), Tonelli-Shanks with the field's cached quadratic non-residue is used.
          *
          * @return an element \(x\) with \(x^2 = \text{this}\)
          * @throws ArithmeticException if element is not a quadratic residue
          */
+        @Override
         public ZpElement sqrt() throws ArithmeticException {
-            if (this.isZero())
+            if (this.isZero() || n.equals(BigInteger.valueOf(2)))
                 return this;
 
             //see Lemma 11.22 of "Elliptic and Hyperelliptic Curve Cryptography"
             BigInteger p = n;
             ZpElement result;
-            int pMod8 = p.mod(BigInteger.valueOf(8)).intValue();
-            if (1 != pMod8) { //for p!=1 mod 8 a deterministic algorithm exists
-                if (3 == (pMod8 % 4)) {
-                    //for p=3 mod 4, a^((p+1)/4) is root of a
-                    result = this.pow(p.add(BigInteger.ONE).divide(BigInteger.valueOf(4)));
-                } else {
-                    //for p=5 mod 8, and a^((p-1)/4)= 1, a^((p+3)/8) is root of a
-                    //for p=5 mod 8, and a^((p-1)/4)=-1, 2a (4a)^((p-5)/8) is root of a
-                    if (5 == pMod8) {
-                        ZpElement t;
-                        //a^((p+3)/8)
-                        result = this.pow(p.add(BigInteger.valueOf(3)).divide(BigInteger.valueOf(8)));
-
-                        //a^((p-5)/8)
-                        t = this.pow(p.subtract(BigInteger.valueOf(5)).divide(BigInteger.valueOf(8)));
-
-                        //(p-1)/4 = (p+3)/8 + (p-5)/8
-                        if (result.mul(t).neg().isOne()) {
-                            //4^((p-5)/8)
-                            result = createZnElement(BigInteger.valueOf(4))
-                                    .pow(p.subtract(BigInteger.valueOf(5)).divide(BigInteger.valueOf(8)));
-
-                            //(4a)^((p-5)/8)
-                            result = result.mul(t);
-
-                            //a(4a)^((p-5)/8)
-                            result = result.mul(this);
-
-                            //2a(4a)^((p-5)/8)
-                            result = result.add(result);
-
-                        }
-                    } else { //p = 7 mod 8
-                        result = getOneElement(); //TODO this doesn't seem right.
-                    }
-                }
+            int pMod8 = p.intValue() & 7;
+            if (3 == (pMod8 & 3)) {
+                //for p=3 mod 4, a^((p+1)/4) is root of a
+                result = this.pow(p.shiftRight(2).add(BigInteger.ONE));
+            } else if (5 == pMod8) {
+                //Atkin: for p=5 mod 8, b = (2a)^((p-5)/8) and i = 2ab^2, a root of a is ab(i-1)
+                ZpElement twoA = this.add(this);
+                ZpElement b = twoA.pow(p.shiftRight(3));
+                ZpElement i = twoA.mul(b).mul(b);
+                result = this.mul(b).mul(i.sub(getOneElement()));
             } else {
-                //if p=1 mod 8 , we need probabilistic algorithm
-                if (isSquare())
-                    result = (ZpElement) FiniteFieldTools.sqrt(this);
-                else
-                    result = getZeroElement(); //just to ensure we fail in the next step.
+                //for p=1 mod 8, we need Tonelli-Shanks. It detects non-residues on its own.
+                return (ZpElement) FiniteFieldTools.tonelliShanks(this, getQuadraticNonResidue());
             }
 
-            //check if result is correct.
+            //check if result is correct (the deterministic formulas don't detect non-residues).
             if (result.square().equals(this)) {
                 return result;
             } else {
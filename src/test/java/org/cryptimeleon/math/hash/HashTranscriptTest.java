@@ -0,0 +1,114 @@
+package org.cryptimeleon.math.hash;
+
+import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
+import org.cryptimeleon.math.hash.impl.HashAccumulator;
+import org.cryptimeleon.math.hash.impl.SHA256HashFunction;
+import org.cryptimeleon.math.hash.impl.SHA512HashFunction;
+import org.cryptimeleon.math.hash.impl.VariableOutputLengthHashFunction;
+import org.cryptimeleon.math.misc.ByteArrayImpl;
+import org.cryptimeleon.math.serialization.Representation;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class HashTranscriptTest {
+    private static final ByteArrayImpl prefix = ByteArrayImpl.fromRandom(1000);
+
+    private static void testTranscript(HashFunction hashFunction) {
+        HashTranscript prefixTranscript = new HashTranscript(hashFunction, prefix);
+        assertArrayEquals(hashFunction.hash(prefix), prefixTranscript.extractBytes());
+
+        for (int i = 0; i < 3; i++) {
+            HashTranscript transcript = prefixTranscript.fork();
+            transcript.escapeAndSeparate("challenge");
+            transcript.append(i);
+            byte[] challenge = transcript.extractBytes();
+
+            ByteArrayAccumulator expectedInput = new ByteArrayAccumulator();
+            prefix.updateAccumulator(expectedInput);
+            expectedInput.escapeAndSeparate("challenge");
+            expectedInput.append(i);
+            assertArrayEquals(hashFunction.hash(expectedInput.extractBytes()), challenge);
+
+            // extracting does not end the transcript
+            assertArrayEquals(challenge, transcript.extractBytes());
+            transcript.append(i);
+            assertFalse(Arrays.equals(challenge, transcript.extractBytes()));
+        }
+
+        // forks do not affect the original transcript
+        assertArrayEquals(hashFunction.hash(prefix), prefixTranscript.extractBytes());
+    }
+
+    @Test
+    public void testSHA() {
+        testTranscript(new SHA256HashFunction());
+        testTranscript(new SHA512HashFunction());
+    }
+
+    @Test
+    public void testVariableOutputLength() {
+        testTranscript(new VariableOutputLengthHashFunction(100));
+        testTranscript(new VariableOutputLengthHashFunction(new SHA512HashFunction(), 10));
+    }
+
+    @Test
+    public void testBuffering() {
+        // hash function without incremental accumulator
+        testTranscript(new HashFunction() {
+            @Override
+            public int getOutputLength() {
+                return 32;
+            }
+
+            @Override
+            public byte[] hash(byte[] bytes) {
+                return new SHA256HashFunction().hash(bytes);
+            }
+
+            @Override
+            public Representation getRepresentation() {
+                return null;
+            }
+        });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNonCopyableAccumulator() {
+        HashFunction sha256 = new SHA256HashFunction();
+        new HashTranscript(new HashFunction() {
+            @Override
+            public int getOutputLength() {
+                return sha256.getOutputLength();
+            }
+
+            @Override
+            public byte[] hash(byte[] bytes) {
+                return sha256.hash(bytes);
+            }
+
+            @Override
+            public HashAccumulator createAccumulator() {
+                HashAccumulator accumulator = sha256.createAccumulator();
+                return new HashAccumulator() {
+                    @Override
+                    public void append(byte[] bytes) {
+                        accumulator.append(bytes);
+                    }
+
+                    @Override
+                    public byte[] extractBytes() {
+                        return accumulator.extractBytes();
+                    }
+                };
+            }
+
+            @Override
+            public Representation getRepresentation() {
+                return null;
+            }
+        });
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -41,11 +43,23 @@ public class HashFunctionTest {
         Assert.assertFalse(Arrays.equals(hash1, hash2));
     }
 
+    @Test
+    public void checkBufferParts() {
+        byte[] bytes = "IAMATEST".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer prefix = ByteBuffer.wrap(bytes, 0, 3);
+        ByteBuffer suffix = ByteBuffer.wrap(bytes, 3, bytes.length - 3);
+
+        Assert.assertArrayEquals(function.hash(bytes), function.hash(prefix, suffix));
+        Assert.assertArrayEquals(function.hash(bytes), function.hash(prefix, ByteBuffer.allocate(0), suffix));
+        Assert.assertEquals(3, suffix.position()); // positions are not changed
+    }
+
     @Parameters(name = "{index}: {0}")
     public static Collection<HashFunction> getParams() {
         ArrayList<HashFunction> list = new ArrayList<HashFunction>();
         list.add(new SHA256HashFunction());
         list.add(new SHA512HashFunction());
+        list.add(new VariableOutputLengthHashFunction(100));
         return list;
     }
 }
@@ -0,0 +1,103 @@
+package org.cryptimeleon.math.hash.impl;
+
+import org.cryptimeleon.math.hash.HashFunction;
+import org.cryptimeleon.math.serialization.Representation;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class VariableOutputLengthHashFunctionTest {
+    private static final byte[] input = "input".getBytes();
+
+    /**
+     * Computes innerFunction(1 || y) || innerFunction(2 || y) || ... with y = innerFunction(0 || x) block by block.
+     */
+    private static byte[] computeSequentially(HashFunction innerFunction, byte[] x, int outputLength) {
+        byte[] y = innerFunction.hash(ByteBuffer.allocate(4 + x.length).putInt(0).put(x).array());
+        byte[] result = new byte[outputLength];
+        for (int c = 1, filled = 0; filled < outputLength; c++) {
+            byte[] block = innerFunction.hash(ByteBuffer.allocate(4 + y.length).putInt(c).put(y).array());
+            System.arraycopy(block, 0, result, filled, Math.min(block.length, outputLength - filled));
+            filled += block.length;
+        }
+        return result;
+    }
+
+    @Test
+    public void testLongOutput() {
+        for (int outputLength : new int[] {1, 32, 33, 100 * 1024 + 7}) {
+            VariableOutputLengthHashFunction hashFunction = new VariableOutputLengthHashFunction(outputLength);
+            assertArrayEquals(computeSequentially(new SHA256HashFunction(), input, outputLength),
+                    hashFunction.hash(input));
+        }
+    }
+
+    @Test
+    public void testReader() {
+        int outputLength = 10000;
+        byte[] expected = new VariableOutputLengthHashFunction(new SHA512HashFunction(), outputLength).hash(input);
+        VariableOutputLengthHashFunction hashFunction = new VariableOutputLengthHashFunction(
+                new SHA512HashFunction(), 1);
+
+        // read in chunks of varying length
+        VariableOutputLengthHashFunction.OutputReader reader = hashFunction.createReader(input);
+        byte[] read = new byte[outputLength];
+        int position = 0;
+        for (int length : new int[] {0, 1, 63, 64, 65, 3000, 7}) {
+            reader.read(read, position, length);
+            position += length;
+        }
+        reader.read(read, position, outputLength - position);
+        assertArrayEquals(expected, read);
+
+        // continues after the read part
+        byte[] next = hashFunction.createReader(input).read(outputLength + 10);
+        assertArrayEquals(Arrays.copyOfRange(next, outputLength, outputLength + 10), reader.read(10));
+    }
+
+    @Test
+    public void testNonCopyableAccumulator() {
+        HashFunction sha256 = new SHA256HashFunction();
+        HashFunction innerFunction = new HashFunction() {
+            @Override
+            public int getOutputLength() {
+                return sha256.getOutputLength();
+            }
+
+            @Override
+            public byte[] hash(byte[] bytes) {
+                return sha256.hash(bytes);
+            }
+
+            @Override
+            public Representation getRepresentation() {
+                return sha256.getRepresentation();
+            }
+
+            @Override
+            public HashAccumulator createAccumulator() {
+                HashAccumulator accumulator = sha256.createAccumulator();
+                return new HashAccumulator() {
+                    @Override
+                    public void append(byte[] bytes) {
+                        accumulator.append(bytes);
+                    }
+
+                    @Override
+                    public byte[] extractBytes() {
+                        return accumulator.extractBytes();
+                    }
+                };
+            }
+        };
+        assertFalse(innerFunction.createAccumulator().supportsCopy());
+        assertTrue(sha256.createAccumulator().supportsCopy());
+
+        int outputLength = 64 * 32 + 5; //computed in parallel
+        assertArrayEquals(computeSequentially(innerFunction, input, outputLength),
+                new VariableOutputLengthHashFunction(innerFunction, outputLength).hash(input));
+    }
+}
@@ -0,0 +1,69 @@
+package org.cryptimeleon.math.misc;
+
+import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ByteArrayImplTest {
+    private static final byte[] bytes = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    @Test
+    public void testSlice() {
+        ByteArrayImpl array = new ByteArrayImpl(bytes);
+        ByteArrayImpl slice = array.slice(2, 5);
+        ByteArrayImpl copy = array.substring(2, 5);
+
+        assertEquals(5, slice.length());
+        assertSame(bytes, slice.getArray());
+        assertEquals(2, slice.getOffset());
+        assertEquals(copy, slice);
+        assertEquals(copy.hashCode(), slice.hashCode());
+        assertEquals(copy.toString(), slice.toString());
+        assertArrayEquals(new byte[] {2, 3, 4, 5, 6}, slice.getData());
+        assertEquals(4, slice.get(2));
+
+        ByteArrayImpl sliceOfSlice = slice.slice(1, 2);
+        assertEquals(new ByteArrayImpl(new byte[] {3, 4}), sliceOfSlice);
+        assertEquals(ByteArrayImpl.wrap(bytes, 3, 2), sliceOfSlice);
+
+        try {
+            slice.slice(4, 2);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConcatAndXor() {
+        ByteArrayImpl array = new ByteArrayImpl(bytes);
+        assertEquals(array, ByteArrayImpl.concat(array.slice(0, 3), array.slice(3, 0), array.slice(3, 7)));
+        assertEquals(array, array.slice(0, 4).append(array.slice(4, 6)));
+        assertEquals(array.slice(0, 4).xor(array.slice(4, 4)),
+                array.substring(0, 4).xor(array.substring(4, 4)));
+    }
+
+    @Test
+    public void testViewsAreNotCopied() {
+        ByteArrayImpl slice = new ByteArrayImpl(bytes).slice(1, 3);
+        ByteBuffer buffer = slice.asByteBuffer();
+        assertEquals(3, buffer.remaining());
+        assertEquals(1, buffer.get(0));
+        assertTrue(buffer.isReadOnly());
+
+        ByteArrayAccumulator accumulator = new ByteArrayAccumulator();
+        slice.updateAccumulator(accumulator);
+        assertArrayEquals(new byte[] {1, 2, 3}, accumulator.extractBytes());
+    }
+
+    @Test
+    public void testRepresentation() {
+        ByteArrayImpl slice = new ByteArrayImpl(bytes).slice(1, 3);
+        ByteArrayImpl copy = slice.substring(0, 3);
+        assertEquals(copy.getRepresentation(), slice.getRepresentation());
+        assertEquals(slice, new ByteArrayImpl(slice.getRepresentation()));
+    }
+}
@@ -49,4 +49,40 @@ public class RNGTest {
             Assert.assertTrue(buckets[buckets.length - 1] < k / n + 200);
         }
     }
+
+    @Test
+    public void testAesCtrGenerator() {
+        RandomGeneratorImpl rng = new AesCtrRandomGeneratorImpl();
+        BigInteger range = BigInteger.ONE.shiftLeft(255).add(BigInteger.valueOf(12345));
+        for (int i = 0; i < 1000; i++) {
+            BigInteger r = rng.getRandomNumber(range);
+            Assert.assertTrue(range.compareTo(r) > 0);
+            Assert.assertTrue(r.compareTo(BigInteger.ZERO) >= 0);
+        }
+        // more than the internal buffer at once
+        Assert.assertEquals(100000, rng.getRandomBytes(100000).length);
+        Assert.assertFalse(Arrays.equals(rng.getRandomBytes(32), rng.getRandomBytes(32)));
+
+        int n = 257;
+        int k = 100000;
+        int[] buckets = new int[n];
+        for (BigInteger r : rng.getRandomNumbers(BigInteger.valueOf(n), k))
+            buckets[r.intValue()]++;
+        Arrays.sort(buckets);
+        Assert.assertTrue(buckets[0] > k / n - 200);
+        Assert.assertTrue(buckets[buckets.length - 1] < k / n + 200);
+    }
+
+    @Test
+    public void testSeededAesCtrGenerator() {
+        byte[] seed = {1, 2, 3};
+        RandomGeneratorImpl rng1 = new AesCtrRandomGeneratorImpl(seed);
+        RandomGeneratorImpl rng2 = new AesCtrRandomGeneratorImpl(seed);
+        Assert.assertArrayEquals(rng1.getRandomBytes(10000), rng2.getRandomBytes(10000));
+        BigInteger range = BigInteger.ONE.shiftLeft(100).subtract(BigInteger.ONE);
+        Assert.assertArrayEquals(rng1.getRandomNumbers(range, 100), rng2.getRandomNumbers(range, 100));
+
+        RandomGeneratorImpl rng3 = new AesCtrRandomGeneratorImpl(new byte[] {1, 2, 4});
+        Assert.assertFalse(Arrays.equals(rng1.getRandomBytes(32), rng3.getRandomBytes(32)));
+    }
 }
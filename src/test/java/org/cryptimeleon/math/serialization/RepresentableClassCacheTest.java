@@ -0,0 +1,66 @@
+package org.cryptimeleon.math.serialization;
+
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.*;
+
+public class RepresentableClassCacheTest {
+
+    @Test
+    public void testRecreate() {
+        Zn zn = new Zn(BigInteger.TEN);
+        RepresentableRepresentation repr = new RepresentableRepresentation(zn);
+        assertEquals(zn, repr.recreateRepresentable());
+
+        long hits = RepresentableClassCache.getHitCount();
+        for (int i = 0; i < 10; i++)
+            assertEquals(zn, repr.recreateRepresentable());
+        assertTrue(RepresentableClassCache.getHitCount() >= hits + 10);
+
+        assertEquals(RoundingMode.UP, new RepresentableRepresentation(RoundingMode.UP).recreateRepresentable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownClass() {
+        new RepresentableRepresentation("org.cryptimeleon.DoesNotExist", null).recreateRepresentable();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoRepresentationConstructor() {
+        new RepresentableRepresentation(Object.class.getName(), new StringRepresentation("")).recreateRepresentable();
+    }
+
+    @Test
+    public void testAllowList() {
+        RepresentableClassCache.setAllowList(name -> !name.equals(Zn.class.getName()));
+        try {
+            new RepresentableRepresentation(new Zn(BigInteger.TEN)).recreateRepresentable();
+            fail("Class should not be allowed");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            RepresentableClassCache.setAllowList(null);
+        }
+        assertEquals(new Zn(BigInteger.TEN), new RepresentableRepresentation(new Zn(BigInteger.TEN)).recreateRepresentable());
+    }
+
+    @Test
+    public void testAllowListAppliesToCachedClasses() {
+        RepresentableRepresentation repr = new RepresentableRepresentation(new Zn(BigInteger.TEN));
+        assertEquals(new Zn(BigInteger.TEN), repr.recreateRepresentable()); // Zn is cached now
+
+        RepresentableClassCache.setAllowList(name -> !name.equals(Zn.class.getName()));
+        try {
+            repr.recreateRepresentable();
+            fail("Class should not be allowed");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            RepresentableClassCache.setAllowList(null);
+        }
+    }
+}
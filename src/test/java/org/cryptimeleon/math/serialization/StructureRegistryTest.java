@@ -0,0 +1,39 @@
+package org.cryptimeleon.math.serialization;
+
+import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+public class StructureRegistryTest {
+
+    @Test
+    public void testRestoredStructuresAreShared() {
+        Zp zp = new Zp(BigInteger.valueOf(101));
+        BilinearGroup bilinearGroup = new DebugBilinearGroup(BilinearGroup.Type.TYPE_3);
+        RepresentableRepresentation zpRepr = new RepresentableRepresentation(zp);
+        RepresentableRepresentation groupRepr = new RepresentableRepresentation(bilinearGroup);
+
+        StructureRegistry.setEnabled(true);
+        try {
+            Object restoredZp = zpRepr.recreateRepresentable();
+            assertEquals(zp, restoredZp);
+            assertSame(restoredZp, zpRepr.recreateRepresentable());
+
+            Object restoredGroup = groupRepr.recreateRepresentable();
+            assertEquals(bilinearGroup, restoredGroup);
+            assertSame(restoredGroup, groupRepr.recreateRepresentable());
+
+            assertSame(restoredZp, StructureRegistry.intern(new Zp(BigInteger.valueOf(101))));
+        } finally {
+            StructureRegistry.setEnabled(false);
+            StructureRegistry.clear();
+        }
+
+        assertNotSame(zpRepr.recreateRepresentable(), zpRepr.recreateRepresentable());
+    }
+}
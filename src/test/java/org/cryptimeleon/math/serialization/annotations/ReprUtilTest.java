@@ -65,6 +65,31 @@ public class ReprUtilTest {
         }
     }
 
+    public static class Bar extends Foo {
+        @Represented(restorer = "zp")
+        Zp.ZpElement element;
+
+        public Bar(Zp.ZpElement element) {
+            super(element.getStructure());
+            this.element = element;
+        }
+
+        public Bar(Representation repr) {
+            super(repr);
+        }
+    }
+
+    @Test
+    public void testInheritedFieldsRepeatedly() {
+        Zp zp = new Zp(BigInteger.valueOf(17));
+        for (int i = 0; i < 3; i++) {
+            Bar bar = new Bar(zp.valueOf(i));
+            Bar restored = new Bar(bar.getRepresentation());
+            assertEquals(bar.zp, restored.zp);
+            assertEquals(bar.element, restored.element);
+        }
+    }
+
     @Test
     public void testNestedMap() {
         Ring ring  = new Zn(BigInteger.TEN);
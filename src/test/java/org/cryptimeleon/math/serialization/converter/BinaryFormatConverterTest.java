@@ -0,0 +1,64 @@
+package org.cryptimeleon.math.serialization.converter;
+
+import org.cryptimeleon.math.serialization.*;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryFormatConverterTest {
+    private final BinaryFormatConverter converter = new BinaryFormatConverter();
+
+    private static Representation getTestRepresentation() {
+        ObjectRepresentation repr = new ObjectRepresentation();
+        repr.put("zn", new RepresentableRepresentation(new Zn(BigInteger.TEN)));
+        repr.put("list", new ListRepresentation(new BigIntegerRepresentation(5), null, new ListRepresentation(),
+                new BigIntegerRepresentation(BigInteger.valueOf(2).pow(100))));
+        repr.put("str", new StringRepresentation("str"));
+        repr.put("bytes", new ByteArrayRepresentation(new byte[] {1, 2, 3}));
+        return repr;
+    }
+
+    @Test
+    public void testStreams() throws IOException {
+        Representation repr = getTestRepresentation();
+        byte[] serialized = converter.serialize(repr);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.serialize(repr, out);
+        assertArrayEquals(serialized, out.toByteArray());
+
+        assertEquals(repr, converter.deserialize(new ByteArrayInputStream(serialized)));
+    }
+
+    @Test
+    public void testByteBuffer() {
+        Representation repr = getTestRepresentation();
+        byte[] serialized = converter.serialize(repr);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(serialized.length + 2);
+        buffer.put((byte) 42).put(serialized).put((byte) 42);
+        buffer.position(1);
+        buffer.limit(serialized.length + 1);
+        assertEquals(repr, converter.deserialize(buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testLargeList() throws IOException {
+        ListRepresentation list = new ListRepresentation();
+        for (int i = 0; i < 200000; i++)
+            list.put(new BigIntegerRepresentation(i));
+
+        byte[] serialized = converter.serialize(list);
+        assertEquals(list, converter.deserialize(serialized));
+        assertEquals(list, converter.deserialize(new ByteArrayInputStream(serialized)));
+    }
+}
@@ -0,0 +1,116 @@
+package org.cryptimeleon.math.serialization.converter;
+
+import org.cryptimeleon.math.serialization.*;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class CBORConverterTest {
+    private final CBORConverter converter = new CBORConverter();
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] result = new byte[hex.length() / 2];
+        for (int i = 0; i < result.length; i++)
+            result[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        return result;
+    }
+
+    @Test
+    public void testKnownEncodings() {
+        // Examples from RFC 8949, Appendix A
+        assertArrayEquals(hexToBytes("00"), converter.serialize(new BigIntegerRepresentation(0)));
+        assertArrayEquals(hexToBytes("1864"), converter.serialize(new BigIntegerRepresentation(100)));
+        assertArrayEquals(hexToBytes("1bffffffffffffffff"),
+                converter.serialize(new BigIntegerRepresentation(new BigInteger("18446744073709551615"))));
+        assertArrayEquals(hexToBytes("c249010000000000000000"),
+                converter.serialize(new BigIntegerRepresentation(new BigInteger("18446744073709551616"))));
+        assertArrayEquals(hexToBytes("3bffffffffffffffff"),
+                converter.serialize(new BigIntegerRepresentation(new BigInteger("-18446744073709551616"))));
+        assertArrayEquals(hexToBytes("c349010000000000000000"),
+                converter.serialize(new BigIntegerRepresentation(new BigInteger("-18446744073709551617"))));
+        assertArrayEquals(hexToBytes("3863"), converter.serialize(new BigIntegerRepresentation(-100)));
+        assertArrayEquals(hexToBytes("6449455446"), converter.serialize(new StringRepresentation("IETF")));
+        assertArrayEquals(hexToBytes("4401020304"),
+                converter.serialize(new ByteArrayRepresentation(new byte[] {1, 2, 3, 4})));
+        assertArrayEquals(hexToBytes("f6"), converter.serialize(null));
+        assertArrayEquals(hexToBytes("a26161016162820203"), converter.serialize(new ObjectRepresentation(
+                "b", new ListRepresentation(new BigIntegerRepresentation(2), new BigIntegerRepresentation(3)),
+                "a", new BigIntegerRepresentation(1))));
+
+        // Non-deterministic encoding of 100 is accepted
+        assertEquals(new BigIntegerRepresentation(100), converter.deserialize(hexToBytes("190064")));
+    }
+
+    @Test
+    public void testDeterministic() {
+        MapRepresentation map1 = new MapRepresentation();
+        MapRepresentation map2 = new MapRepresentation();
+        for (int i = 0; i < 20; i++) {
+            map1.put(new BigIntegerRepresentation(i), new StringRepresentation("v" + i));
+            map2.put(new BigIntegerRepresentation(19 - i), new StringRepresentation("v" + (19 - i)));
+        }
+        assertArrayEquals(converter.serialize(map1), converter.serialize(map2));
+        assertEquals(map1, converter.deserialize(converter.serialize(map2)));
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        ListRepresentation list = new ListRepresentation();
+        for (int i = 0; i < 10; i++)
+            list.put(new ObjectRepresentation("x", new BigIntegerRepresentation(BigInteger.ONE.shiftLeft(255 - i)),
+                    "zn", new RepresentableRepresentation(new Zn(BigInteger.TEN))));
+
+        byte[] cbor = converter.serialize(list);
+        assertEquals(list, converter.deserialize(cbor));
+        assertTrue(cbor.length < new JSONConverter().serialize(list).length());
+    }
+
+    @Test
+    public void testByteBuffer() {
+        Representation repr = new ListRepresentation(new StringRepresentation("str"), null);
+        byte[] serialized = converter.serialize(repr);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(serialized.length + 2);
+        buffer.put((byte) 42).put(serialized).put((byte) 42);
+        buffer.position(1);
+        buffer.limit(serialized.length + 1);
+        assertEquals(repr, converter.deserialize(buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testIllegalData() {
+        String[] illegal = {
+                "", // empty
+                "8201", // array with missing item
+                "9b7fffffffffffffff", // huge array length
+                "5f4101ff", // indefinite-length byte string
+                "f4", // false (no representation)
+                "a10102", // untagged map with integer key
+                "d81b8101", // tag 27 with wrong content
+                "0000", // trailing data
+        };
+        for (String data : illegal) {
+            try {
+                converter.deserialize(hexToBytes(data));
+                fail(data);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        byte[] deeplyNested = new byte[100000];
+        Arrays.fill(deeplyNested, (byte) 0x81);
+        try {
+            converter.deserialize(deeplyNested);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
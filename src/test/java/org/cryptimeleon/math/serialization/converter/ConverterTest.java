@@ -121,6 +121,7 @@ public class ConverterTest {
         list.add(new JSONPrettyConverter());
         list.add(new BinaryFormatConverter());
         list.add(new BinaryFormatConverter(Arrays.asList(someString.get()), Arrays.asList(Zn.class)));
+        list.add(new CBORConverter());
         return list;
     }
 }
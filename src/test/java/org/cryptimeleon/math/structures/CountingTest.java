@@ -105,14 +105,14 @@ public class CountingTest {
             // need to do as many precomputations
         } while (elem1.equals(elem2) || elem2.equals(elem3) || elem3.equals(elem1));
 
-        // will be computed as (G1_5 * G2_5 * G3_5)^2 where Gi_5 = elemi^5 is precomputed (WNAF multiexp)
+        // exponents are short, so no powers are precomputed (window size 1, WNAF multiexp): 10 = 2^3 + 2^1
         elem1.pow(10).op(elem2.pow(10)).op(elem3.pow(10)).computeSync();
         System.out.println(debugGroup.formatCounterData());
         assertArrayEquals(new Integer[] {3}, debugGroup.getMultiExpTermNumbers().toArray(new Integer[1]));
-        // 8 ops per element for precomputation
-        assertEquals(24, debugGroup.getNumOpsTotal());
-        // 1 squaring per element for precomputation plus one for multi-exponentiation
-        assertEquals(4, debugGroup.getNumSquaringsTotal());
+        // 2 ops per element
+        assertEquals(6, debugGroup.getNumOpsTotal());
+        // 3 squarings for the multi-exponentiation
+        assertEquals(3, debugGroup.getNumSquaringsTotal());
     }
 
     @Test
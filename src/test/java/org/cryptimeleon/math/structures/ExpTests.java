@@ -3,18 +3,33 @@ package org.cryptimeleon.math.structures;
 import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.structures.groups.GroupElementImpl;
 import org.cryptimeleon.math.structures.groups.GroupImpl;
+import org.cryptimeleon.math.structures.groups.GroupElement;
 import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroupImpl;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroupImpl;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroupImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.nopairing.Secp256k1;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
 import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
+import org.cryptimeleon.math.structures.groups.exp.GroupCostProfile;
+import org.cryptimeleon.math.structures.groups.exp.MultiExpAlgorithm;
 import org.cryptimeleon.math.structures.groups.exp.MultiExpTerm;
 import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
 import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExpTests {
 
@@ -34,6 +49,69 @@ public class ExpTests {
         }
     }
 
+    @Test
+    public void testPerTermWindowSizes() {
+        BilinearGroupImpl bilGroup = new DebugBilinearGroupImpl(60, BilinearGroup.Type.TYPE_3);
+        GroupImpl group = bilGroup.getG1();
+        for (MultiExpAlgorithm algorithm : MultiExpAlgorithm.values()) {
+            Multiexponentiation multiexp = new Multiexponentiation();
+            for (int i = 0; i < 6; i++) {
+                GroupElementImpl base = group.getUniformlyRandomNonNeutral();
+                SmallExponentPrecomputation precomputation = new SmallExponentPrecomputation(base);
+                if (i % 2 == 0) // cached precomputation
+                    precomputation.compute(8, false);
+                BigInteger exponent = i < 4
+                        ? RandomGenerator.getRandomNumber(group.size())
+                        : BigInteger.valueOf(5); // short exponent
+                multiexp.put(new MultiExpTerm(base, i % 3 == 0 ? exponent.negate() : exponent, precomputation));
+            }
+
+            int[] windowSizes = multiexp.computeWindowSizes(algorithm, 4);
+            for (int i = 0; i < windowSizes.length; i++) {
+                boolean usesCachedPowers = i % 2 == 0 && (algorithm == MultiExpAlgorithm.WNAF || i % 3 != 0);
+                if (usesCachedPowers)
+                    assertEquals(8, windowSizes[i]);
+                else
+                    assertTrue(windowSizes[i] >= 1 && windowSizes[i] <= 4);
+            }
+            assertEquals(1, windowSizes[5]); // no precomputation for the short exponent
+
+            GroupElementImpl result = algorithm == MultiExpAlgorithm.SLIDING
+                    ? ExponentiationAlgorithms.interleavingSlidingWindowMultiExp(multiexp, windowSizes)
+                    : ExponentiationAlgorithms.interleavingWnafMultiExp(multiexp, windowSizes);
+            assertEquals(naiveEval(multiexp), result);
+        }
+    }
+
+    @Test
+    public void testBatchedPrecomputation() {
+        GroupImpl[] groups = {new Secp256k1(), ((LazyGroup) new BarretoNaehrigBilinearGroup("SFC-256").getG2()).getImpl()};
+        for (GroupImpl group : groups) {
+            assertTrue(group.implementsOwnBatchOp());
+            GroupElementImpl base = group.getUniformlyRandomNonNeutral();
+            SmallExponentPrecomputation precomputation = new SmallExponentPrecomputation(base);
+            precomputation.compute(3, true);
+            precomputation.computeNegativePowers(6, true);
+            assertEquals(6, precomputation.getCurrentlySupportedPositiveWindowSize());
+            GroupElementImpl power = base;
+            GroupElementImpl square = base.square();
+            for (int exponent = 1; exponent < 64; exponent += 2) {
+                assertEquals(power, precomputation.getOddPositivePower(exponent));
+                assertEquals(power.inv(), precomputation.getOddNegativePower(-exponent));
+                power = power.op(square);
+            }
+
+            // special cases: doubling, inverses, neutral element
+            GroupElementImpl other = group.getUniformlyRandomNonNeutral();
+            GroupElementImpl neutral = group.getNeutralElement();
+            List<GroupElementImpl> lhs = Arrays.asList(base, base, base, base, neutral, other);
+            List<GroupElementImpl> rhs = Arrays.asList(other, base, base.inv(), neutral, other, base);
+            List<GroupElementImpl> result = group.batchOp(lhs, rhs);
+            for (int i = 0; i < lhs.size(); i++)
+                assertEquals(lhs.get(i).op(rhs.get(i)), result.get(i));
+        }
+    }
+
     private static Multiexponentiation genMultiExp(GroupImpl group, int numTerms) {
         Multiexponentiation multiexponentiation = new Multiexponentiation();
         for (int i = 0; i < numTerms; ++i) {
@@ -55,6 +133,34 @@ public class ExpTests {
         return result;
     }
 
+    @Test
+    public void testTuning() {
+        LazyGroup group = new LazyGroup(new DebugGroupImpl("G", BigInteger.probablePrime(128, new Random())));
+        GroupCostProfile profile = group.tune();
+        assertEquals(profile, new GroupCostProfile(profile.getRepresentation()));
+        assertTrue(group.getExponentiationWindowSize() >= 1);
+
+        GroupElement g = group.getUniformlyRandomElement();
+        GroupElement h = group.getUniformlyRandomElement();
+        BigInteger a = group.getZn().getUniformlyRandomElement().getInteger();
+        BigInteger b = group.getZn().getUniformlyRandomElement().getInteger();
+        assertEquals(g.pow(a).computeSync().op(h.pow(b).computeSync()), g.pow(a).op(h.pow(b)));
+
+        // expensive inversions
+        group.tune(new GroupCostProfile(1, 1, 100));
+        assertEquals(MultiExpAlgorithm.SLIDING, group.getSelectedMultiExpAlgorithm());
+        assertEquals(g.pow(a).computeSync().op(h.pow(b).computeSync()), g.pow(a).op(h.pow(b)));
+        // cheap inversions
+        group.tune(new GroupCostProfile(100, 100, 1));
+        assertEquals(MultiExpAlgorithm.WNAF, group.getSelectedMultiExpAlgorithm());
+        assertEquals(g.pow(a).computeSync().op(h.pow(b).computeSync()), g.pow(a).op(h.pow(b)));
+
+        // expensive squarings make tables of odd powers (computed using base^2) less attractive
+        assertEquals(0.01, new GroupCostProfile(1, 100, 1).getCostSquarePerOp(), 1e-9);
+        assertTrue(ExponentiationAlgorithms.chooseWindowSize(MultiExpAlgorithm.SLIDING, 64, 1, 0, 1, 0.01, 10)
+                < ExponentiationAlgorithms.chooseWindowSize(MultiExpAlgorithm.SLIDING, 64, 1, 0, 1, 1, 10));
+    }
+
     @Test
     public void testExpAlgs() {
         BilinearGroupImpl bilGroup = new DebugBilinearGroupImpl(60, BilinearGroup.Type.TYPE_3);
@@ -74,4 +180,32 @@ public class ExpTests {
             assertEquals(naiveResult, wNafResult);
         }
     }
+
+    @Test
+    public void testConcurrentPrecomputation() throws Exception {
+        BilinearGroupImpl bilGroup = new DebugBilinearGroupImpl(60, BilinearGroup.Type.TYPE_3);
+        GroupElementImpl elem = bilGroup.getG1().getUniformlyRandomNonNeutral();
+        SmallExponentPrecomputation precomputation = new SmallExponentPrecomputation(elem);
+        // exponentiations with growing window sizes share (and grow) the precomputation concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int windowSize = 1 + i / 4;
+                boolean useWnaf = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    BigInteger exponent = RandomGenerator.getRandomNumber(bilGroup.getG1().size());
+                    GroupElementImpl result = useWnaf
+                            ? ExponentiationAlgorithms.wnafExp(elem, exponent, precomputation, windowSize)
+                            : ExponentiationAlgorithms.slidingWindowExp(elem, exponent, precomputation, windowSize);
+                    assertEquals(ExponentiationAlgorithms.binSquareMultiplyExp(elem, exponent), result);
+                }));
+            }
+            for (Future<?> result : results)
+                result.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(precomputation.getCurrentlySupportedWindowSize() >= 10);
+    }
 }
@@ -0,0 +1,125 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.cartesian.FixedWidthGroupElementEncoding;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.groups.elliptic.nopairing.Secp256k1;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class FixedWidthGroupElementEncodingTest {
+
+    private static GroupElementVector getElements(Group group, int n) {
+        return group.getUniformlyRandomElements(n).prepend(group.getNeutralElement());
+    }
+
+    private static void testRoundTrip(Group group) throws IOException {
+        GroupElementVector elements = getElements(group, 20);
+        FixedWidthGroupElementEncoding encoding = new FixedWidthGroupElementEncoding(group);
+
+        byte[] data = elements.getFixedWidthEncoding();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoding.encode(elements, out);
+        assertArrayEquals(data, out.toByteArray());
+
+        assertEquals(elements, group.restoreVector(ByteBuffer.wrap(data)));
+        assertEquals(elements, encoding.decode(ByteBuffer.wrap(data), true));
+        assertEquals(elements.length(), encoding.size(ByteBuffer.wrap(data)));
+
+        // records have fixed width, so the data consists of a header and equally long records
+        assertEquals(12 + elements.length() * encoding.getRecordLength(), data.length);
+
+        // data not starting at the buffer's start
+        ByteBuffer offsetData = ByteBuffer.allocateDirect(data.length + 5);
+        offsetData.put(new byte[5]).put(data).position(5);
+        assertEquals(elements, encoding.decode(offsetData));
+        assertEquals(5, offsetData.position());
+        for (int i = 0; i < elements.length(); i++)
+            assertEquals(elements.get(i), encoding.decodeElement(offsetData, i));
+    }
+
+    @Test
+    public void testSecp256k1() throws IOException {
+        testRoundTrip(new LazyGroup(new Secp256k1()));
+    }
+
+    @Test
+    public void testRecordLength() throws IOException {
+        // raw coordinates x || y
+        assertEquals(64, new FixedWidthGroupElementEncoding(new LazyGroup(new Secp256k1())).getRecordLength());
+        // x and a flag byte
+        Group compressed = new LazyGroup(new Secp256k1(true));
+        assertEquals(33, new FixedWidthGroupElementEncoding(compressed).getRecordLength());
+        testRoundTrip(compressed);
+
+        // SFC-256 uses a 266 bit prime, i.e. 34 bytes per base field element
+        BarretoNaehrigBilinearGroup bilinearGroup = new BarretoNaehrigBilinearGroup("SFC-256");
+        assertEquals(4 * 34, new FixedWidthGroupElementEncoding(bilinearGroup.getG2()).getRecordLength());
+        assertEquals(12 * 34, new FixedWidthGroupElementEncoding(bilinearGroup.getGT()).getRecordLength());
+        testRoundTrip(bilinearGroup.getG2());
+        testRoundTrip(bilinearGroup.getGT());
+        bilinearGroup.setCompressedRepresentation(true);
+        bilinearGroup.setCompressedTargetGroupRepresentation(true);
+        assertEquals(2 * 34 + 1, new FixedWidthGroupElementEncoding(bilinearGroup.getG2()).getRecordLength());
+        assertEquals(6 * 34, new FixedWidthGroupElementEncoding(bilinearGroup.getGT()).getRecordLength());
+        testRoundTrip(bilinearGroup.getG2());
+        testRoundTrip(bilinearGroup.getGT());
+    }
+
+    @Test
+    public void testZp() throws IOException {
+        testRoundTrip(new Zp(BigInteger.valueOf(1000003)).asUnitGroup());
+    }
+
+    @Test
+    public void testEmpty() {
+        Group group = new LazyGroup(new Secp256k1());
+        byte[] data = new GroupElementVector().getFixedWidthEncoding();
+        assertEquals(0, group.restoreVector(ByteBuffer.wrap(data)).length());
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        Group group = new LazyGroup(new Secp256k1());
+        GroupElementVector elements = getElements(group, 10);
+        Path file = Files.createTempFile("elements", ".bin");
+        try {
+            Files.write(file, elements.getFixedWidthEncoding());
+            ByteBuffer mapped = FixedWidthGroupElementEncoding.map(file);
+            FixedWidthGroupElementEncoding encoding = new FixedWidthGroupElementEncoding(group);
+            assertEquals(elements.get(7), encoding.decodeElement(mapped, 7));
+            assertEquals(elements, encoding.decode(mapped));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testIllegalData() {
+        FixedWidthGroupElementEncoding encoding = new FixedWidthGroupElementEncoding(new LazyGroup(new Secp256k1()));
+        byte[] data = getElements(encoding.getGroup(), 3).getFixedWidthEncoding();
+        try {
+            encoding.decodeElement(ByteBuffer.wrap(data), 4);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            encoding.decode(ByteBuffer.wrap(data, 1, data.length - 1));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
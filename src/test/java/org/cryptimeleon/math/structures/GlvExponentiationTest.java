@@ -0,0 +1,65 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.GroupImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.nopairing.Secp256k1;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
+import org.cryptimeleon.math.structures.groups.exp.Multiexponentiation;
+import org.cryptimeleon.math.structures.groups.exp.SmallExponentPrecomputation;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GlvExponentiationTest {
+
+    private static void testExponentiation(GroupImpl group) {
+        assertTrue(group.implementsOwnExp());
+        assertTrue(group.implementsOwnMultiExp());
+
+        BigInteger[] exponents = {BigInteger.ZERO, BigInteger.ONE, group.size().subtract(BigInteger.ONE),
+                group.size(), BigInteger.valueOf(-12345), RandomGenerator.getRandomNumber(group.size()),
+                RandomGenerator.getRandomNumber(group.size().shiftLeft(10))};
+        GroupElementImpl base = group.getUniformlyRandomElement();
+        SmallExponentPrecomputation precomputation = new SmallExponentPrecomputation(base);
+        for (BigInteger exponent : exponents)
+            assertEquals(ExponentiationAlgorithms.binSquareMultiplyExp(base, exponent),
+                    group.exp(base, exponent, precomputation));
+
+        Multiexponentiation multiexp = new Multiexponentiation();
+        GroupElementImpl expected = group.getUniformlyRandomElement();
+        multiexp.put(expected);
+        for (int i = 0; i < 3; i++) {
+            GroupElementImpl multiexpBase = group.getUniformlyRandomElement();
+            BigInteger exponent = RandomGenerator.getRandomNumber(group.size());
+            multiexp.put(multiexpBase, exponent, new SmallExponentPrecomputation(multiexpBase));
+            expected = expected.op(ExponentiationAlgorithms.binSquareMultiplyExp(multiexpBase, exponent));
+        }
+        assertEquals(expected, group.multiexp(multiexp));
+    }
+
+    @Test
+    public void testBarretoNaehrig() {
+        BarretoNaehrigBilinearGroup bilinearGroup = new BarretoNaehrigBilinearGroup("SFC-256");
+        testExponentiation(((LazyGroup) bilinearGroup.getG1()).getImpl());
+        testExponentiation(((LazyGroup) bilinearGroup.getG2()).getImpl());
+
+        GroupElement g = bilinearGroup.getG2().getUniformlyRandomElement();
+        BigInteger a = RandomGenerator.getRandomNumber(bilinearGroup.getG2().size());
+        BigInteger b = RandomGenerator.getRandomNumber(bilinearGroup.getG2().size());
+        assertEquals(g.pow(a).pow(b), g.pow(a.multiply(b)));
+        assertEquals(g.pow(a).op(g.pow(b)), g.pow(a.add(b)));
+    }
+
+    @Test
+    public void testSecp256k1() {
+        testExponentiation(new Secp256k1());
+        testExponentiation(new Secp256k1(true));
+    }
+}
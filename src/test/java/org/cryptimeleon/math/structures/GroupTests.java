@@ -6,8 +6,10 @@ import org.cryptimeleon.math.serialization.RepresentableRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.groups.GroupImpl;
 import org.cryptimeleon.math.structures.groups.basic.BasicGroup;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 import org.cryptimeleon.math.structures.groups.debug.DebugGroupImpl;
 import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
 import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,6 +24,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -212,6 +215,25 @@ public class GroupTests {
         }
     }
 
+    @Test
+    public void testBulkRandomElements() {
+        GroupElementVector elements = group.getUniformlyRandomNonNeutrals(100);
+        RingElementVector exponents = group.getUniformlyRandomNonzeroExponents(100);
+        assertEquals(100, elements.length());
+        assertEquals(100, exponents.length());
+        assertEquals("elements should be distinct", 100, new HashSet<>(elements.toList()).size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(group.isMember(elements.get(i)));
+            assertFalse(elements.get(i).isNeutralElement());
+            assertFalse(exponents.get(i).isZero());
+        }
+        // exponents cover the whole range (with overwhelming probability)
+        int maxBitLength = group.getUniformlyRandomExponents(100).stream()
+                .mapToInt(exponent -> ((Zn.ZnElement) exponent).getInteger().bitLength())
+                .max().getAsInt();
+        assertTrue(maxBitLength > group.size().bitLength() - 8);
+    }
+
     @Parameters(name = "Test: {0}")
     public static Collection<TestParams[]> data() {
         // Some setup
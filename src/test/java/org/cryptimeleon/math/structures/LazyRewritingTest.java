@@ -0,0 +1,208 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.serialization.BigIntegerRepresentation;
+import org.cryptimeleon.math.serialization.ListRepresentation;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroupImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.type1.supersingular.SupersingularBilinearGroup;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroupHomomorphism;
+import org.cryptimeleon.math.structures.groups.mappings.IdentityIsomorphism;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that expressions of lazy group elements are rewritten into a single (multi-)exponentiation
+ * and that deep expressions can be evaluated.
+ */
+public class LazyRewritingTest {
+    private DebugGroup group;
+    private GroupElement g, h;
+    private BigInteger a, b, c;
+
+    @Before
+    public void setUp() {
+        group = new DebugGroup("G", BigInteger.probablePrime(128, new Random()));
+        g = group.getUniformlyRandomNonNeutral().computeSync();
+        h = group.getUniformlyRandomNonNeutral().computeSync();
+        a = group.getZn().getUniformlyRandomElement().getInteger();
+        b = group.getZn().getUniformlyRandomElement().getInteger();
+        c = group.getZn().getUniformlyRandomElement().getInteger();
+        group.resetCounters();
+    }
+
+    /**
+     * Computes the given element and checks that it was computed with a single multiexponentiation
+     * with the given number of terms (or a single exponentiation if numberOfTerms is 1).
+     */
+    private void assertSingleExp(GroupElement element, int numberOfTerms) {
+        element.computeSync();
+        if (numberOfTerms == 1) {
+            assertEquals(1, group.getNumExps());
+            assertEquals(Collections.emptyList(), group.getMultiExpTermNumbers());
+        } else {
+            assertEquals(0, group.getNumExps());
+            assertEquals(Collections.singletonList(numberOfTerms), group.getMultiExpTermNumbers());
+        }
+        assertEquals(0, group.getNumInversionsNoExpMultiExp());
+        group.resetCounters();
+    }
+
+    @Test
+    public void testNestedExponentiation() {
+        GroupElement result = g.pow(a).pow(b);
+        assertSingleExp(result, 1);
+        assertEquals(g.pow(a.multiply(b)), result);
+    }
+
+    @Test
+    public void testDistributeExponent() {
+        GroupElement result = g.pow(a).op(h.pow(b)).pow(c);
+        assertSingleExp(result, 2);
+        assertEquals(g.pow(a.multiply(c)).computeSync().op(h.pow(b.multiply(c)).computeSync()), result);
+    }
+
+    @Test
+    public void testInversion() {
+        GroupElement result = g.pow(a).inv();
+        assertSingleExp(result, 1);
+        assertEquals(g.pow(a.negate()), result);
+        group.resetCounters();
+
+        result = g.pow(a).op(h.pow(b)).inv().pow(c);
+        assertSingleExp(result, 2);
+        assertEquals(g.pow(a.multiply(c).negate()).computeSync().op(h.pow(b.multiply(c).negate()).computeSync()),
+                result);
+    }
+
+    @Test
+    public void testMergeBases() {
+        GroupElement result = g.pow(a).op(h.pow(c)).op(g.pow(b));
+        assertSingleExp(result, 2);
+        assertEquals(g.pow(a.add(b)).computeSync().op(h.pow(c).computeSync()), result);
+
+        // exponents cancel out
+        group.resetCounters();
+        result = g.pow(a).op(h).op(g.pow(a).inv());
+        result.computeSync();
+        assertEquals(0, group.getNumExps());
+        assertEquals(Collections.emptyList(), group.getMultiExpTermNumbers());
+        assertEquals(h, result);
+    }
+
+    @Test
+    public void testSharedSubexpression() {
+        GroupElement x = g.pow(a).op(h.pow(b));
+        GroupElement result = x;
+        for (int i = 0; i < 100; i++) // 2^100 paths from result to g
+            result = result.op(result);
+        assertSingleExp(result, 2);
+        BigInteger factor = BigInteger.ONE.shiftLeft(100);
+        assertEquals(g.pow(a.multiply(factor)).computeSync().op(h.pow(b.multiply(factor)).computeSync()), result);
+    }
+
+    @Test
+    public void testComputedSubexpressionsAreReused() {
+        GroupElement x = g.pow(a).computeSync();
+        group.resetCounters();
+        GroupElement result = x.pow(b).op(h.pow(c));
+        assertSingleExp(result, 2);
+        assertEquals(g.pow(a.multiply(b)).computeSync().op(h.pow(c).computeSync()), result);
+    }
+
+    @Test
+    public void testEquality() {
+        // Schnorr-like verification g^s = R * pk^c
+        GroupElement pk = g.pow(a).computeSync();
+        GroupElement commitment = g.pow(b).computeSync();
+        BigInteger s = b.add(c.multiply(a));
+        group.resetCounters();
+
+        assertTrue(g.pow(s).equals(commitment.op(pk.pow(c))));
+        assertEquals(0, group.getNumExps());
+        assertEquals(Collections.singletonList(2), group.getMultiExpTermNumbers());
+        group.resetCounters();
+
+        assertFalse(g.pow(s.add(BigInteger.ONE)).equals(commitment.op(pk.pow(c))));
+        group.resetCounters();
+
+        assertTrue(g.pow(s).isEqualTo(commitment.op(pk.pow(c))).evaluateLazy().getResult());
+        assertEquals(0, group.getNumExps());
+        assertEquals(Collections.singletonList(2), group.getMultiExpTermNumbers());
+    }
+
+    @Test
+    public void testNonMemberExponentsAreNotReduced() {
+        // the constant 2 lies in F_q^*, but not in the subgroup of order r of F_q^2 that GT is
+        Group gt = new SupersingularBilinearGroup(80).getGT();
+        GroupElement x = gt.restoreElement(
+                new ListRepresentation(new ListRepresentation(new BigIntegerRepresentation(2))));
+        assertNotEquals(gt.getNeutralElement(), x.pow(gt.size()));
+        assertFalse(x.pow(gt.size()).computeSync().isNeutralElement());
+        assertEquals(x, x.pow(gt.size().add(BigInteger.ONE)).op(x.pow(gt.size()).inv()));
+
+        // for members, exponents are still reduced
+        GroupElement y = gt.getUniformlyRandomElement();
+        assertTrue(y.pow(gt.size()).computeSync().isNeutralElement());
+    }
+
+    @Test
+    public void testCompositeOrder() {
+        DebugGroup compositeGroup = new DebugGroup("G", BigInteger.probablePrime(64, new Random())
+                .multiply(BigInteger.probablePrime(64, new Random())));
+        BigInteger n = compositeGroup.size();
+        GroupElement x = compositeGroup.getUniformlyRandomNonNeutral().computeSync();
+        compositeGroup.resetCounters();
+
+        // x^(n-1) is computed as x^-1
+        GroupElement result = x.pow(n.subtract(BigInteger.ONE));
+        result.computeSync();
+        assertEquals(0, compositeGroup.getNumExps());
+        assertEquals(Collections.emptyList(), compositeGroup.getMultiExpTermNumbers());
+        assertEquals(x.inv(), result);
+
+        // exponents cancel out modulo n
+        compositeGroup.resetCounters();
+        result = x.pow(n.add(BigInteger.ONE)).op(x.inv());
+        result.computeSync();
+        assertEquals(0, compositeGroup.getNumExps());
+        assertEquals(Collections.emptyList(), compositeGroup.getMultiExpTermNumbers());
+        assertTrue(result.isNeutralElement());
+    }
+
+    @Test
+    public void testLongProduct() {
+        LazyGroup lazyGroup = new LazyGroup(new DebugGroupImpl("G", group.size()));
+        GroupElement x = lazyGroup.getUniformlyRandomElement().computeSync();
+        GroupElement y = lazyGroup.getUniformlyRandomElement().computeSync();
+        GroupElement result = lazyGroup.getNeutralElement();
+        for (int i = 0; i < 100000; i++)
+            result = result.op(i % 2 == 0 ? x : y.pow(3));
+        assertEquals(x.pow(50000).op(y.pow(150000)), result);
+    }
+
+    @Test
+    public void testDeepChain() {
+        LazyGroup lazyGroup = new LazyGroup(new DebugGroupImpl("G", group.size()));
+        GroupElement x = lazyGroup.getUniformlyRandomElement().computeSync();
+        GroupElement result = x;
+        for (int i = 0; i < 100000; i++)
+            result = result.pow(a).inv().op(x);
+        result.computeSync();
+
+        // chain of elements that are not rewritten, but need their dependencies' concrete values
+        LazyGroupHomomorphism identity = new LazyGroupHomomorphism(lazyGroup, new IdentityIsomorphism());
+        result = x;
+        for (int i = 0; i < 100000; i++)
+            result = identity.apply(result.op(x));
+        assertEquals(x.pow(100001), result);
+    }
+}
@@ -0,0 +1,132 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.elliptic.PairingTargetGroupElementImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.PairingTargetGroupImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.nopairing.Secp256k1;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionFieldElement;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+public class PointCompressionTest {
+
+    private static void testCompression(Group group) {
+        for (int i = 0; i < 10; i++) {
+            GroupElement element = i == 0 ? group.getNeutralElement() : group.getUniformlyRandomElement();
+            Representation repr = element.getRepresentation();
+            if (i > 0)
+                assertNull(repr.obj().get("y"));
+            assertEquals(element, group.restoreElement(repr));
+            assertEquals(element.inv(), group.restoreElement(element.inv().getRepresentation()));
+
+            ByteArrayAccumulator accumulator = new ByteArrayAccumulator();
+            element.updateAccumulator(accumulator);
+            group.getUniqueByteLength().ifPresent(length ->
+                    assertEquals(length.intValue(), accumulator.extractBytes().length));
+        }
+    }
+
+    @Test
+    public void testBarretoNaehrig() {
+        BarretoNaehrigBilinearGroup bilinearGroup = new BarretoNaehrigBilinearGroup("SFC-256");
+        GroupElement g1 = bilinearGroup.getG1().getUniformlyRandomElement();
+        GroupElement g2 = bilinearGroup.getG2().getUniformlyRandomElement();
+        Representation uncompressedG1 = g1.getRepresentation();
+        Representation uncompressedG2 = g2.getRepresentation();
+        int uncompressedLength = bilinearGroup.getG2().getUniqueByteLength().get();
+
+        bilinearGroup.setCompressedRepresentation(true);
+        testCompression(bilinearGroup.getG1());
+        testCompression(bilinearGroup.getG2());
+        assertTrue(bilinearGroup.getG2().getUniqueByteLength().get() < uncompressedLength);
+
+        // uncompressed representations can still be restored
+        assertEquals(g1, bilinearGroup.getG1().restoreElement(uncompressedG1));
+        assertEquals(g2, bilinearGroup.getG2().restoreElement(uncompressedG2));
+
+        // the setting is part of the group's representation
+        BarretoNaehrigBilinearGroup restored = new BarretoNaehrigBilinearGroup(bilinearGroup.getRepresentation());
+        assertEquals(bilinearGroup, restored);
+        assertNull(restored.getG2().getUniformlyRandomElement().getRepresentation().obj().get("y"));
+    }
+
+    @Test
+    public void testBarretoNaehrigTargetGroup() {
+        BarretoNaehrigBilinearGroup bilinearGroup = new BarretoNaehrigBilinearGroup("SFC-256");
+        GroupElement gt = bilinearGroup.getGT().getUniformlyRandomElement();
+        Representation uncompressed = gt.getRepresentation();
+        int uncompressedLength = bilinearGroup.getGT().getUniqueByteLength().get();
+
+        bilinearGroup.setCompressedTargetGroupRepresentation(true);
+        for (int i = 0; i < 10; i++) {
+            GroupElement element = i == 0 ? bilinearGroup.getGT().getNeutralElement()
+                    : bilinearGroup.getGT().getUniformlyRandomElement();
+            assertEquals(element, bilinearGroup.getGT().restoreElement(element.getRepresentation()));
+
+            ByteArrayAccumulator accumulator = new ByteArrayAccumulator();
+            element.updateAccumulator(accumulator);
+            assertEquals(bilinearGroup.getGT().getUniqueByteLength().get().intValue(),
+                    accumulator.extractBytes().length);
+        }
+        assertTrue(2 * bilinearGroup.getGT().getUniqueByteLength().get() < uncompressedLength);
+        assertEquals(gt, bilinearGroup.getGT().restoreElement(uncompressed));
+        assertEquals(bilinearGroup, new BarretoNaehrigBilinearGroup(bilinearGroup.getRepresentation()));
+    }
+
+    /**
+     * Subgroup of order \((p^2+1)/2\) of \(\mathbb{F}_p[x]/(x^4 - 2)\), i.e. a target group with \(k \equiv 0 \bmod 4\),
+     * where \(x^{k/2}\) lies in the subfield spanned by even powers of \(x\).
+     */
+    private static class QuarticTargetGroupImpl extends PairingTargetGroupImpl {
+        private static final BigInteger P = new BigInteger("2305843009213694149"); //2 is a non-residue mod p
+
+        QuarticTargetGroupImpl() {
+            super(new ExtensionField(new Zp(P).getElement(-2), 4), P.pow(2).add(BigInteger.ONE).shiftRight(1));
+        }
+
+        @Override
+        public PairingTargetGroupElementImpl getElement(ExtensionFieldElement fe) {
+            return new PairingTargetGroupElementImpl(this, fe) {};
+        }
+
+        @Override
+        public boolean hasPrimeSize() {
+            return true;
+        }
+
+        @Override
+        public double estimateCostInvPerOp() {
+            return 100;
+        }
+    }
+
+    @Test
+    public void testTargetGroupOfDegreeDivisibleByFour() {
+        QuarticTargetGroupImpl impl = new QuarticTargetGroupImpl();
+        LazyGroup group = new LazyGroup(impl);
+        impl.setCompressedRepresentation(true);
+        testCompression(group);
+        for (int i = 0; i < 10; i++) {
+            GroupElement element = group.getUniformlyRandomNonNeutral();
+            assertNotNull(element.getRepresentation().obj().get("c"));
+            assertNotEquals(group.getNeutralElement(), group.restoreElement(element.getRepresentation()));
+        }
+    }
+
+    @Test
+    public void testSecp256k1() {
+        LazyGroup group = new LazyGroup(new Secp256k1(true));
+        testCompression(group);
+        assertEquals(group, new LazyGroup(group.getRepresentation()));
+    }
+}
@@ -0,0 +1,65 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.cryptimeleon.math.structures.rings.RingElement;
+import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
+import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+public class PolynomialEvaluationTest {
+
+    @Test
+    public void testEvaluateAllStrategiesAgree() {
+        Zn zn = new Zn(BigInteger.valueOf(1000003));
+        PolynomialRing.Polynomial poly = PolynomialRing.getPoly(
+                zn.getUniformlyRandomElements(20).toList().toArray(new RingElement[0])
+        );
+        List<RingElement> points = Stream.generate(zn::getUniformlyRandomElement).limit(33)
+                .collect(Collectors.toList());
+
+        RingElementVector expected = RingElementVector.fromStream(points.stream().map(poly::evaluate));
+        for (PolynomialRing.EvaluationStrategy strategy : PolynomialRing.EvaluationStrategy.values())
+            assertEquals(expected, poly.evaluateAll(points, strategy));
+        assertEquals(expected, poly.evaluateAll(points));
+    }
+
+    @Test
+    public void testEvaluateAllGenericBaseRing() {
+        ExtensionField field = new ExtensionField(BigInteger.valueOf(1000003));
+        PolynomialRing.Polynomial poly = PolynomialRing.getPoly(
+                field.getUniformlyRandomElements(5).toList().toArray(new RingElement[0])
+        );
+        List<RingElement> points = Stream.generate(field::getUniformlyRandomElement).limit(9)
+                .collect(Collectors.toList());
+
+        RingElementVector expected = RingElementVector.fromStream(points.stream().map(poly::evaluate));
+        for (PolynomialRing.EvaluationStrategy strategy : PolynomialRing.EvaluationStrategy.values())
+            assertEquals(expected, poly.evaluateAll(points, strategy));
+    }
+
+    @Test
+    public void testEvaluateAllInTheExponent() {
+        DebugGroup group = new DebugGroup("PolynomialEvaluationTest", BigInteger.valueOf(1000003));
+        GroupElement g = group.getGenerator();
+        RingElementVector coefficients = group.getUniformlyRandomExponents(6);
+        PolynomialRing.Polynomial poly = PolynomialRing.getPoly(coefficients.toList().toArray(new RingElement[0]));
+        GroupElementVector commitments = g.pow(coefficients);
+        List<RingElement> points = Stream.generate(group::getUniformlyRandomExponent).limit(10)
+                .collect(Collectors.toList());
+
+        GroupElementVector result = PolynomialRing.evaluateAllInTheExponent(commitments, points);
+        for (int i = 0; i < points.size(); i++)
+            assertEquals(g.pow(poly.evaluate(points.get(i))), result.get(i));
+    }
+}
@@ -0,0 +1,81 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroupImpl;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.groups.lazy.RandomElementPool;
+import org.cryptimeleon.math.structures.groups.lazy.RandomPower;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class RandomElementPoolTest {
+
+    private static void awaitFull(RandomElementPool pool) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getNumberOfAvailablePowers() < pool.getCapacity()
+                || pool.getNumberOfAvailableElements() < pool.getCapacity()) {
+            assertTrue("pool was not refilled: " + pool, System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPool() throws InterruptedException {
+        LazyGroup group = new LazyGroup(new DebugGroupImpl("G", BigInteger.probablePrime(128, new Random())));
+        RandomElementPool pool = group.enableRandomElementPool(8);
+        awaitFull(pool);
+
+        Set<GroupElement> elements = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            RandomPower power = group.getUniformlyRandomPowerOfGenerator();
+            assertEquals(group.getGenerator().pow(power.getExponent()), power.getPower());
+            elements.add(power.getPower());
+            elements.add(group.getUniformlyRandomElement().computeSync());
+        }
+        assertEquals(8, elements.size());
+        assertEquals(8, pool.getNumberOfHits());
+        assertEquals(0, pool.getNumberOfMisses());
+
+        // taking more than the capacity falls back to inline generation once the pool is empty
+        for (int i = 0; i < 20; i++) {
+            RandomPower power = group.getUniformlyRandomPowerOfGenerator();
+            assertEquals(group.getGenerator().pow(power.getExponent()), power.getPower());
+        }
+        assertEquals(28, pool.getNumberOfHits() + pool.getNumberOfMisses());
+        assertTrue(pool.getNumberOfAvailablePowers() <= pool.getCapacity());
+
+        group.disableRandomElementPool();
+        assertFalse(group.getRandomElementPool().isPresent());
+        RandomPower power = group.getUniformlyRandomPowerOfGenerator();
+        assertEquals(group.getGenerator().pow(power.getExponent()), power.getPower());
+        assertEquals(28, pool.getNumberOfHits() + pool.getNumberOfMisses());
+    }
+
+    @Test
+    public void testBulkElements() throws InterruptedException {
+        LazyGroup group = new LazyGroup(new DebugGroupImpl("G", BigInteger.probablePrime(128, new Random())));
+        RandomElementPool pool = group.enableRandomElementPool(8);
+        awaitFull(pool);
+
+        // the pooled elements are used first, only the remaining ones are generated
+        GroupElementVector elements = group.getUniformlyRandomElements(12);
+        assertEquals(12, elements.length());
+        assertEquals(12, new HashSet<>(elements.stream().collect(Collectors.toList())).size());
+        assertEquals(8, pool.getNumberOfHits());
+        assertEquals(4, pool.getNumberOfMisses());
+        for (int i = 0; i < elements.length(); i++)
+            assertTrue(elements.get(i).isComputed());
+
+        group.disableRandomElementPool();
+        assertEquals(5, group.getUniformlyRandomElements(5).length());
+        assertEquals(12, pool.getNumberOfHits() + pool.getNumberOfMisses());
+    }
+}
@@ -0,0 +1,71 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.structures.rings.Field;
+import org.cryptimeleon.math.structures.rings.FieldElement;
+import org.cryptimeleon.math.structures.rings.extfield.ExtensionField;
+import org.cryptimeleon.math.structures.rings.helpers.FiniteFieldTools;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+public class SquareRootTest {
+
+    private static void assertNoSquareRoot(FieldElement nonSquare) {
+        try {
+            nonSquare.sqrt();
+            fail("Expected ArithmeticException for non-square " + nonSquare);
+        } catch (ArithmeticException e) {
+            // expected
+        }
+    }
+
+    private static void testSquareRoots(Field field) {
+        for (int i = 0; i < 20; i++) {
+            FieldElement a = field.getUniformlyRandomElement();
+            FieldElement square = a.square();
+            assertTrue(square.isSquare());
+            assertEquals(square, square.sqrt().square());
+            assertEquals(FiniteFieldTools.isSquareByEulerCriterion(a), a.isSquare());
+        }
+
+        FieldElement qnr = field.getQuadraticNonResidue();
+        assertFalse(qnr.isSquare());
+        assertFalse(FiniteFieldTools.isSquareByEulerCriterion(qnr));
+        assertNoSquareRoot(qnr);
+        assertNoSquareRoot(qnr.mul(field.getUniformlyRandomUnit().square()));
+        assertTrue(field.getZeroElement().sqrt().isZero());
+    }
+
+    @Test
+    public void testZp() {
+        testSquareRoots(new Zp(BigInteger.valueOf(1000003))); // 3 mod 4
+        testSquareRoots(new Zp(BigInteger.valueOf(1000037))); // 5 mod 8
+        testSquareRoots(new Zp(BigInteger.valueOf(1000033))); // 1 mod 8
+    }
+
+    @Test
+    public void testExtensionFields() {
+        for (long p : new long[] {1000003, 1000033}) {
+            ExtensionField baseField = new ExtensionField(BigInteger.valueOf(p));
+            testSquareRoots(baseField);
+
+            ExtensionField quadraticExtension = new ExtensionField(baseField.getQuadraticNonResidue().neg(), 2);
+            testSquareRoots(quadraticExtension);
+            for (int i = 0; i < 10; i++) { // base field elements are squares in the extension
+                FieldElement a = quadraticExtension.createElement(baseField.getUniformlyRandomElement());
+                assertEquals(a, a.sqrt().square());
+            }
+        }
+
+        // generic Tonelli-Shanks for x^3 - c, where c is not a cube in Z_1000033
+        ExtensionField baseField = new ExtensionField(BigInteger.valueOf(1000033));
+        FieldElement nonCube;
+        do {
+            nonCube = baseField.getUniformlyRandomUnit();
+        } while (nonCube.pow(baseField.sizeUnitGroup().divide(BigInteger.valueOf(3))).isOne());
+        testSquareRoots(new ExtensionField(nonCube.neg(), 3));
+    }
+}
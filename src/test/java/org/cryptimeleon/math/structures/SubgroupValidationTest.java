@@ -0,0 +1,195 @@
+package org.cryptimeleon.math.structures;
+
+import org.cryptimeleon.math.serialization.ListRepresentation;
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.GroupElementImpl;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupElement;
+import org.cryptimeleon.math.structures.groups.elliptic.PairingSourceGroupImpl;
+import org.cryptimeleon.math.structures.groups.elliptic.nopairing.Secp256k1;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
+import org.cryptimeleon.math.structures.groups.exp.ExponentiationAlgorithms;
+import org.cryptimeleon.math.structures.groups.lazy.LazyGroup;
+import org.cryptimeleon.math.structures.rings.FieldElement;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class SubgroupValidationTest {
+    private static final BarretoNaehrigBilinearGroup bilinearGroup = new BarretoNaehrigBilinearGroup("SFC-256");
+
+    /**
+     * Returns a point on the curve that (most likely) is not in the subgroup.
+     */
+    private static PairingSourceGroupElement getPointOnCurve(PairingSourceGroupImpl group) {
+        while (true) {
+            FieldElement x = group.getFieldOfDefinition().getUniformlyRandomElement();
+            try {
+                return (PairingSourceGroupElement) group.decompress(x, false);
+            } catch (IllegalArgumentException e) {
+                // x is not the x-coordinate of a point
+            }
+        }
+    }
+
+    /**
+     * Returns a point of the given (small prime) order dividing the cofactor.
+     */
+    private static GroupElementImpl getPointOfOrder(PairingSourceGroupImpl group, BigInteger order) {
+        BigInteger cofactorPart = group.getCofactor().divide(order).multiply(group.size());
+        while (true) {
+            GroupElementImpl point = ExponentiationAlgorithms.binSquareMultiplyExp(getPointOnCurve(group), cofactorPart);
+            if (!point.isNeutralElement())
+                return point;
+        }
+    }
+
+    private static Representation getOffCurveRepresentation(GroupElement point) {
+        ObjectRepresentation repr = (ObjectRepresentation) point.getRepresentation();
+        ObjectRepresentation result = new ObjectRepresentation();
+        result.put("x", repr.get("x"));
+        result.put("y", repr.get("x"));
+        result.put("z", repr.get("z"));
+        return result;
+    }
+
+    @Test
+    public void testG2() {
+        LazyGroup g2 = (LazyGroup) bilinearGroup.getG2();
+        PairingSourceGroupImpl impl = (PairingSourceGroupImpl) g2.getImpl();
+
+        for (int i = 0; i < 3; i++) {
+            GroupElementImpl member = impl.getUniformlyRandomElement();
+            assertTrue(impl.isMember(member));
+            PairingSourceGroupElement nonMember = getPointOnCurve(impl);
+            assertFalse(impl.isMember(nonMember));
+            assertEquals(ExponentiationAlgorithms.binSquareMultiplyExp(nonMember, impl.size()).isNeutralElement(),
+                    impl.isMember(nonMember));
+        }
+        assertTrue(impl.isMember(impl.getNeutralElement()));
+        assertTrue(impl.isMember(impl.getGenerator()));
+
+        // member plus a point of small order
+        GroupElementImpl member = impl.getUniformlyRandomElement();
+        GroupElementImpl smallOrderPoint = getPointOfOrder(impl, BigInteger.valueOf(13));
+        assertFalse(impl.isMember(member.op(smallOrderPoint)));
+    }
+
+    @Test
+    public void testG2Batch() {
+        PairingSourceGroupImpl impl = (PairingSourceGroupImpl) ((LazyGroup) bilinearGroup.getG2()).getImpl();
+        GroupElementImpl generator = impl.getGenerator();
+        List<GroupElementImpl> points = new ArrayList<>();
+        GroupElementImpl point = generator;
+        for (int i = 0; i < 150; i++) {
+            points.add(point);
+            point = point.op(generator);
+        }
+        points.add(impl.getNeutralElement());
+        assertTrue(impl.areMembers(points));
+
+        GroupElementImpl smallOrderPoint = getPointOfOrder(impl, BigInteger.valueOf(13));
+        points.set(77, points.get(77).op(smallOrderPoint));
+        assertFalse(impl.areMembers(points));
+
+        points.set(77, getPointOnCurve(impl));
+        assertFalse(impl.areMembers(points));
+    }
+
+    @Test
+    public void testG1() {
+        Group g1 = bilinearGroup.getG1();
+        GroupElement member = g1.getUniformlyRandomElement();
+        assertTrue(g1.isMember(member));
+        assertTrue(g1.isMember(g1.getNeutralElement()));
+        assertFalse(g1.isMember(g1.restoreElement(getOffCurveRepresentation(member))));
+    }
+
+    @Test
+    public void testSecp256k1() {
+        Group group = new LazyGroup(new Secp256k1());
+        GroupElementVector members = group.getUniformlyRandomElements(5);
+        assertTrue(group.areMembers(members));
+        GroupElement nonMember = group.restoreElement(getOffCurveRepresentation(members.get(0)));
+        assertFalse(group.isMember(nonMember));
+        assertFalse(group.areMembers(members.append(nonMember)));
+    }
+
+    @Test
+    public void testRestoreValidated() {
+        Group g1 = bilinearGroup.getG1();
+        GroupElement member = g1.getUniformlyRandomElement();
+        Representation invalidRepr = getOffCurveRepresentation(member);
+
+        assertEquals(member, g1.restoreValidatedElement(member.getRepresentation()));
+        GroupElementVector members = g1.getUniformlyRandomElements(3);
+        assertEquals(members, g1.restoreValidatedVector(members.getRepresentation()));
+
+        // validation is deferred until the value is needed
+        GroupElement invalid = g1.restoreValidatedElement(invalidRepr);
+        try {
+            invalid.getRepresentation();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try { // fails consistently
+            invalid.op(member).computeSync();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        ListRepresentation vectorRepr = (ListRepresentation) members.getRepresentation();
+        vectorRepr.put(invalidRepr);
+        GroupElementVector invalidVector = g1.restoreValidatedVector(vectorRepr);
+        try {
+            invalidVector.get(0).getRepresentation();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected, since all elements are validated together
+        }
+    }
+
+    @Test
+    public void testRestoreValidatedConcurrently() throws InterruptedException {
+        LazyGroup g2 = (LazyGroup) bilinearGroup.getG2();
+        // the subgroup check takes a while, so threads wait for the one validating the element
+        Representation invalidRepr = getPointOnCurve((PairingSourceGroupImpl) g2.getImpl()).getRepresentation();
+        int numberOfThreads = 8;
+        for (int round = 0; round < 10; round++) {
+            // threads waiting for another thread's failed validation get the same exception
+            GroupElement invalid = g2.restoreValidatedElement(invalidRepr);
+            List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < numberOfThreads; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                        invalid.computeSync();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads)
+                thread.join();
+            assertEquals(numberOfThreads, failures.size());
+            for (Throwable failure : failures)
+                assertTrue(failure.toString(), failure instanceof IllegalArgumentException);
+        }
+    }
+}